@@ -0,0 +1,44 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, writing results as JSON to
+ * jmh-result.json unless -rf or -rff say otherwise, so runs can be compared over time.
+ */
+public final class BenchmarkMain {
+  private BenchmarkMain() {
+  }
+
+  /**
+   * Entry point of the benchmark jar.
+   *
+   * @param args JMH command line options, for example a benchmark name pattern or -p
+   *        rooms=1000.
+   * @throws Exception if the options are invalid or a benchmark fails to run.
+   */
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions options = new CommandLineOptions(args);
+    if (options.shouldHelp()) {
+      options.showHelp();
+      return;
+    }
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+    if (!options.getResultFormat().hasValue()) {
+      builder.resultFormat(ResultFormatType.JSON);
+    }
+    if (!options.getResult().hasValue()) {
+      builder.result("jmh-result.json");
+    }
+    Runner runner = new Runner(builder.build());
+    if (options.shouldList()) {
+      runner.list();
+      return;
+    }
+    runner.run();
+  }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import controller.ComputerPlayerStrategy;
+import controller.RandomNumberGenerator;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.SimulatedComputerStrategy;
+import world.World;
+import world.WorldSpec;
+
+/**
+ * Cost of one computer player's turn, for the text game's strategy writing to an output
+ * that discards everything and for the silent strategy of the simulation engine. Both draw
+ * from the same seed, so they make the same choices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ComputerTurnBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  public int rooms;
+
+  @Param({"2", "16", "128"})
+  public int players;
+
+  private WorldSpec spec;
+  private World world;
+  private ComputerPlayerStrategy textStrategy;
+  private SimulatedComputerStrategy silentStrategy;
+
+  /**
+   * Builds the world and both strategies.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    spec = GeneratedWorlds.spec(rooms);
+    world = GeneratedWorlds.withPlayers(spec, players);
+    textStrategy = new ComputerPlayerStrategy(world, Writer.nullWriter(),
+        RandomNumberGenerator.seeded(1));
+    silentStrategy = new SimulatedComputerStrategy(world, RandomNumberGenerator.seeded(1));
+  }
+
+  /**
+   * Starts every iteration from turn zero with a healthy target.
+   */
+  @Setup(Level.Iteration)
+  public void resetTurn() {
+    world.setCurrentTurn(0);
+    world.setRunning(true);
+    world.getTarget().setHealthPoint(spec.getTargetHealth());
+  }
+
+  @Benchmark
+  public int textTurn() throws IOException, InterruptedException {
+    textStrategy.executeActions(world.getCurrentPlayerId());
+    return world.getCurrentTurn();
+  }
+
+  @Benchmark
+  public int silentTurn() {
+    silentStrategy.executeActions(world.getCurrentPlayerId());
+    return world.getCurrentTurn();
+  }
+}
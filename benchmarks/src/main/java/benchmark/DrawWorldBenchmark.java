@@ -0,0 +1,52 @@
+package benchmark;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import world.World;
+
+/**
+ * Cost of drawing the whole map after a turn, as saving the map does. The picture grows
+ * with the world, up to 280 pixels a side per room here, so only worlds whose picture fits in
+ * memory are measured; larger worlds are covered by {@link MapViewportBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class DrawWorldBenchmark {
+  @Param({"100", "1000"})
+  public int rooms;
+
+  @Param({"2", "16"})
+  public int players;
+
+  private World world;
+
+  /**
+   * Builds the world and draws it once, so the room layer is cached as in a running game.
+   */
+  @Setup
+  public void setUp() {
+    world = GeneratedWorlds.withPlayers(GeneratedWorlds.spec(rooms), players);
+    world.drawWorld();
+  }
+
+  @Benchmark
+  public BufferedImage drawAfterTurn() {
+    world.advanceTurn();
+    return world.drawWorld();
+  }
+}
@@ -0,0 +1,63 @@
+package benchmark;
+
+import generator.MansionGenerator;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import simulation.SimulationEngine;
+import world.World;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * Worlds of any size for the benchmarks, from the mansion generator with its default
+ * settings and a fixed seed, so every run measures the same worlds.
+ */
+final class GeneratedWorlds {
+  private GeneratedWorlds() {
+  }
+
+  /**
+   * Generates the text of a world file.
+   *
+   * @param rooms the number of rooms.
+   * @return the world file's text
+   */
+  static String text(int rooms) {
+    StringBuilder text = new StringBuilder(rooms * 48);
+    try {
+      new MansionGenerator(rooms, 1).write(text);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return text.toString();
+  }
+
+  /**
+   * Generates a world file and parses it.
+   *
+   * @param rooms the number of rooms.
+   * @return the parsed form of the world file
+   */
+  static WorldSpec spec(int rooms) {
+    return new WorldFileParser(new StringReader(text(rooms))).parse();
+  }
+
+  /**
+   * Builds a world with computer players spread evenly over the rooms and no turn limit.
+   *
+   * @param spec the world file content.
+   * @param players the number of players.
+   * @return the world, ready to play
+   */
+  static World withPlayers(WorldSpec spec, int players) {
+    World world = new World(spec);
+    world.setMaxTurns(Integer.MAX_VALUE);
+    int rooms = spec.getRooms().size();
+    for (int i = 0; i < players; i++) {
+      SimulationEngine.addComputerPlayer(world, "Computer " + (i + 1),
+          1 + (int) ((long) i * rooms / players));
+    }
+    return world;
+  }
+}
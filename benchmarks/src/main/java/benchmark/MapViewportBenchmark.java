@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import world.World;
+
+/**
+ * Cost of what the map panel paints: the rooms of one 256 pixel tile, and the players and
+ * target over a window-sized view, both in the middle of the map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-Djava.awt.headless=true"})
+public class MapViewportBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  public int rooms;
+
+  @Param({"2", "128"})
+  public int players;
+
+  private World world;
+  private BufferedImage canvas;
+  private Rectangle tile;
+  private Rectangle view;
+
+  /**
+   * Builds the world and picks the painted areas.
+   */
+  @Setup
+  public void setUp() {
+    world = GeneratedWorlds.withPlayers(GeneratedWorlds.spec(rooms), players);
+    Dimension size = world.getMapSize();
+    tile = new Rectangle(size.width / 2, size.height / 2, 256, 256);
+    view = new Rectangle(Math.max(0, size.width / 2 - 512), Math.max(0, size.height / 2 - 384),
+        1024, 768);
+    canvas = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_RGB);
+  }
+
+  @Benchmark
+  public BufferedImage paintRoomTile() {
+    Graphics2D g = canvas.createGraphics();
+    g.translate(-tile.x, -tile.y);
+    world.paintMapRooms(g, tile);
+    g.dispose();
+    return canvas;
+  }
+
+  @Benchmark
+  public BufferedImage paintTokens() {
+    Graphics2D g = canvas.createGraphics();
+    g.translate(-view.x, -view.y);
+    world.paintMapTokens(g, view);
+    g.dispose();
+    return canvas;
+  }
+}
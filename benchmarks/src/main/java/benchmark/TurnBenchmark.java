@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import simulation.SimulationEngine;
+import world.World;
+import world.WorldSpec;
+
+/**
+ * Cost of the per-turn world operations: ending a turn, which moves the target and the
+ * pet, looking around, and attacking the target. The attacker shares the target's room
+ * and may or may not be seen, depending on where the other players stand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TurnBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  public int rooms;
+
+  @Param({"2", "16", "128"})
+  public int players;
+
+  private WorldSpec spec;
+  private World world;
+  private int attackerId;
+
+  /**
+   * Builds the world, with one more player standing in the target's room.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    spec = GeneratedWorlds.spec(rooms);
+    world = GeneratedWorlds.withPlayers(spec, players);
+    attackerId = SimulationEngine.addComputerPlayer(world, "Attacker",
+        world.getTarget().getLocation().getRoomId());
+  }
+
+  /**
+   * Starts every iteration from turn zero with a healthy target.
+   */
+  @Setup(Level.Iteration)
+  public void resetTurn() {
+    world.setCurrentTurn(0);
+    world.getTarget().setHealthPoint(spec.getTargetHealth());
+  }
+
+  @Benchmark
+  public String advanceTurn() {
+    return world.advanceTurn();
+  }
+
+  @Benchmark
+  public String lookAround() {
+    return world.playerLookAround(attackerId);
+  }
+
+  /**
+   * Heals the target before every attack, so each call measures an attack on a living
+   * target instead of one on a target the earlier calls already killed.
+   */
+  @State(Scope.Thread)
+  public static class Attack {
+    /**
+     * Restores the target's health.
+     *
+     * @param turns the benchmark whose target is healed.
+     */
+    @Setup(Level.Invocation)
+    public void heal(TurnBenchmark turns) {
+      turns.world.getTarget().setHealthPoint(turns.spec.getTargetHealth());
+    }
+  }
+
+  @Benchmark
+  public String murderAttempt(Attack attack) {
+    return world.murderAttempt(attackerId);
+  }
+}
@@ -0,0 +1,60 @@
+package benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import world.World;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * Time to turn a world file into a playable world: parsing the text alone, building the
+ * world from parsed content, and both together as the launcher does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class WorldLoadBenchmark {
+  @Param({"100", "1000", "10000", "100000"})
+  public int rooms;
+
+  private WorldSpec spec;
+  private String text;
+
+  /**
+   * Generates the world and its file text.
+   */
+  @Setup
+  public void setUp() {
+    text = GeneratedWorlds.text(rooms);
+    spec = new WorldFileParser(new StringReader(text)).parse();
+  }
+
+  @Benchmark
+  public WorldSpec parse() {
+    return new WorldFileParser(new StringReader(text)).parse();
+  }
+
+  @Benchmark
+  public World build() {
+    return new World(spec);
+  }
+
+  @Benchmark
+  public World load() {
+    return new World(new StringReader(text));
+  }
+}
@@ -1,5 +1,7 @@
 package controller;
 
+import java.awt.Dimension;
+import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
@@ -86,6 +88,29 @@ public interface Controller {
    */
   Map<Integer, Rectangle> getRoomCoordinates();
 
+  /**
+   * Gets the size of the world map in pixels, before any zoom.
+   *
+   * @return the width and height of the whole map.
+   */
+  Dimension getMapSize();
+
+  /**
+   * Paints the rooms found in one area of the world map.
+   *
+   * @param g where to paint, in map pixel coordinates.
+   * @param area the area of the map to paint.
+   */
+  void paintMapRooms(Graphics g, Rectangle area);
+
+  /**
+   * Paints the target and the players found in one area of the world map.
+   *
+   * @param g where to paint, in map pixel coordinates.
+   * @param area the area of the map to paint.
+   */
+  void paintMapTokens(Graphics g, Rectangle area);
+
   /**
    * Gets the ID of the player whose turn it is currently.
    *
@@ -217,6 +242,14 @@ public interface Controller {
    */
   boolean getEnd();
 
+  /**
+   * Checks if computer players are taking their turns, during which human players'
+   * actions are refused.
+   *
+   * @return true while computer turns are being played, false otherwise.
+   */
+  boolean isComputerTurn();
+
   /**
    * Gets the result of the game.
    *
@@ -1,11 +1,14 @@
 package controller;
 
+import java.awt.Dimension;
+import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.SwingUtilities;
 import view.FrameView;
 import world.ReadOnlyWorld;
@@ -14,19 +17,27 @@ import world.WorldOutline;
 /**
  * GameController manages the game's execution flow, processing user 
  * input and maintaining game state.
+ *
+ * <p>In the Gui, the world is only changed on the controller's {@link GameLoop} thread:
+ * human players' actions are run there and waited for, and computer players' turns are
+ * played there one after another with an animation delay between them. Each finished turn
+ * is published to the Swing event thread as a refresh of the frame.
  */
 public class GameController implements Controller {
   private Scanner scanner;
   private Appendable output;
   private int maxTurns;
   private RandomNumberGenerator rng;
-  private ReadOnlyWorld rworld;
+  private volatile ReadOnlyWorld rworld;
   private Map<Integer, Rectangle> roomCoordinates;
-  private Map<Integer, Rectangle> playerCoordinates;
   private String mode = "Cli";
   private FrameView gameFrame;
-  private boolean gameEnd = false;
-  private String result;
+  private volatile boolean gameEnd = false;
+  private volatile String result;
+  private volatile boolean computerTurn = false;
+  private volatile long turnDelay = 1000;
+  private GameLoop gameLoop;
+  private final AtomicBoolean framePending = new AtomicBoolean();
 
   /**
    * Constructs a new GameController with the specified input, 
@@ -59,16 +70,19 @@ public class GameController implements Controller {
   @Override
   public void addPlayer(String playerName, int roomIndex, boolean isComputer) 
       throws IOException, InterruptedException {
-    Command command;
-    if (isComputer) {
-      command = new CreateComputerPlayerCommand(rworld, playerName, roomIndex, 
-          rworld.getPlayerIds(), rworld.getPlayerNames(), rworld.getIsComputer());
-    } else {
-      command = new CreatePlayerCommand(rworld, playerName, roomIndex, 
-          rworld.getPlayerIds(), rworld.getPlayerNames(), rworld.getIsComputer());
-    }
-    command.execute(output);
-    updateCoordinates();
+    gameLoop().call(() -> {
+      Command command;
+      if (isComputer) {
+        command = new CreateComputerPlayerCommand(rworld, playerName, roomIndex, 
+            rworld.getPlayerIds(), rworld.getPlayerNames(), rworld.getIsComputer());
+      } else {
+        command = new CreatePlayerCommand(rworld, playerName, roomIndex, 
+            rworld.getPlayerIds(), rworld.getPlayerNames(), rworld.getIsComputer());
+      }
+      command.execute(output);
+      ((WorldOutline) rworld).publishSnapshot();
+      return null;
+    });
   }
 
   @Override
@@ -79,8 +93,11 @@ public class GameController implements Controller {
       } else {
         print("Game will start with " + rworld.getPlayerIds().size() + " players.");
       }
-      ((WorldOutline) rworld).setRunningGui(true);  
-      runGameG((WorldOutline) rworld);
+      gameLoop().call(() -> {
+        ((WorldOutline) rworld).setRunningGui(true);
+        runGameG((WorldOutline) rworld);
+        return null;
+      });
     } catch (IllegalArgumentException e) {
       throw e;
     }
@@ -90,7 +107,9 @@ public class GameController implements Controller {
   @Override
   public void loadNewWorld(ReadOnlyWorld worldInput) throws IOException {
     this.rworld = worldInput;  
-    updateCoordinates();
+    this.computerTurn = false;
+    this.roomCoordinates = worldInput.getRoomCoordinates();
+    ((WorldOutline) worldInput).publishSnapshot();
   }
   
 
@@ -482,14 +501,6 @@ public class GameController implements Controller {
     return rworld.drawWorld();
   }
 
-  private void updateCoordinates() {
-    if (rworld != null) {
-      rworld.drawWorld();
-      this.roomCoordinates = rworld.getRoomCoordinates();
-      this.playerCoordinates = rworld.getPlayerCoordinates();
-    }
-  }
-  
   @Override
   public Map<Integer, Rectangle> getRoomCoordinates() {
     return roomCoordinates;
@@ -497,23 +508,47 @@ public class GameController implements Controller {
 
   @Override
   public Map<Integer, Rectangle> getPlayerCoordinates() {
-    return playerCoordinates;
+    return rworld != null ? rworld.getSnapshot().getPlayerCoordinates() : null;
+  }
+
+  @Override
+  public Dimension getMapSize() {
+    return rworld != null ? rworld.getMapSize() : new Dimension(0, 0);
+  }
+
+  @Override
+  public void paintMapRooms(Graphics g, Rectangle area) {
+    if (rworld != null) {
+      rworld.paintMapRooms(g, area);
+    }
+  }
+
+  @Override
+  public void paintMapTokens(Graphics g, Rectangle area) {
+    if (rworld != null) {
+      rworld.paintMapTokens(g, area);
+    }
   }
   
   @Override
   public int getCurrentPlayerId() {
-    return rworld.getCurrentPlayerId();
+    return rworld.getSnapshot().getCurrentPlayerId();
   }
   
   @Override
   public boolean getRunning() {
-    return rworld.getIsRunningGui();
+    return rworld.getSnapshot().isRunningGui();
   }
   
   @Override
   public boolean getEnd() {
     return this.gameEnd;
   }
+
+  @Override
+  public boolean isComputerTurn() {
+    return computerTurn;
+  }
   
   @Override
   public void setEnd(boolean end) {
@@ -532,32 +567,113 @@ public class GameController implements Controller {
       
   }
   
-  private void runGameG(WorldOutline world) throws InterruptedException, IOException {
+  /**
+   * Plays on from the current player, on the game loop thread, unless another world was
+   * loaded since. A computer player's turn
+   * is scheduled on the loop; a human player's turn is announced and the loop waits for
+   * their action.
+   */
+  private void runGameG(WorldOutline world) throws IOException {
+    if (world != rworld) {
+      return;
+    }
     this.gameEnd = false;
-    while (world.getIsRunning()) {
-      int currentPlayerId = world.getCurrentPlayerId();
-      if (world.getIsComputer().get(currentPlayerId)) {
-        handleComputerPlayer(currentPlayerId);
-        updateCoordinates();
-        updateGameStatus();
-        gameFrame.refreshWorldDisplay(this);
-        Thread.sleep(1000);
-      } else {
-        SwingUtilities.invokeLater(() -> {
+    if (!world.getIsRunning()) {
+      return;
+    }
+    int currentPlayerId = world.getCurrentPlayerId();
+    if (world.getIsComputer().get(currentPlayerId)) {
+      computerTurn = true;
+      gameLoop().schedule(() -> playComputerTurn(world), 0);
+    } else {
+      if (computerTurn) {
+        computerTurn = false;
+        publishFrame();
+      }
+      SwingUtilities.invokeLater(() -> {
+        try {
+          prepareForPlayerTurn(currentPlayerId);
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
+      });
+      updateGameStatus();
+    }
+  }
+
+  /**
+   * Plays one computer player's turn, publishes the result and schedules whatever comes
+   * next after the animation delay. Turns still scheduled for a world that has since been
+   * replaced are dropped.
+   */
+  private void playComputerTurn(WorldOutline world) {
+    if (world != rworld) {
+      return;
+    }
+    try {
+      handleComputerPlayer(world.getCurrentPlayerId());
+      updateGameStatus();
+      publishFrame();
+      if (world.getIsRunning()) {
+        gameLoop().schedule(() -> {
           try {
-            prepareForPlayerTurn(currentPlayerId);
+            runGameG(world);
           } catch (IOException e) {
             e.printStackTrace();
           }
-        });
-        updateGameStatus();
-        return;  
-      }
-      if (!world.getIsRunning()) {
-        break; 
+        }, turnDelay);
+        return;
       }
+    } catch (IOException | InterruptedException e) {
+      e.printStackTrace();
+    }
+    computerTurn = false;
+  }
+
+  /**
+   * Asks the event thread to refresh the frame. A refresh that has not run yet already
+   * shows the latest turn, so no second one is queued behind it; with no delay between
+   * computer turns the event thread gets one refresh at a time however fast turns go.
+   */
+  private void publishFrame() {
+    if (gameFrame != null && framePending.compareAndSet(false, true)) {
+      SwingUtilities.invokeLater(() -> {
+        framePending.set(false);
+        gameFrame.refreshWorldDisplay(this);
+      });
+    }
+  }
 
+  private GameLoop gameLoop() {
+    if (gameLoop == null) {
+      gameLoop = new GameLoop();
+    }
+    return gameLoop;
+  }
+
+  /**
+   * Runs a human player's action on the game loop and waits for it.
+   */
+  private <T> T humanAction(GameLoop.Action<T> action)
+      throws IOException, InterruptedException {
+    if (computerTurn) {
+      throw new IllegalArgumentException("Wait for the computer players to finish their turns.");
     }
+    return gameLoop().call(action);
+  }
+
+  /**
+   * Sets how long the Gui waits after each computer player's turn, so its moves can be
+   * followed on the map.
+   *
+   * @param delayMillis the delay in milliseconds, 0 to play computer turns back to back.
+   * @throws IllegalArgumentException if the delay is negative.
+   */
+  public void setTurnDelay(long delayMillis) {
+    if (delayMillis < 0) {
+      throw new IllegalArgumentException("Turn delay cannot be negative.");
+    }
+    this.turnDelay = delayMillis;
   }
 
   private void updateGameStatus() {
@@ -596,84 +712,85 @@ public class GameController implements Controller {
   @Override
   public void movePlayerToRoom(int roomId, Appendable outputView) 
       throws IOException, InterruptedException {
-    int currentPlayerId = getCurrentPlayerId();
-    try {
+    humanAction(() -> {
+      int currentPlayerId = rworld.getCurrentPlayerId();
       Command movePlayerCommand = new MovePlayerCommand(rworld, currentPlayerId, roomId);
       movePlayerCommand.execute(outputView);
-      updateCoordinates();
       passTurn();
-    } catch (IllegalArgumentException e) {
-      throw e; 
-    }
+      return null;
+    });
   }
 
   @Override
   public String displayPlayerInfo(int playerId, Appendable outputView) 
       throws InterruptedException, IOException {
-    Command playerInfoCommand = new PlayerInfoCommand(rworld, playerId);
-    return playerInfoCommand.execute(outputView);
+    return gameLoop().call(() -> {
+      Command playerInfoCommand = new PlayerInfoCommand(rworld, playerId);
+      return playerInfoCommand.execute(outputView);
+    });
   }
 
   @Override
   public List<String> passRoomItem(int playerId) {
-    return rworld.getRoomItems(rworld.getPlayerRoomId(playerId));
+    return rworld.getSnapshot().getPlayerRoomItems(playerId);
   }
 
   @Override
   public void pickUpItem(int playerId, String itemName, Appendable outputView) 
       throws IOException, InterruptedException {
-    try {
+    humanAction(() -> {
       Command pickUpItemCommand = new PickUpItemCommand(rworld, playerId, itemName);
       pickUpItemCommand.execute(outputView);
       passTurn();
-    } catch (IllegalArgumentException e) {
-      throw e; 
-    }
+      return null;
+    });
   }
 
   @Override
   public void passTurn() throws InterruptedException, IOException {
-    ((WorldOutline) rworld).advanceTurn();
-    runGameG((WorldOutline) rworld);
+    humanAction(() -> {
+      ((WorldOutline) rworld).advanceTurn();
+      runGameG((WorldOutline) rworld);
+      return null;
+    });
   }
   
   @Override
   public String performLookAround(int playerId, Appendable outputView) 
       throws IOException, InterruptedException {
-    Command lookAroundCommand = new LookAroundCommand(rworld, playerId);
-    String resultLook = lookAroundCommand.execute(outputView);
-    passTurn();
-    return resultLook;
+    return humanAction(() -> {
+      Command lookAroundCommand = new LookAroundCommand(rworld, playerId);
+      String resultLook = lookAroundCommand.execute(outputView);
+      passTurn();
+      return resultLook;
+    });
   }
   
   @Override
   public List<String> passPlayerItems(int playerId) {
-    List<String> playerItems = rworld.getPlayerItems(playerId);
-    return playerItems;
+    return rworld.getSnapshot().getPlayerItems(playerId);
   }
   
   @Override
   public void attackTargetWithItem(int playerId, String itemName, Appendable outputView) 
       throws IOException, InterruptedException {
-    try {
+    humanAction(() -> {
       Command murderTargetCommand = new MurderTargetCommand(rworld, playerId, itemName);
       murderTargetCommand.execute(outputView);
       passTurn();
-    } catch (IllegalArgumentException e) {
-      throw e; 
-    }
+      return null;
+    });
   }
 
   @Override
   public void movePet(int playerId, int roomId, Appendable outputView) 
       throws IOException, InterruptedException {
-    try {
+    humanAction(() -> {
       Command movePetCommand = new MovePetCommand(rworld, playerId, roomId);
       movePetCommand.execute(outputView);
       passTurn();
-    } catch (IllegalArgumentException e) {
-      throw e;
-    }
+      return null;
+    });
   }
   
   @Override
@@ -684,25 +801,10 @@ public class GameController implements Controller {
   
   @Override
   public void pickNothing() throws InterruptedException, IOException {
-    ((WorldOutline) rworld).advanceTurn();
-    runGameG((WorldOutline) rworld);
+    passTurn();
   }
 
 
 
 
 }
-
-
-  
-
- 
-
-
-
-
-
-
-
-  
-
@@ -0,0 +1,92 @@
+package controller;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs everything that changes a game on one dedicated thread, so the Swing event thread
+ * only ever paints and reacts to input. Actions a human player asks for are handed to the
+ * loop and waited on; computer turns are scheduled on it one after another, each after the
+ * animation delay. The thread is a daemon and ends after a while without work; the next
+ * task starts a new one, so there is never more than one.
+ */
+final class GameLoop {
+  private static final long IDLE_SECONDS = 30;
+  private final ScheduledThreadPoolExecutor executor;
+  private volatile Thread thread;
+
+  /**
+   * An action run on the loop that may fail the way game commands do.
+   *
+   * @param <T> the action's result.
+   */
+  interface Action<T> {
+    /**
+     * Runs the action.
+     *
+     * @return the action's result
+     * @throws IOException if writing game output fails.
+     * @throws InterruptedException if the action is interrupted.
+     */
+    T run() throws IOException, InterruptedException;
+  }
+
+  /**
+   * Constructs a game loop; its thread starts with the first task.
+   */
+  GameLoop() {
+    this.executor = new ScheduledThreadPoolExecutor(1, task -> {
+      Thread loopThread = new Thread(task, "game-loop");
+      loopThread.setDaemon(true);
+      thread = loopThread;
+      return loopThread;
+    });
+    executor.setKeepAliveTime(IDLE_SECONDS, TimeUnit.SECONDS);
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Runs an action on the loop and waits for it. Exceptions thrown by the action are
+   * thrown here unchanged. An action asked for from the loop itself runs right away.
+   *
+   * @param <T> the action's result.
+   * @param action the action.
+   * @return the action's result
+   * @throws IOException if the action failed writing output.
+   * @throws InterruptedException if the action or the wait was interrupted.
+   */
+  <T> T call(Action<T> action) throws IOException, InterruptedException {
+    if (Thread.currentThread() == thread) {
+      return action.run();
+    }
+    Future<T> result = executor.submit(action::run);
+    try {
+      return result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof InterruptedException) {
+        throw (InterruptedException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  /**
+   * Runs a task on the loop after a delay, without waiting for it.
+   *
+   * @param task the task.
+   * @param delayMillis the delay in milliseconds, 0 to run it as soon as the loop is free.
+   */
+  void schedule(Runnable task, long delayMillis) {
+    executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+  }
+}
@@ -35,6 +35,21 @@ public class RandomNumberGenerator {
     }
   }
 
+  private RandomNumberGenerator(Random randomInput) {
+    random = randomInput;
+  }
+
+  /**
+   * Creates a generator whose sequence is fixed by a seed, so a game driven by it can be
+   * played again exactly.
+   *
+   * @param seed the seed of the sequence.
+   * @return a new generator
+   */
+  public static RandomNumberGenerator seeded(long seed) {
+    return new RandomNumberGenerator(new Random(seed));
+  }
+
   /**
    * Generates the next pseudo-random number.
    * If a fixed sequence of outputs has been set up using the 
@@ -24,10 +24,10 @@ public class SaveWorldMapCommand implements Command {
   @Override
   public String execute(Appendable output) throws IOException {
     try {
-      world.drawWorld(); 
+      world.saveWorldMap(); 
       output.append("World map saved to 'res/world.png'.\n"); 
-    } catch (IOException e) {
-      throw e;
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage(), e);
     }
     return null;
   }
@@ -0,0 +1,46 @@
+package generator;
+
+import java.util.Random;
+
+/**
+ * How generated values spread over their range, used for room sizes and murder values.
+ */
+public enum Distribution {
+  /**
+   * Every value in the range is equally likely.
+   */
+  UNIFORM,
+  /**
+   * Low values are the most likely, and the chance of a value falls off towards the
+   * maximum: half of all draws land in the lowest quarter of the range.
+   */
+  LOW,
+  /**
+   * High values are the most likely, the mirror image of {@link #LOW}.
+   */
+  HIGH;
+
+  /**
+   * Draws a value.
+   *
+   * @param random the source of randomness.
+   * @param min the smallest value, inclusive.
+   * @param max the largest value, inclusive.
+   * @return a value from min to max
+   */
+  int pick(Random random, int min, int max) {
+    int span = max - min + 1;
+    double u = random.nextDouble();
+    switch (this) {
+      case LOW:
+        u = u * u;
+        break;
+      case HIGH:
+        u = 1 - u * u;
+        break;
+      default:
+        break;
+    }
+    return min + Math.min(span - 1, (int) (u * span));
+  }
+}
@@ -0,0 +1,241 @@
+package generator;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Generates world files of any size in the format the game loads, for scale and stress
+ * testing. The map is a grid of square slots, one room per slot, each room anchored in its
+ * slot's top left corner. A room that fills its slot's width touches the room to its right
+ * and one that fills its height touches the room below; otherwise a gap is left, so the
+ * corridor density, the chance of each of those, decides how connected the mansion is.
+ * Items are spread over random rooms.
+ *
+ * <p>Every room and item follows from the seed and the ones written before it, so the same
+ * settings always give the same file, and the file is written line by line as it is
+ * generated: memory use does not depend on the room or item count.
+ */
+public final class MansionGenerator {
+  private static final String[] ROOM_KINDS = {"Parlor", "Library", "Study", "Gallery",
+      "Kitchen", "Conservatory", "Ballroom", "Pantry", "Nursery", "Armory", "Chapel",
+      "Cellar", "Billiard Room", "Dining Hall", "Guest Room", "Wine Cellar"};
+  private static final String[] ITEM_KINDS = {"Candlestick", "Letter Opener", "Revolver",
+      "Rope", "Lead Pipe", "Wrench", "Trowel", "Rat Poison", "Chain Saw", "Shoe Horn",
+      "Silken Cord", "Crepe Pan", "Broom Stick", "Duck Decoy", "Tight Hat", "Sharp Knife"};
+  private final int roomCount;
+  private final long seed;
+  private int minRoomSize = 2;
+  private int maxRoomSize = 6;
+  private Distribution roomSizes = Distribution.UNIFORM;
+  private double corridorDensity = 0.6;
+  private int itemCount;
+  private int minMurderValue = 1;
+  private int maxMurderValue = 5;
+  private Distribution murderValues = Distribution.LOW;
+  private int targetHealth = 50;
+
+  /**
+   * Constructor for MansionGenerator. By default rooms are 2 to 6 cells a side, 60% of
+   * room sides open onto the next room, and there is one item per room worth 1 to 5, low
+   * values being the most common.
+   *
+   * @param roomCountInput the number of rooms.
+   * @param seedInput the seed of every random choice.
+   * @throws IllegalArgumentException if there are no rooms.
+   */
+  public MansionGenerator(int roomCountInput, long seedInput) {
+    if (roomCountInput < 1) {
+      throw new IllegalArgumentException("A mansion needs at least one room.");
+    }
+    this.roomCount = roomCountInput;
+    this.seed = seedInput;
+    this.itemCount = roomCountInput;
+  }
+
+  /**
+   * Sets the range of room side lengths and how they spread over it.
+   *
+   * @param min the shortest side, at least 1.
+   * @param max the longest side, at least min.
+   * @param distribution how sides spread from min to max.
+   * @throws IllegalArgumentException if the range is empty or starts below 1.
+   */
+  public void setRoomSize(int min, int max, Distribution distribution) {
+    if (min < 1 || max < min) {
+      throw new IllegalArgumentException("Invalid room size range " + min + " to " + max + ".");
+    }
+    this.minRoomSize = min;
+    this.maxRoomSize = max;
+    this.roomSizes = distribution;
+  }
+
+  /**
+   * Sets the chance that a room opens onto the room to its right, and separately onto the
+   * room below it.
+   *
+   * @param density the chance, from 0 for no neighbors at all to 1 for a fully linked grid.
+   * @throws IllegalArgumentException if density is not between 0 and 1.
+   */
+  public void setCorridorDensity(double density) {
+    if (!(density >= 0 && density <= 1)) {
+      throw new IllegalArgumentException("Corridor density must be between 0 and 1.");
+    }
+    this.corridorDensity = density;
+  }
+
+  /**
+   * Sets the number of items and how their murder values spread.
+   *
+   * @param count the number of items.
+   * @param minValue the lowest murder value, at least 1.
+   * @param maxValue the highest murder value, at least minValue.
+   * @param distribution how values spread from minValue to maxValue.
+   * @throws IllegalArgumentException if the count is negative or the range is invalid.
+   */
+  public void setItems(int count, int minValue, int maxValue, Distribution distribution) {
+    if (count < 0) {
+      throw new IllegalArgumentException("Item count cannot be negative.");
+    }
+    if (minValue < 1 || maxValue < minValue) {
+      throw new IllegalArgumentException("Invalid murder value range " + minValue + " to "
+          + maxValue + ".");
+    }
+    this.itemCount = count;
+    this.minMurderValue = minValue;
+    this.maxMurderValue = maxValue;
+    this.murderValues = distribution;
+  }
+
+  /**
+   * Sets the target's starting health.
+   *
+   * @param health the health, at least 1.
+   * @throws IllegalArgumentException if health is below 1.
+   */
+  public void setTargetHealth(int health) {
+    if (health < 1) {
+      throw new IllegalArgumentException("Target health must be positive.");
+    }
+    this.targetHealth = health;
+  }
+
+  /**
+   * Writes the world file.
+   *
+   * @param out where the file's text goes.
+   * @throws IOException if writing fails.
+   */
+  public void write(Appendable out) throws IOException {
+    Random random = new Random(seed);
+    int slot = maxRoomSize + 1;
+    int columns = (int) Math.ceil(Math.sqrt(roomCount));
+    int rows = (roomCount + columns - 1) / columns;
+    out.append(Long.toString((long) rows * slot)).append(' ')
+        .append(Long.toString((long) columns * slot)).append(" Generated Mansion ")
+        .append(Integer.toString(roomCount)).append('\n')
+        .append(Integer.toString(targetHealth)).append(" Doctor Lucky\n")
+        .append("Fortune the Cat\n")
+        .append(Integer.toString(roomCount)).append('\n');
+    for (int i = 0; i < roomCount; i++) {
+      int top = i / columns * slot;
+      int left = i % columns * slot;
+      int height = side(random, slot);
+      int width = side(random, slot);
+      out.append(Integer.toString(top)).append(' ').append(Integer.toString(left)).append(' ')
+          .append(Integer.toString(top + height - 1)).append(' ')
+          .append(Integer.toString(left + width - 1)).append(' ')
+          .append(ROOM_KINDS[random.nextInt(ROOM_KINDS.length)]).append(' ')
+          .append(Integer.toString(i + 1)).append('\n');
+    }
+    out.append(Integer.toString(itemCount)).append('\n');
+    for (int i = 0; i < itemCount; i++) {
+      out.append(Integer.toString(random.nextInt(roomCount))).append(' ')
+          .append(Integer.toString(murderValues.pick(random, minMurderValue, maxMurderValue)))
+          .append(' ').append(ITEM_KINDS[random.nextInt(ITEM_KINDS.length)]).append(' ')
+          .append(Integer.toString(i + 1)).append('\n');
+    }
+  }
+
+  /**
+   * Picks a room side: the whole slot, touching the next room, at the corridor density,
+   * otherwise a size from the room size distribution, which always leaves a gap.
+   */
+  private int side(Random random, int slot) {
+    if (random.nextDouble() < corridorDensity) {
+      return slot;
+    }
+    return roomSizes.pick(random, minRoomSize, maxRoomSize);
+  }
+
+  /**
+   * Writes a generated world file. Arguments are the room count, the seed and the output
+   * file, followed by optional settings as name=value pairs: sizes=min-max, sizeDist,
+   * corridors, items, values=min-max, valueDist and health. Distributions are uniform, low
+   * or high.
+   *
+   * @param args the command line arguments.
+   * @throws IOException if the file cannot be written.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3) {
+      System.out.println("Usage: MansionGenerator <rooms> <seed> <output file> "
+          + "[sizes=2-6] [sizeDist=uniform] [corridors=0.6] [items=<rooms>] [values=1-5] "
+          + "[valueDist=low] [health=50]");
+      return;
+    }
+    MansionGenerator generator =
+        new MansionGenerator(Integer.parseInt(args[0]), Long.parseLong(args[1]));
+    int[] sizes = {2, 6};
+    Distribution sizeDist = Distribution.UNIFORM;
+    int items = Integer.parseInt(args[0]);
+    int[] values = {1, 5};
+    Distribution valueDist = Distribution.LOW;
+    for (int i = 3; i < args.length; i++) {
+      String[] setting = args[i].split("=", 2);
+      if (setting.length != 2) {
+        throw new IllegalArgumentException("Expected name=value but got " + args[i] + ".");
+      }
+      switch (setting[0]) {
+        case "sizes":
+          sizes = range(setting[1]);
+          break;
+        case "sizeDist":
+          sizeDist = Distribution.valueOf(setting[1].toUpperCase());
+          break;
+        case "corridors":
+          generator.setCorridorDensity(Double.parseDouble(setting[1]));
+          break;
+        case "items":
+          items = Integer.parseInt(setting[1]);
+          break;
+        case "values":
+          values = range(setting[1]);
+          break;
+        case "valueDist":
+          valueDist = Distribution.valueOf(setting[1].toUpperCase());
+          break;
+        case "health":
+          generator.setTargetHealth(Integer.parseInt(setting[1]));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown setting " + setting[0] + ".");
+      }
+    }
+    generator.setRoomSize(sizes[0], sizes[1], sizeDist);
+    generator.setItems(items, values[0], values[1], valueDist);
+    try (Writer out = new BufferedWriter(new FileWriter(args[2]), 1 << 16)) {
+      generator.write(out);
+    }
+  }
+
+  private static int[] range(String text) {
+    String[] bounds = text.split("-", 2);
+    if (bounds.length != 2) {
+      throw new IllegalArgumentException("Expected min-max but got " + text + ".");
+    }
+    return new int[] {Integer.parseInt(bounds[0]), Integer.parseInt(bounds[1])};
+  }
+}
@@ -2,16 +2,20 @@ package main;
 
 import controller.GameController;
 import controller.RandomNumberGenerator;
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
+import java.nio.file.NoSuchFileException;
 import java.util.Scanner;
 import javax.swing.SwingUtilities;
 import view.GameFrame;
+import world.CompiledWorld;
+import world.MappedWorldFile;
 import world.World;
 import world.WorldOutline;
+import world.WorldSpec;
 
 /**
  * Launches the game application with the provided command-line arguments. This class contains the
@@ -21,23 +25,32 @@ public class GameLauncher {
   /**
    * The main method that serves as the entry point for the game. 
    * It expects two command-line arguments:
-   * the path to the world file and the maximum number of turns. 
+   * the path to the world file and the maximum number of turns,
+   * optionally followed by the number of threads used to build the world and the
+   * delay after each computer player's turn in the Gui. 
    * If the required arguments are not provided,
    * it displays the correct usage and exits the program.
    *
    * @param args command-line arguments passed to the program. Expects exactly two arguments:
    *             1. {@code world_file} - the path to the file containing the game 
-   *                 world configuration.
+   *                 world configuration, a text world file or a compiled one.
    *             2. {@code max_turns} - the maximum number of turns the game should run.
+   *             3. {@code build_threads} - optional, threads used to link the rooms of
+   *                 the world in the Cli; by default large worlds use every processor.
+   *             4. {@code turn_delay_ms} - optional, milliseconds the Gui waits after each
+   *                 computer player's turn, 1000 by default and 0 for no delay.
    */
   public static void main(String[] args) {
     if (args.length < 2) {
-      System.out.println("Usage: java GameLauncher <world_file> <max_turns>");
+      System.out.println("Usage: java GameLauncher <world_file> <max_turns> [build_threads] "
+          + "[turn_delay_ms]");
       System.exit(1);
     }
 
     String worldFile = args[0];
     int maxTurns = Integer.parseInt(args[1]);
+    int buildThreads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+    long turnDelay = args.length > 3 ? Long.parseLong(args[3]) : 1000;
 
     Scanner scanner = new Scanner(System.in);
     System.out.println("Enter '1' for Cli or '2' for Gui:");
@@ -45,10 +58,10 @@ public class GameLauncher {
 
     switch (mode) {
       case 1:
-        launchCli(worldFile, maxTurns);
+        launchCli(worldFile, maxTurns, buildThreads);
         break;
       case 2:
-        launchGui(worldFile, maxTurns);
+        launchGui(worldFile, maxTurns, turnDelay);
         break;
       default:
         System.out.println("Invalid mode: Choose 1 for Cli or 2 for Gui");
@@ -58,16 +71,21 @@ public class GameLauncher {
     scanner.close();
   }
 
-  private static void launchCli(String worldFile, int maxTurns) {
+  private static void launchCli(String worldFile, int maxTurns, int buildThreads) {
     try {
-      FileReader fileInput = new FileReader(worldFile);
       Appendable consoleOutput = System.out;
       InputStreamReader consoleInput = new InputStreamReader(System.in);
       RandomNumberGenerator rng = new RandomNumberGenerator();
-      WorldOutline world = new World(fileInput);
+      WorldOutline world;
+      if (worldFile.endsWith(CompiledWorld.EXTENSION)) {
+        world = CompiledWorld.load(new File(worldFile));
+      } else {
+        WorldSpec spec = MappedWorldFile.open(new File(worldFile)).getSpec();
+        world = buildThreads > 0 ? new World(spec, buildThreads) : new World(spec);
+      }
       GameController controller = new GameController(consoleInput, consoleOutput, rng, maxTurns);
       controller.playGame(world);
-    } catch (FileNotFoundException e) {
+    } catch (FileNotFoundException | NoSuchFileException e) {
       System.out.println("Error: File not found - " + worldFile);
       System.exit(1);
     } catch (IOException e) {
@@ -79,12 +97,13 @@ public class GameLauncher {
     }
   }
 
-  private static void launchGui(String worldFile, int maxTurns) {
+  private static void launchGui(String worldFile, int maxTurns, long turnDelay) {
     SwingUtilities.invokeLater(() -> {
       try {
         RandomNumberGenerator rng = new RandomNumberGenerator();
         GameController controller = new GameController(new StringReader(""), 
             System.out, rng, maxTurns);
+        controller.setTurnDelay(turnDelay);
         GameFrame frame = new GameFrame(controller, maxTurns, worldFile);
         frame.setVisible(true);
       } catch (IOException e) {
@@ -0,0 +1,56 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import server.LineServer;
+import server.LowMemoryEvictor;
+import server.SessionManager;
+import world.MappedWorldFile;
+
+/**
+ * Serves the text game of one world file to TCP clients on the local machine, each
+ * connection playing a game of its own. Idle games are written to disk when there are too
+ * many of them, and all at once when a heap pool is over 80% full.
+ */
+public class GameServer {
+  private static final double LOW_MEMORY_FRACTION = 0.8;
+
+  /**
+   * The main method of the game server. It serves until the process is stopped.
+   *
+   * @param args command-line arguments: the text world file, the maximum number of turns and
+   *             the port, optionally followed by the number of games kept in memory, 1000
+   *             by default, and the directory idle games are written to, a new temporary
+   *             directory by default.
+   */
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      System.out.println("Usage: java GameServer <world_file> <max_turns> <port> "
+          + "[max_resident] [spill_dir]");
+      System.exit(1);
+    }
+    try {
+      int maxResident = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+      File spillDirectory = args.length > 4 ? new File(args[4])
+          : Files.createTempDirectory("kdl-sessions").toFile();
+      SessionManager sessions = new SessionManager(
+          MappedWorldFile.open(new File(args[0])).toSpec(), Integer.parseInt(args[1]),
+          spillDirectory, maxResident);
+      LowMemoryEvictor.install(sessions, LOW_MEMORY_FRACTION);
+      LineServer server = new LineServer(sessions,
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[2])),
+          System.nanoTime());
+      server.start();
+      System.out.println("Serving " + args[0] + " on port " + server.getPort() + ".");
+      Thread.currentThread().join();
+    } catch (IOException e) {
+      System.out.println("Failed to start the server: " + e.getMessage());
+      System.exit(1);
+    } catch (InterruptedException e) {
+      System.out.println("The server was interrupted.");
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package main;
+
+import java.io.File;
+import java.io.IOException;
+import world.CompiledWorld;
+import world.MappedWorldFile;
+import world.World;
+
+/**
+ * Compiles a text world file into a compiled world file, which the game opens without
+ * parsing the text or linking the rooms again.
+ */
+public class WorldCompiler {
+  /**
+   * The main method of the world compiler.
+   *
+   * @param args command-line arguments: the text world file and the compiled file to
+   *             write, whose name should end with {@link CompiledWorld#EXTENSION}.
+   */
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.out.println("Usage: java WorldCompiler <world_file> <compiled_file>");
+      System.exit(1);
+    }
+    try {
+      long start = System.nanoTime();
+      World world = new World(MappedWorldFile.open(new File(args[0])).getSpec());
+      CompiledWorld.write(world, new File(args[1]));
+      System.out.println("Compiled " + world.getRoomCount() + " rooms and "
+          + world.getItemCount() + " items to " + args[1] + " in "
+          + (System.nanoTime() - start) / 1000000 + " ms.");
+    } catch (IOException e) {
+      System.out.println("Failed to compile the world file: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
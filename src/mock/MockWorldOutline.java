@@ -1,5 +1,7 @@
 package mock;
 
+import java.awt.Dimension;
+import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
@@ -12,7 +14,10 @@ import world.CharacterPet;
 import world.CharacterPlayer;
 import world.CharacterTarget;
 import world.Gadget;
+import world.GameEvent;
+import world.GameEventSink;
 import world.WorldOutline;
+import world.WorldSnapshot;
 
 /**
  * A mock implementation of the WorldOutline interface for unit testing.
@@ -135,6 +140,11 @@ public class MockWorldOutline implements WorldOutline {
     return null;
   }
 
+  @Override
+  public void saveWorldMap() {
+    
+  }
+
   @Override
   public void setWorldText() {
  
@@ -210,6 +220,16 @@ public class MockWorldOutline implements WorldOutline {
     return 0;
   }
 
+  @Override
+  public int getTargetRoomIdAtTurn(int turn) {
+    return 0;
+  }
+
+  @Override
+  public int getNextTargetVisitTurn(int roomId) {
+    return -1;
+  }
+
   @Override
   public List<Integer> getNeighborRooms(int roomId) {
     return Arrays.asList(1, 2, 3);
@@ -295,6 +315,11 @@ public class MockWorldOutline implements WorldOutline {
     return Arrays.asList();
   }
 
+  @Override
+  public List<Gadget> getPlayerGadgets(int playerId) {
+    return new ArrayList<>();
+  }
+
   @Override
   public String murderAttempt(int playerId) {
     return "Attack is made with " + playerId + " " + useItem;
@@ -462,6 +487,21 @@ public class MockWorldOutline implements WorldOutline {
     return null;
   }
 
+  @Override
+  public Dimension getMapSize() {
+    return new Dimension(0, 0);
+  }
+
+  @Override
+  public void paintMapRooms(Graphics g, Rectangle area) {
+    
+  }
+
+  @Override
+  public void paintMapTokens(Graphics g, Rectangle area) {
+    
+  }
+
   @Override
   public boolean getIsRunningGui() {
     return false;
@@ -476,4 +516,49 @@ public class MockWorldOutline implements WorldOutline {
   public Block getRoomById(int roomId) {
     return null;
   }
+
+  @Override
+  public WorldSnapshot getSnapshot() {
+    return WorldSnapshot.of(this);
+  }
+
+  @Override
+  public void publishSnapshot() {
+  }
+
+  @Override
+  public void setEventSink(GameEventSink sink) {
+  }
+
+  @Override
+  public GameEvent.PlayerMoved applyPlayerMove(int playerId, int roomId) {
+    movePlayer(playerId, roomId);
+    return new GameEvent.PlayerMoved(playerId, null, String.valueOf(roomId));
+  }
+
+  @Override
+  public GameEvent.ItemPickedUp applyItemPickup(int playerId, String itemName) {
+    playerPickUpItem(playerId, itemName);
+    return new GameEvent.ItemPickedUp(playerId, null, itemName);
+  }
+
+  @Override
+  public GameEvent.AttackAttempted applyMurderAttempt(int playerId) {
+    murderAttempt(playerId);
+    return new GameEvent.AttackAttempted(playerId, null, GameEvent.Outcome.NO_EFFECT,
+        mockTargetHealthPoint);
+  }
+
+  @Override
+  public GameEvent.PetMoved applyPetMove(int playerId, int targetRoomId) {
+    movePet(playerId, targetRoomId);
+    return new GameEvent.PetMoved(playerId, String.valueOf(targetRoomId));
+  }
+
+  @Override
+  public GameEvent.TurnAdvanced applyTurnAdvance() {
+    advanceTurn();
+    return new GameEvent.TurnAdvanced(turn, id, false, new GameEvent.TargetMoved(""),
+        new GameEvent.PetMoved(-1, ""));
+  }
 }
@@ -0,0 +1,421 @@
+package server;
+
+import controller.GameController;
+import controller.RandomNumberGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import world.World;
+import world.WorldSpec;
+
+/**
+ * One text game hosted by a {@link SessionManager}. The game is an ordinary
+ * {@link GameController} playing the command line protocol, but it reads its lines from a
+ * queue the manager fills and writes its output to a buffer the manager drains, instead of
+ * a console.
+ *
+ * <p>A session waiting for input can be evicted: its world, controller and thread are
+ * dropped, and on its way out the game's thread writes the lines it has read so far to the
+ * spill file. Since the game's generator is seeded and the world is built from the same
+ * parsed file, the next line sent starts a new game that reads those lines back and
+ * replays them with its output muted, which brings it back to exactly where it was. Both
+ * the write and the read happen on the session's own thread, so evicting and restoring a
+ * session never waits on the disk; a line sent before the spill file is written is
+ * replayed from memory instead.
+ *
+ * <p>The output buffer is bounded: a game that writes faster than its output is taken waits
+ * until there is room, which holds up that game alone.
+ */
+final class GameSession {
+  static final int OUTPUT_LIMIT = 1 << 16;
+
+  private enum State { RESIDENT, EVICTED, ENDED }
+
+  private final long id;
+  private final long seed;
+  private final WorldSpec spec;
+  private final int maxTurns;
+  private final File spillFile;
+  private final Runnable listener;
+  private final Deque<String> pending = new ArrayDeque<>();
+  private final StringBuilder output = new StringBuilder();
+  private State state = State.RESIDENT;
+  private List<String> log = new ArrayList<>();
+  private int delivered;
+  private String line;
+  private int lineOffset;
+  private boolean muted;
+  private boolean waiting;
+  private boolean running;
+  private boolean closed;
+  private int run;
+
+  /**
+   * Constructor for GameSession. The game starts with {@link #start(Executor)}.
+   *
+   * @param idInput the session's id.
+   * @param seedInput the seed of the game's generator.
+   * @param specInput the parsed world file the game is played on.
+   * @param maxTurnsInput the turn limit of the game.
+   * @param spillFileInput the file the session's input is written to when it is evicted.
+   * @param listenerInput run after the game writes output or ends, null for none.
+   */
+  GameSession(long idInput, long seedInput, WorldSpec specInput, int maxTurnsInput,
+      File spillFileInput, Runnable listenerInput) {
+    this.id = idInput;
+    this.seed = seedInput;
+    this.spec = specInput;
+    this.maxTurns = maxTurnsInput;
+    this.spillFile = spillFileInput;
+    this.listener = listenerInput;
+  }
+
+  /**
+   * Returns the session's id.
+   *
+   * @return the id
+   */
+  long getId() {
+    return id;
+  }
+
+  /**
+   * Starts playing the game on a thread of the executor.
+   *
+   * @param threads the executor.
+   */
+  synchronized void start(Executor threads) {
+    int current = ++run;
+    threads.execute(() -> play(current));
+  }
+
+  /**
+   * Plays one run of the game: the first, or one that restores an evicted session. A run
+   * starts once the previous one has left, and stops as soon as a newer run is started or
+   * the session is evicted or closed.
+   */
+  private void play(int current) {
+    try {
+      if (resume(current)) {
+        GameController controller = new GameController(new Input(current),
+            new Output(current), RandomNumberGenerator.seeded(seed), maxTurns);
+        controller.playGame(new World(spec, 1));
+      }
+    } catch (NoSuchElementException e) {
+      // The session was evicted or closed while the game waited for a line.
+    } catch (IOException e) {
+      synchronized (this) {
+        output.append("Error: ").append(e.getMessage()).append('\n');
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      leave(current);
+    }
+  }
+
+  /**
+   * Waits for the previous run to leave and reads the spilled lines back if they are only
+   * on disk.
+   *
+   * @return false if the run was overtaken before it began
+   */
+  private boolean resume(int current) throws IOException, InterruptedException {
+    boolean spilled;
+    synchronized (this) {
+      while (running) {
+        wait();
+      }
+      running = true;
+      if (isStale(current)) {
+        return false;
+      }
+      spilled = log == null;
+    }
+    List<String> lines = spilled
+        ? Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8) : null;
+    synchronized (this) {
+      if (isStale(current)) {
+        return false;
+      }
+      if (spilled) {
+        log = new ArrayList<>(lines);
+      }
+      delivered = 0;
+      line = null;
+      muted = !log.isEmpty();
+      return true;
+    }
+  }
+
+  /**
+   * Ends a run. A game that finished ends the session; an evicted one writes its lines to
+   * the spill file, outside the lock so the session's callers never wait for the disk.
+   */
+  private void leave(int current) {
+    List<String> spill = null;
+    boolean delete;
+    synchronized (this) {
+      if (run == current && state == State.RESIDENT) {
+        state = State.ENDED;
+        log = null;
+      } else if (run == current && state == State.EVICTED) {
+        spill = log;
+      }
+      delete = closed;
+    }
+    if (spill != null) {
+      boolean written;
+      try {
+        Files.write(spillFile.toPath(), spill, StandardCharsets.UTF_8);
+        written = true;
+      } catch (IOException e) {
+        written = false;
+      }
+      synchronized (this) {
+        if (written && run == current && state == State.EVICTED) {
+          log = null;
+        }
+        delete = closed;
+      }
+    }
+    if (delete) {
+      spillFile.delete();
+    }
+    synchronized (this) {
+      running = false;
+      notifyAll();
+    }
+    notifyListener();
+  }
+
+  private boolean isStale(int current) {
+    return run != current || state != State.RESIDENT;
+  }
+
+  private void notifyListener() {
+    if (listener != null) {
+      listener.run();
+    }
+  }
+
+  /**
+   * Queues a line for the game to read. An evicted session is restored first, by starting
+   * a new run that reads its spilled lines back before it takes the line.
+   *
+   * @param lineInput the line, without a line break.
+   * @param threads the executor a restored game is played on.
+   * @throws IllegalArgumentException if the session has ended.
+   */
+  synchronized void send(String lineInput, Executor threads) {
+    if (state == State.ENDED) {
+      throw new IllegalArgumentException("Session " + id + " has ended.");
+    }
+    pending.add(lineInput);
+    if (state == State.EVICTED) {
+      state = State.RESIDENT;
+      start(threads);
+    }
+    notifyAll();
+  }
+
+  /**
+   * Takes the game's output, waiting for some if there is none yet.
+   *
+   * @param timeoutMillis the longest time to wait, 0 not to wait.
+   * @return the output written since the last call, empty if none was written in time
+   * @throws InterruptedException if the wait is interrupted.
+   */
+  synchronized String receive(long timeoutMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    long left = timeoutMillis;
+    while (output.length() == 0 && state != State.ENDED && left > 0) {
+      wait(left);
+      left = deadline - System.currentTimeMillis();
+    }
+    String text = output.toString();
+    output.setLength(0);
+    notifyAll();
+    return text;
+  }
+
+  /**
+   * Returns the number of lines sent that the game has not read yet.
+   *
+   * @return the queued line count
+   */
+  synchronized int getQueuedLines() {
+    return pending.size();
+  }
+
+  /**
+   * Returns whether the game has finished or the session was closed.
+   *
+   * @return true if the session has ended
+   */
+  synchronized boolean isEnded() {
+    return state == State.ENDED;
+  }
+
+  /**
+   * Returns whether the session is evicted and its lines are only in the spill file, so
+   * restoring it reads the file back.
+   *
+   * @return true if the session's game is on disk
+   */
+  synchronized boolean isSpilled() {
+    return state == State.EVICTED && log == null && !running;
+  }
+
+  /**
+   * Returns whether the session's game is in memory, waiting for a line with none queued,
+   * so that {@link #evict()} would evict it.
+   *
+   * @return true if the session can be evicted now
+   */
+  synchronized boolean isIdle() {
+    return state == State.RESIDENT && waiting && pending.isEmpty();
+  }
+
+  /**
+   * Evicts the session if its game is waiting for a line and none is queued. The game's
+   * thread then ends, writing the lines read so far to the spill file as it leaves.
+   *
+   * @return true if the session was evicted
+   */
+  synchronized boolean evict() {
+    if (!isIdle()) {
+      return false;
+    }
+    state = State.EVICTED;
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * Ends the session, stopping its game the next time it waits for a line. The spill file
+   * is deleted by the game's thread as it leaves, or on the executor if there is none.
+   *
+   * @param threads the executor the spill file is deleted on.
+   */
+  synchronized void close(Executor threads) {
+    state = State.ENDED;
+    closed = true;
+    log = null;
+    pending.clear();
+    if (!running) {
+      threads.execute(spillFile::delete);
+    }
+    notifyAll();
+  }
+
+  private String nextLine(int current) throws InterruptedIOException {
+    if (isStale(current)) {
+      return null;
+    }
+    if (delivered < log.size()) {
+      return log.get(delivered++);
+    }
+    muted = false;
+    try {
+      while (pending.isEmpty() && !isStale(current)) {
+        waiting = true;
+        wait();
+      }
+    } catch (InterruptedException e) {
+      throw new InterruptedIOException("The session was interrupted.");
+    } finally {
+      waiting = false;
+    }
+    if (isStale(current)) {
+      return null;
+    }
+    String next = pending.poll();
+    log.add(next);
+    delivered++;
+    return next;
+  }
+
+  /**
+   * The game's input: the spilled lines being replayed, then the queued lines.
+   */
+  private final class Input implements Readable {
+    private final int current;
+
+    private Input(int currentInput) {
+      this.current = currentInput;
+    }
+
+    @Override
+    public int read(CharBuffer target) throws IOException {
+      synchronized (GameSession.this) {
+        if (line == null) {
+          String next = nextLine(current);
+          if (next == null) {
+            return -1;
+          }
+          line = next + "\n";
+          lineOffset = 0;
+        }
+        int count = Math.min(target.remaining(), line.length() - lineOffset);
+        target.put(line, lineOffset, lineOffset + count);
+        lineOffset += count;
+        if (lineOffset == line.length()) {
+          line = null;
+        }
+        return count;
+      }
+    }
+  }
+
+  /**
+   * The game's output, dropped while spilled lines are replayed since it was already sent.
+   */
+  private final class Output implements Appendable {
+    private final int current;
+
+    private Output(int currentInput) {
+      this.current = currentInput;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+      synchronized (GameSession.this) {
+        try {
+          while (!muted && !isStale(current) && output.length() > 0
+              && output.length() + csq.length() > OUTPUT_LIMIT) {
+            GameSession.this.wait();
+          }
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException("The session was interrupted.");
+        }
+        if (muted || isStale(current)) {
+          return this;
+        }
+        output.append(csq);
+        GameSession.this.notifyAll();
+      }
+      notifyListener();
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+      return append(csq.subSequence(start, end));
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+      return append(String.valueOf(c));
+    }
+  }
+}
@@ -0,0 +1,436 @@
+package server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the text game over TCP. Every connection gets a session of its own from a
+ * {@link SessionManager} and speaks the same line protocol as the console: the client sends
+ * menu choices, room ids and names one line at a time and receives the game's output as it
+ * is written. When the game ends, its remaining output is sent and the connection closed.
+ *
+ * <p>All connections are served by one thread with a selector. Nothing a client does can
+ * hold up the others: each connection has a bounded output buffer, and while it is full the
+ * session's own output is no longer taken, so a client that does not read stalls only its
+ * own game. Lines are only read from a client while its game has fewer than
+ * {@link #MAX_QUEUED_LINES} lines waiting, so a client that writes faster than its game
+ * plays is held back by TCP flow control instead of filling memory. Opening, feeding and
+ * closing sessions can restore or evict games, so the selector hands those calls to worker
+ * threads, one call per connection at a time, and picks up their results when they are
+ * posted back.
+ */
+public final class LineServer implements Closeable {
+  static final int OUTPUT_BUFFER = 1 << 13;
+  static final int MAX_LINE = 1024;
+  static final int MAX_QUEUED_LINES = 16;
+  private static final long PAUSE_CHECK_MILLIS = 100;
+  private final SessionManager sessions;
+  private final Selector selector;
+  private final ServerSocketChannel server;
+  private final Random seeds;
+  private final ExecutorService workers;
+  private final Queue<Connection> ready = new ConcurrentLinkedQueue<>();
+  private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+  private final Set<Connection> paused = new HashSet<>();
+  private volatile boolean running = true;
+  private Thread thread;
+
+  /**
+   * Constructor for LineServer. It listens right away and serves clients once started.
+   *
+   * @param sessionsInput the manager the connections' sessions are opened in.
+   * @param address the address to listen on, port 0 for any free port.
+   * @param seed the seed the sessions' seeds are drawn from.
+   * @throws IOException if the address cannot be listened on.
+   */
+  public LineServer(SessionManager sessionsInput, InetSocketAddress address, long seed)
+      throws IOException {
+    this.sessions = sessionsInput;
+    this.seeds = new Random(seed);
+    this.workers = Executors.newCachedThreadPool(task -> {
+      Thread thread = new Thread(task, "line-server-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.selector = Selector.open();
+    this.server = ServerSocketChannel.open();
+    server.bind(address);
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return server.socket().getLocalPort();
+  }
+
+  /**
+   * Starts serving clients on the server's own thread.
+   *
+   * @throws IllegalStateException if the server was already started.
+   */
+  public synchronized void start() {
+    if (thread != null) {
+      throw new IllegalStateException("The server is already started.");
+    }
+    thread = new Thread(this::serve, "line-server");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stops the server, closing every connection and its session.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    running = false;
+    selector.wakeup();
+    if (thread == null) {
+      shutDown();
+      return;
+    }
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void serve() {
+    try {
+      while (running) {
+        selector.select(paused.isEmpty() ? 0 : PAUSE_CHECK_MILLIS);
+        for (Completion completion; (completion = completions.poll()) != null;) {
+          completion.run();
+        }
+        for (Connection connection; (connection = ready.poll()) != null;) {
+          connection.queued.set(false);
+          flush(connection);
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept();
+          } else {
+            Connection connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+              read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+              flush(connection);
+            }
+          }
+        }
+        for (Connection connection : new ArrayList<>(paused)) {
+          feed(connection);
+          flush(connection);
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("The line server stopped: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      shutDown();
+    }
+  }
+
+  private void shutDown() {
+    if (!selector.isOpen()) {
+      return;
+    }
+    for (SelectionKey key : selector.keys()) {
+      if (key.attachment() instanceof Connection) {
+        disconnect((Connection) key.attachment());
+      }
+    }
+    try {
+      for (Completion completion; (completion = completions.poll()) != null;) {
+        completion.run();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    workers.shutdown();
+    try {
+      server.close();
+      selector.close();
+    } catch (IOException e) {
+      System.err.println("Failed to close the line server: " + e.getMessage());
+    }
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel = server.accept();
+    if (channel == null) {
+      return;
+    }
+    channel.configureBlocking(false);
+    Connection connection = new Connection(channel);
+    connection.key = channel.register(selector, 0, connection);
+    long seed = seeds.nextLong();
+    workers.execute(() -> {
+      long id = sessions.open(seed, () -> {
+        if (connection.queued.compareAndSet(false, true)) {
+          ready.add(connection);
+          selector.wakeup();
+        }
+      });
+      if (running) {
+        post(() -> opened(connection, id));
+      } else {
+        sessions.close(id);
+      }
+    });
+  }
+
+  /**
+   * Hands a worker's result to the selector thread.
+   */
+  private void post(Completion completion) {
+    completions.add(completion);
+    selector.wakeup();
+  }
+
+  private void opened(Connection connection, long id) throws InterruptedException {
+    connection.sessionId = id;
+    if (!connection.key.isValid()) {
+      closeSession(id);
+      return;
+    }
+    flush(connection);
+  }
+
+  private void read(Connection connection) {
+    int count;
+    try {
+      count = connection.channel.read(connection.input);
+    } catch (IOException e) {
+      count = -1;
+    }
+    if (count < 0) {
+      disconnect(connection);
+      return;
+    }
+    feed(connection);
+  }
+
+  /**
+   * Takes the complete lines read from a connection, as many as its session has room for,
+   * and hands them to a worker to send. Nothing more is read while lines are left over or
+   * the previous ones are still being sent, and a full buffer without a line break closes
+   * the connection.
+   */
+  private void feed(Connection connection) {
+    if (!connection.key.isValid() || connection.sessionId < 0 || connection.sending) {
+      return;
+    }
+    ByteBuffer input = connection.input;
+    input.flip();
+    List<String> lines = new ArrayList<>();
+    try {
+      int room = MAX_QUEUED_LINES - sessions.getQueuedLines(connection.sessionId);
+      int start = input.position();
+      for (int i = start; i < input.limit() && lines.size() < room; i++) {
+        if (input.get(i) != '\n') {
+          continue;
+        }
+        int end = i > start && input.get(i - 1) == '\r' ? i - 1 : i;
+        byte[] bytes = new byte[end - start];
+        input.get(start, bytes);
+        lines.add(new String(bytes, StandardCharsets.UTF_8));
+        start = i + 1;
+      }
+      input.position(start);
+    } catch (IllegalArgumentException e) {
+      input.position(input.limit());
+    }
+    boolean complete = false;
+    for (int i = input.position(); i < input.limit() && !complete; i++) {
+      complete = input.get(i) == '\n';
+    }
+    input.compact();
+    if (complete) {
+      paused.add(connection);
+    } else {
+      paused.remove(connection);
+      if (!input.hasRemaining()) {
+        disconnect(connection);
+        return;
+      }
+    }
+    if (!lines.isEmpty()) {
+      send(connection, lines);
+    }
+    updateInterest(connection);
+  }
+
+  /**
+   * Sends lines to a connection's session on a worker, since a line can restore an evicted
+   * game, and feeds the connection again once they are sent.
+   */
+  private void send(Connection connection, List<String> lines) {
+    long id = connection.sessionId;
+    connection.sending = true;
+    workers.execute(() -> {
+      try {
+        for (String line : lines) {
+          sessions.send(id, line);
+        }
+      } catch (IllegalArgumentException e) {
+        // The game has ended or the session was closed, so the lines have no reader.
+      }
+      post(() -> {
+        connection.sending = false;
+        feed(connection);
+      });
+    });
+  }
+
+  /**
+   * Moves the session's output into the connection's buffer while there is room, writes
+   * what the socket takes, and closes the connection once an ended game's output is sent.
+   */
+  private void flush(Connection connection) throws InterruptedException {
+    if (!connection.key.isValid() || connection.sessionId < 0) {
+      return;
+    }
+    ByteBuffer output = connection.output;
+    boolean ended = sessions.isEnded(connection.sessionId);
+    try {
+      boolean more = true;
+      while (more) {
+        more = fill(connection);
+        output.flip();
+        connection.channel.write(output);
+        output.compact();
+        more = more && output.position() == 0;
+      }
+    } catch (IOException e) {
+      disconnect(connection);
+      return;
+    }
+    if (ended && output.position() == 0 && !connection.text.hasRemaining()) {
+      disconnect(connection);
+      return;
+    }
+    updateInterest(connection);
+  }
+
+  /**
+   * Encodes the session's output into the connection's buffer until it is full or there is
+   * no more, and returns whether some is left over.
+   */
+  private boolean fill(Connection connection) throws InterruptedException {
+    while (true) {
+      if (!connection.text.hasRemaining()) {
+        String text = sessions.receive(connection.sessionId, 0);
+        if (text.isEmpty()) {
+          return false;
+        }
+        connection.text = CharBuffer.wrap(text);
+      }
+      connection.encoder.encode(connection.text, connection.output, false);
+      if (connection.text.hasRemaining()) {
+        return true;
+      }
+    }
+  }
+
+  private void updateInterest(Connection connection) {
+    if (!connection.key.isValid()) {
+      return;
+    }
+    boolean backedUp = connection.text.hasRemaining() || !connection.output.hasRemaining();
+    int interest = 0;
+    if (!backedUp && !paused.contains(connection) && !connection.sending) {
+      interest |= SelectionKey.OP_READ;
+    }
+    if (connection.output.position() > 0) {
+      interest |= SelectionKey.OP_WRITE;
+    }
+    connection.key.interestOps(interest);
+  }
+
+  private void disconnect(Connection connection) {
+    paused.remove(connection);
+    connection.key.cancel();
+    try {
+      connection.channel.close();
+    } catch (IOException e) {
+      // The connection is gone either way.
+    }
+    if (connection.sessionId >= 0) {
+      closeSession(connection.sessionId);
+    }
+  }
+
+  private void closeSession(long id) {
+    workers.execute(() -> {
+      try {
+        sessions.close(id);
+      } catch (IllegalArgumentException e) {
+        // The session was already closed.
+      }
+    });
+  }
+
+  /**
+   * Work a worker thread hands back to the selector thread.
+   */
+  private interface Completion {
+    void run() throws InterruptedException;
+  }
+
+  /**
+   * One client: its socket, the bytes read but not yet sent to the game as lines, and the
+   * game's output not yet written to the socket.
+   */
+  private static final class Connection {
+    private final SocketChannel channel;
+    private final ByteBuffer input = ByteBuffer.allocate(MAX_LINE);
+    private final ByteBuffer output = ByteBuffer.allocate(OUTPUT_BUFFER);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final AtomicBoolean queued = new AtomicBoolean();
+    private CharBuffer text = CharBuffer.allocate(0);
+    private SelectionKey key;
+    private long sessionId = -1;
+    private boolean sending;
+
+    private Connection(SocketChannel channelInput) {
+      this.channel = channelInput;
+    }
+  }
+}
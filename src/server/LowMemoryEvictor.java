@@ -0,0 +1,94 @@
+package server;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+/**
+ * Evicts a session manager's idle sessions when the heap runs low. Installing it sets a
+ * usage threshold on every heap memory pool that supports one and listens for the
+ * notifications the JVM sends when a pool's usage goes over it; each one evicts every
+ * resident session that is waiting for input with {@link SessionManager#evictIdle()}.
+ *
+ * <p>The JVM notifies once per crossing, so another eviction only follows after usage has
+ * dropped back under the threshold and gone over it again. A pool already over its
+ * threshold notifies as soon as the threshold is set, so the listener is added first.
+ * Thresholds belong to the whole process, so only one evictor should be installed at a
+ * time.
+ */
+public final class LowMemoryEvictor implements NotificationListener {
+  private final SessionManager sessions;
+  private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+
+  private LowMemoryEvictor(SessionManager sessionsInput) {
+    this.sessions = sessionsInput;
+  }
+
+  /**
+   * Starts evicting a manager's idle sessions whenever a heap pool fills past a share of
+   * its maximum size. Pools without a maximum or without threshold support are left alone.
+   *
+   * @param sessions the manager whose sessions are evicted.
+   * @param usedFraction the share of a pool's maximum size, above 0 and at most 1, that
+   *         triggers an eviction.
+   * @return the installed evictor, to be removed with {@link #uninstall()}
+   * @throws IllegalArgumentException if the share is out of range.
+   */
+  public static LowMemoryEvictor install(SessionManager sessions, double usedFraction) {
+    if (!(usedFraction > 0 && usedFraction <= 1)) {
+      throw new IllegalArgumentException("Used fraction must be above 0 and at most 1.");
+    }
+    LowMemoryEvictor evictor = new LowMemoryEvictor(sessions);
+    emitter().addNotificationListener(evictor, null, null);
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      long max = pool.getUsage().getMax();
+      if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && max > 0) {
+        pool.setUsageThreshold(Math.max(1, (long) (max * usedFraction)));
+        evictor.pools.add(pool);
+      }
+    }
+    return evictor;
+  }
+
+  /**
+   * Returns the number of heap pools watched.
+   *
+   * @return the pool count, 0 if the JVM offers no heap pool with a usage threshold
+   */
+  public int getPoolCount() {
+    return pools.size();
+  }
+
+  /**
+   * Stops listening and clears the thresholds that were set.
+   */
+  public void uninstall() {
+    try {
+      emitter().removeNotificationListener(this);
+    } catch (ListenerNotFoundException e) {
+      // Already removed.
+    }
+    for (MemoryPoolMXBean pool : pools) {
+      pool.setUsageThreshold(0);
+    }
+    pools.clear();
+  }
+
+  @Override
+  public void handleNotification(Notification notification, Object handback) {
+    if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+      sessions.evictIdle();
+    }
+  }
+
+  private static NotificationEmitter emitter() {
+    return (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+  }
+}
@@ -0,0 +1,263 @@
+package server;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import world.WorldSpec;
+
+/**
+ * Hosts many independent text games of one world in a single process. Each session has a
+ * world, a controller and a seeded generator of its own, and is driven a line at a time
+ * through {@link #send(long, String)} and {@link #receive(long, long)} instead of a console.
+ *
+ * <p>A game waiting for input holds a thread, so at most a fixed number of sessions are
+ * kept resident. When another one is needed, the least recently used sessions that are
+ * waiting for input are evicted to the spill directory, which frees their world and thread;
+ * the next line sent to an evicted session restores it. Idle sessions can also be evicted
+ * all at once with {@link #evictIdle()}, which {@link LowMemoryEvictor} does when the heap
+ * runs low. A session whose game is busy is never evicted, so the resident count can
+ * briefly go over the limit.
+ *
+ * <p>The manager's lock only guards its bookkeeping. Writing an evicted session's spill
+ * file and reading it back happen on that session's own game thread, so no call waits for
+ * the disk or for another session's game.
+ *
+ * <p>A session whose game has ended keeps only its unread output. It stays known, so that
+ * output and {@link #isEnded(long)} can still be read, until it is closed with
+ * {@link #close(long)}.
+ */
+public final class SessionManager {
+  private final WorldSpec spec;
+  private final int maxTurns;
+  private final File spillDirectory;
+  private final int maxResident;
+  private final ExecutorService threads;
+  private final Map<Long, GameSession> sessions = new HashMap<>();
+  private final LinkedHashMap<Long, GameSession> resident = new LinkedHashMap<>(16, 0.75f, true);
+  private long nextId = 1;
+
+  /**
+   * Constructor for SessionManager.
+   *
+   * @param specInput the parsed world file every game is played on.
+   * @param maxTurnsInput the turn limit of each game.
+   * @param spillDirectoryInput the existing directory evicted sessions are written to.
+   * @param maxResidentInput the number of sessions kept in memory.
+   * @throws IllegalArgumentException if there are no turns, no resident sessions or the
+   *         spill directory does not exist.
+   */
+  public SessionManager(WorldSpec specInput, int maxTurnsInput, File spillDirectoryInput,
+      int maxResidentInput) {
+    if (maxTurnsInput < 1) {
+      throw new IllegalArgumentException("Max turns must be positive.");
+    }
+    if (maxResidentInput < 1) {
+      throw new IllegalArgumentException("At least one session must stay resident.");
+    }
+    if (!spillDirectoryInput.isDirectory()) {
+      throw new IllegalArgumentException("Spill directory not found: " + spillDirectoryInput);
+    }
+    this.spec = specInput;
+    this.maxTurns = maxTurnsInput;
+    this.spillDirectory = spillDirectoryInput;
+    this.maxResident = maxResidentInput;
+    this.threads = Executors.newCachedThreadPool(task -> {
+      Thread thread = new Thread(task, "game-session");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Opens a new session and starts its game, which begins by writing the setup menu.
+   *
+   * @param seed the seed of the game's generator; the same seed and input replay a game.
+   * @return the session's id
+   */
+  public long open(long seed) {
+    return open(seed, null);
+  }
+
+  /**
+   * Opens a new session and starts its game, telling the listener whenever the game has
+   * written output that can be taken with {@link #receive(long, long)}, and when it ends.
+   * The listener runs on the game's thread and must not wait.
+   *
+   * @param seed the seed of the game's generator; the same seed and input replay a game.
+   * @param outputListener run after the game writes output or ends, null for none.
+   * @return the session's id
+   */
+  public synchronized long open(long seed, Runnable outputListener) {
+    long id = nextId++;
+    GameSession session = new GameSession(id, seed, spec, maxTurns,
+        new File(spillDirectory, "session-" + id + ".log"), outputListener);
+    sessions.put(id, session);
+    resident.put(id, session);
+    session.start(threads);
+    trim(maxResident);
+    return id;
+  }
+
+  /**
+   * Sends a line of input to a session. If the session was evicted, a new game is started
+   * that reads the session back and replays it before it takes the line; if that fails,
+   * the game writes the error and ends.
+   *
+   * @param id the session's id.
+   * @param line the line, without a line break.
+   * @throws IllegalArgumentException if there is no such session, it has ended or the line
+   *         contains a line break.
+   */
+  public synchronized void send(long id, String line) {
+    if (line.indexOf('\n') >= 0 || line.indexOf('\r') >= 0) {
+      throw new IllegalArgumentException("A line cannot contain line breaks.");
+    }
+    GameSession session = find(id);
+    session.send(line, threads);
+    resident.put(id, session);
+    trim(maxResident);
+  }
+
+  /**
+   * Takes a session's output, waiting for some if there is none yet.
+   *
+   * @param id the session's id.
+   * @param timeoutMillis the longest time to wait, 0 not to wait.
+   * @return the output written since the last call, empty if none was written in time
+   * @throws InterruptedException if the wait is interrupted.
+   * @throws IllegalArgumentException if there is no such session.
+   */
+  public String receive(long id, long timeoutMillis) throws InterruptedException {
+    GameSession session;
+    synchronized (this) {
+      session = find(id);
+    }
+    return session.receive(timeoutMillis);
+  }
+
+  /**
+   * Returns the number of lines sent to a session that its game has not read yet.
+   *
+   * @param id the session's id.
+   * @return the queued line count
+   * @throws IllegalArgumentException if there is no such session.
+   */
+  public synchronized int getQueuedLines(long id) {
+    return find(id).getQueuedLines();
+  }
+
+  /**
+   * Returns whether a session's game has finished.
+   *
+   * @param id the session's id.
+   * @return true if the game is over or the session was closed
+   * @throws IllegalArgumentException if there is no such session.
+   */
+  public synchronized boolean isEnded(long id) {
+    return find(id).isEnded();
+  }
+
+  /**
+   * Returns whether a session is evicted and its game is only on disk.
+   *
+   * @param id the session's id.
+   * @return true if the session's spill file is written and its thread has left
+   * @throws IllegalArgumentException if there is no such session.
+   */
+  synchronized boolean isSpilled(long id) {
+    return find(id).isSpilled();
+  }
+
+  /**
+   * Returns whether a session's game is in memory and waiting for input, so that
+   * {@link #evictIdle()} would evict it.
+   *
+   * @param id the session's id.
+   * @return true if the session is idle
+   * @throws IllegalArgumentException if there is no such session.
+   */
+  synchronized boolean isIdle(long id) {
+    return find(id).isIdle();
+  }
+
+  /**
+   * Closes a session, ending its game and deleting its spill file.
+   *
+   * @param id the session's id.
+   * @throws IllegalArgumentException if there is no such session.
+   */
+  public synchronized void close(long id) {
+    find(id).close(threads);
+    sessions.remove(id);
+    resident.remove(id);
+  }
+
+  /**
+   * Evicts every resident session that is waiting for input.
+   *
+   * @return the number of sessions evicted
+   */
+  public synchronized int evictIdle() {
+    return trim(0);
+  }
+
+  /**
+   * Returns the number of open sessions, resident or not.
+   *
+   * @return the session count
+   */
+  public synchronized int getSessionCount() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns the number of sessions whose game is in memory.
+   *
+   * @return the resident session count
+   */
+  public synchronized int getResidentCount() {
+    dropEnded();
+    return resident.size();
+  }
+
+  /**
+   * Closes every session and stops the manager's threads.
+   */
+  public synchronized void shutdown() {
+    for (GameSession session : sessions.values()) {
+      session.close(threads);
+    }
+    sessions.clear();
+    resident.clear();
+    threads.shutdown();
+  }
+
+  private GameSession find(long id) {
+    GameSession session = sessions.get(id);
+    if (session == null) {
+      throw new IllegalArgumentException("No session " + id + ".");
+    }
+    return session;
+  }
+
+  private void dropEnded() {
+    resident.values().removeIf(GameSession::isEnded);
+  }
+
+  private int trim(int keep) {
+    dropEnded();
+    int evicted = 0;
+    Iterator<GameSession> eldest = resident.values().iterator();
+    while (resident.size() > keep && eldest.hasNext()) {
+      if (eldest.next().evict()) {
+        eldest.remove();
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+}
@@ -0,0 +1,194 @@
+package simulation;
+
+import controller.RandomNumberGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import world.World;
+import world.WorldSpec;
+
+/**
+ * Plays many independent all-computer games of one world on a fork/join pool and adds up
+ * their results. Every game gets a world of its own, copied from one world built from the
+ * parsed world file when the runner is made, so rooms are linked and the pet's tour is
+ * searched once per runner rather than once per game. Every game also gets a generator
+ * seeded from the batch seed and the game's number alone, so a batch gives the same
+ * statistics however many threads play it and in whatever order. Results are merged into
+ * lock-free counters as games finish.
+ */
+public final class BatchRunner {
+  private static final int GAMES_PER_TASK = 32;
+  private final World world;
+  private final int playerCount;
+  private final int maxTurns;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructor for BatchRunner.
+   *
+   * @param specInput the parsed world file every game is played on.
+   * @param playerCountInput the number of computer players in each game.
+   * @param maxTurnsInput the turn limit of each game.
+   * @param poolInput the pool the games are played on.
+   * @throws IllegalArgumentException if there are no players or no turns, or if the world
+   *         file content is not valid.
+   */
+  public BatchRunner(WorldSpec specInput, int playerCountInput, int maxTurnsInput,
+      ForkJoinPool poolInput) {
+    if (playerCountInput < 1) {
+      throw new IllegalArgumentException("At least one player is needed.");
+    }
+    if (maxTurnsInput < 1) {
+      throw new IllegalArgumentException("Max turns must be positive.");
+    }
+    this.world = new World(specInput);
+    this.playerCount = playerCountInput;
+    this.maxTurns = maxTurnsInput;
+    this.pool = poolInput;
+  }
+
+  /**
+   * Derives the seed of one game of a batch. Neighboring games get unrelated seeds.
+   *
+   * @param batchSeed the seed of the batch.
+   * @param game the game's number within the batch.
+   * @return the game's seed
+   */
+  public static long gameSeed(long batchSeed, int game) {
+    long z = batchSeed + (game + 1L) * 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Plays a batch of games and adds up their results.
+   *
+   * @param batchSeed the seed every game's seed is derived from.
+   * @param games the number of games to play.
+   * @return the statistics of the batch
+   * @throws IllegalArgumentException if the number of games is negative.
+   */
+  public BatchStatistics run(long batchSeed, int games) {
+    if (games < 0) {
+      throw new IllegalArgumentException("Number of games cannot be negative.");
+    }
+    Totals totals = new Totals(playerCount);
+    pool.invoke(new Games(batchSeed, 0, games, totals));
+    Map<String, Long> itemUses = new HashMap<>();
+    totals.itemUses.forEach((item, uses) -> itemUses.put(item, uses.sum()));
+    long[] seatWins = new long[playerCount];
+    for (int seat = 0; seat < playerCount; seat++) {
+      seatWins[seat] = totals.seatWins.get(seat);
+    }
+    return new BatchStatistics(totals.games.sum(), totals.wins.sum(), totals.turns.sum(),
+        seatWins, itemUses);
+  }
+
+  /**
+   * Plays a single game of a batch again, for looking into one game in detail.
+   *
+   * @param batchSeed the seed of the batch.
+   * @param game the game's number within the batch.
+   * @return the result of that game
+   */
+  public GameResult replay(long batchSeed, int game) {
+    return play(gameSeed(batchSeed, game), new SimulationEngine(), new int[playerCount]);
+  }
+
+  /**
+   * Plays one game. Players start in rooms drawn from the game's generator and get their
+   * ids recorded by seat.
+   */
+  private GameResult play(long seed, SimulationEngine engine, int[] seats) {
+    World game = world.copyAsLoaded();
+    game.setMaxTurns(maxTurns);
+    RandomNumberGenerator random = RandomNumberGenerator.seeded(seed);
+    Map<Integer, SimulatedComputerStrategy> strategies = new HashMap<>();
+    for (int seat = 0; seat < playerCount; seat++) {
+      int roomIndex = 1 + random.nextInt(game.getRoomCount());
+      seats[seat] = SimulationEngine.addComputerPlayer(game, "Computer " + (seat + 1),
+          roomIndex);
+      strategies.put(seats[seat], new SimulatedComputerStrategy(game, random));
+    }
+    try {
+      return engine.play(game, strategies);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Simulation interrupted.", e);
+    }
+  }
+
+  /**
+   * The counters every game of a batch adds its result to.
+   */
+  private static final class Totals {
+    private final LongAdder games = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final AtomicLongArray seatWins;
+    private final ConcurrentHashMap<String, LongAdder> itemUses = new ConcurrentHashMap<>();
+
+    private Totals(int seats) {
+      this.seatWins = new AtomicLongArray(seats);
+    }
+
+    private void add(GameResult result, int[] seats) {
+      games.increment();
+      turns.add(result.getTurns());
+      if (result.hasWinner()) {
+        wins.increment();
+        for (int seat = 0; seat < seats.length; seat++) {
+          if (seats[seat] == result.getWinnerId()) {
+            seatWins.incrementAndGet(seat);
+          }
+        }
+      }
+      for (int i = 0; i < result.getItemUseCount(); i++) {
+        itemUses.computeIfAbsent(result.getItemUsed(i), item -> new LongAdder()).increment();
+      }
+    }
+  }
+
+  /**
+   * Plays a range of games, splitting it in halves until it is small enough to play on one
+   * thread.
+   */
+  private final class Games extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final long batchSeed;
+    private final int from;
+    private final int to;
+    private final transient Totals totals;
+
+    private Games(long batchSeedInput, int fromInput, int toInput, Totals totalsInput) {
+      this.batchSeed = batchSeedInput;
+      this.from = fromInput;
+      this.to = toInput;
+      this.totals = totalsInput;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > GAMES_PER_TASK) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new Games(batchSeed, from, middle, totals),
+            new Games(batchSeed, middle, to, totals));
+        return;
+      }
+      SimulationEngine engine = new SimulationEngine();
+      int[] seats = new int[playerCount];
+      for (int game = from; game < to; game++) {
+        totals.add(play(gameSeed(batchSeed, game), engine, seats), seats);
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What a batch of simulated games added up to: how often the target died, how long games
+ * lasted, how often each seat won and how often each item was spent on an attack. Seats
+ * are the players in the order they joined a game, 0 being the one who moves first.
+ */
+public final class BatchStatistics {
+  private final long games;
+  private final long wins;
+  private final long totalTurns;
+  private final long[] seatWins;
+  private final Map<String, Long> itemUses;
+
+  /**
+   * Constructor for BatchStatistics.
+   *
+   * @param gamesInput the number of games played.
+   * @param winsInput the number of games in which the target was killed.
+   * @param totalTurnsInput the turns of all games added together.
+   * @param seatWinsInput the wins of each seat.
+   * @param itemUsesInput how many times each item was spent, by item name.
+   */
+  BatchStatistics(long gamesInput, long winsInput, long totalTurnsInput, long[] seatWinsInput,
+      Map<String, Long> itemUsesInput) {
+    this.games = gamesInput;
+    this.wins = winsInput;
+    this.totalTurns = totalTurnsInput;
+    this.seatWins = seatWinsInput.clone();
+    this.itemUses = Collections.unmodifiableMap(new TreeMap<>(itemUsesInput));
+  }
+
+  /**
+   * Returns the number of games played.
+   *
+   * @return the game count
+   */
+  public long getGames() {
+    return games;
+  }
+
+  /**
+   * Returns the number of games in which some player killed the target.
+   *
+   * @return the number of won games
+   */
+  public long getWins() {
+    return wins;
+  }
+
+  /**
+   * Returns the share of games in which some player killed the target.
+   *
+   * @return the win rate between 0 and 1, 0 for an empty batch
+   */
+  public double getWinRate() {
+    return games == 0 ? 0 : (double) wins / games;
+  }
+
+  /**
+   * Returns the average number of turns a game lasted.
+   *
+   * @return the average game length, 0 for an empty batch
+   */
+  public double getAverageTurns() {
+    return games == 0 ? 0 : (double) totalTurns / games;
+  }
+
+  /**
+   * Returns the number of games a seat won.
+   *
+   * @param seat the seat, from 0 for the first player.
+   * @return the seat's wins
+   */
+  public long getSeatWins(int seat) {
+    return seatWins[seat];
+  }
+
+  /**
+   * Returns how many times each item was spent on an attack, by item name in name order.
+   * Items nobody spent are left out.
+   *
+   * @return an unmodifiable map of item uses
+   */
+  public Map<String, Long> getItemUses() {
+    return itemUses;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof BatchStatistics)) {
+      return false;
+    }
+    BatchStatistics other = (BatchStatistics) o;
+    return games == other.games && wins == other.wins && totalTurns == other.totalTurns
+        && Arrays.equals(seatWins, other.seatWins) && itemUses.equals(other.itemUses);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = Long.hashCode(games);
+    hash = 31 * hash + Long.hashCode(wins);
+    hash = 31 * hash + Long.hashCode(totalTurns);
+    hash = 31 * hash + Arrays.hashCode(seatWins);
+    return 31 * hash + itemUses.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Games: %d, Win rate: %.3f, Average turns: %.1f, Seat wins: %s, "
+        + "Item uses: %s", games, getWinRate(), getAverageTurns(), Arrays.toString(seatWins),
+        itemUses);
+  }
+}
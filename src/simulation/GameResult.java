@@ -0,0 +1,174 @@
+package simulation;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of one simulated game: who won, after how many turns, every hit that hurt
+ * the target and every item spent on an attack. Hits are kept in three parallel int arrays,
+ * in the order they landed, so a result costs a few dozen bytes no matter how long the game
+ * ran.
+ */
+public final class GameResult {
+  private final int winnerId;
+  private final int turns;
+  private final int[] damageTurns;
+  private final int[] damagePlayers;
+  private final int[] damageAmounts;
+  private final String[] itemsUsed;
+
+  /**
+   * Constructor for GameResult.
+   *
+   * @param winnerIdInput id of the player who killed the target, or -1 if nobody did.
+   * @param turnsInput the turn the game ended on.
+   * @param damageTurnsInput for each hit, the turn it was made on.
+   * @param damagePlayersInput for each hit, the player who made it.
+   * @param damageAmountsInput for each hit, the health it took from the target.
+   * @param itemsUsedInput the names of the items spent on attacks, in the order used.
+   */
+  GameResult(int winnerIdInput, int turnsInput, int[] damageTurnsInput,
+      int[] damagePlayersInput, int[] damageAmountsInput, String[] itemsUsedInput) {
+    this.winnerId = winnerIdInput;
+    this.turns = turnsInput;
+    this.damageTurns = damageTurnsInput;
+    this.damagePlayers = damagePlayersInput;
+    this.damageAmounts = damageAmountsInput;
+    this.itemsUsed = itemsUsedInput;
+  }
+
+  /**
+   * Checks whether some player killed the target.
+   *
+   * @return true if the game has a winner
+   */
+  public boolean hasWinner() {
+    return winnerId >= 0;
+  }
+
+  /**
+   * Returns the id of the player who killed the target.
+   *
+   * @return the winner's id, or -1 if the game ran out of turns
+   */
+  public int getWinnerId() {
+    return winnerId;
+  }
+
+  /**
+   * Returns the turn the game ended on.
+   *
+   * @return the final turn number
+   */
+  public int getTurns() {
+    return turns;
+  }
+
+  /**
+   * Returns the number of hits that hurt the target.
+   *
+   * @return the hit count
+   */
+  public int getDamageCount() {
+    return damageTurns.length;
+  }
+
+  /**
+   * Returns the turn a hit was made on.
+   *
+   * @param index the hit, from 0 to getDamageCount() - 1.
+   * @return the turn number
+   */
+  public int getDamageTurn(int index) {
+    return damageTurns[index];
+  }
+
+  /**
+   * Returns the player who made a hit.
+   *
+   * @param index the hit, from 0 to getDamageCount() - 1.
+   * @return the player id
+   */
+  public int getDamagePlayer(int index) {
+    return damagePlayers[index];
+  }
+
+  /**
+   * Returns the health a hit took from the target.
+   *
+   * @param index the hit, from 0 to getDamageCount() - 1.
+   * @return the damage
+   */
+  public int getDamageAmount(int index) {
+    return damageAmounts[index];
+  }
+
+  /**
+   * Returns the health all hits together took from the target.
+   *
+   * @return the total damage
+   */
+  public int getTotalDamage() {
+    int total = 0;
+    for (int amount : damageAmounts) {
+      total += amount;
+    }
+    return total;
+  }
+
+  /**
+   * Returns the number of items spent on attacks, whether the attack hurt the target or not.
+   *
+   * @return the item count
+   */
+  public int getItemUseCount() {
+    return itemsUsed.length;
+  }
+
+  /**
+   * Returns an item spent on an attack.
+   *
+   * @param index the use, from 0 to getItemUseCount() - 1.
+   * @return the item's name
+   */
+  public String getItemUsed(int index) {
+    return itemsUsed[index];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof GameResult)) {
+      return false;
+    }
+    GameResult other = (GameResult) o;
+    return winnerId == other.winnerId && turns == other.turns
+        && Arrays.equals(damageTurns, other.damageTurns)
+        && Arrays.equals(damagePlayers, other.damagePlayers)
+        && Arrays.equals(damageAmounts, other.damageAmounts)
+        && Arrays.equals(itemsUsed, other.itemsUsed);
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 31 * winnerId + turns;
+    hash = 31 * hash + Arrays.hashCode(damageTurns);
+    hash = 31 * hash + Arrays.hashCode(damagePlayers);
+    hash = 31 * hash + Arrays.hashCode(damageAmounts);
+    return 31 * hash + Arrays.hashCode(itemsUsed);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    text.append("Winner: ").append(hasWinner() ? String.valueOf(winnerId) : "none")
+        .append(", Turns: ").append(turns).append(", Damage:");
+    for (int i = 0; i < damageTurns.length; i++) {
+      text.append(' ').append(damagePlayers[i]).append('@').append(damageTurns[i])
+          .append('=').append(damageAmounts[i]);
+    }
+    text.append(", Items: ").append(String.join(", ", itemsUsed));
+    return text.toString();
+  }
+}
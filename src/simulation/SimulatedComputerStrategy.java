@@ -0,0 +1,79 @@
+package simulation;
+
+import controller.PlayerStrategy;
+import controller.RandomNumberGenerator;
+import java.util.List;
+import world.Gadget;
+import world.WorldOutline;
+
+/**
+ * The computer player of the text game, without its commentary. Decisions follow the same
+ * rules as the controller's computer strategy: attack with the best item whenever the
+ * target is in the room, otherwise move to a random neighbor, pick up a random item or look
+ * around, one choice in three each. Looking around only reports what the player sees, so
+ * here it just ends the turn. Random choices come from the given generator, so a game driven
+ * by a seeded generator is repeatable. Actions go through the world's event methods, so no
+ * message is put into words unless the world has an event sink that asks for it.
+ */
+public final class SimulatedComputerStrategy implements PlayerStrategy {
+  private final WorldOutline world;
+  private final RandomNumberGenerator random;
+
+  /**
+   * Constructor for SimulatedComputerStrategy.
+   *
+   * @param worldInput the world the player acts in.
+   * @param randomInput the source of the player's random choices.
+   */
+  public SimulatedComputerStrategy(WorldOutline worldInput,
+      RandomNumberGenerator randomInput) {
+    this.world = worldInput;
+    this.random = randomInput;
+  }
+
+  @Override
+  public void executeActions(int playerId) {
+    try {
+      if (world.canMurderAttempt(playerId)) {
+        world.usePlayerHighestItem(playerId);
+        world.applyMurderAttempt(playerId);
+        if (world.getTargetHealthPoint() <= 0) {
+          world.setRunning(false);
+        } else {
+          world.applyTurnAdvance();
+        }
+        return;
+      }
+      switch (random.nextInt(3)) {
+        case 0:
+          move(playerId);
+          break;
+        case 1:
+          pickUpItem(playerId);
+          break;
+        default:
+          world.applyTurnAdvance();
+          break;
+      }
+    } catch (IllegalArgumentException e) {
+      // The action was refused; the player acts again, as in the text game.
+    }
+  }
+
+  private void move(int playerId) {
+    List<Integer> neighbors = world.getNeighborRooms(world.getPlayerRoomId(playerId));
+    if (neighbors.isEmpty()) {
+      return;
+    }
+    world.applyPlayerMove(playerId, neighbors.get(random.nextInt(neighbors.size())));
+    world.applyTurnAdvance();
+  }
+
+  private void pickUpItem(int playerId) {
+    List<Gadget> items = world.getRoomById(world.getPlayerRoomId(playerId)).getItem();
+    if (!items.isEmpty()) {
+      world.applyItemPickup(playerId, items.get(random.nextInt(items.size())).getItemName());
+    }
+    world.applyTurnAdvance();
+  }
+}
@@ -0,0 +1,121 @@
+package simulation;
+
+import controller.PlayerStrategy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import world.Gadget;
+import world.WorldOutline;
+
+/**
+ * Plays complete games without a controller, a view or any text output, for balance
+ * testing with computer players. The game loop is the one the text controller runs: while
+ * the world is running and its turn limit is not reached, the strategy of the player whose
+ * turn it is acts, and the strategy is responsible for ending its turn. After every action
+ * the engine compares the target's health with the health before it, so hits are recorded
+ * whatever the strategy does, and the first player to bring the target to zero wins. Items
+ * can only be spent on attacks, so when a player shares a room with the target the engine
+ * also compares the player's items before and after the action.
+ */
+public final class SimulationEngine {
+  private int[] damageTurns = new int[8];
+  private int[] damagePlayers = new int[8];
+  private int[] damageAmounts = new int[8];
+  private final List<String> itemsUsed = new ArrayList<>();
+
+  /**
+   * Adds a computer player to a world the way the controller does, so the world's turn
+   * order includes it.
+   *
+   * @param world the world to add to.
+   * @param playerName the player's name.
+   * @param roomIndex the starting room, from 1 to the room count.
+   * @return the new player's id
+   */
+  public static int addComputerPlayer(WorldOutline world, String playerName, int roomIndex) {
+    if (roomIndex < 1 || roomIndex > world.getRoomCount()) {
+      throw new IllegalArgumentException("Invalid room index. "
+          + "Please enter a number between 1 and " + world.getRoomCount() + ".\n");
+    }
+    int playerId = world.callCreatePlayer(playerName, roomIndex);
+    world.getPlayerIds().add(playerId);
+    world.getPlayerNames().put(playerId, playerName);
+    world.getIsComputer().put(playerId, true);
+    return playerId;
+  }
+
+  /**
+   * Plays a game to the end on a world whose players are already added.
+   *
+   * @param world the world to play in, it is changed by the game.
+   * @param strategies the strategy of every player by player id.
+   * @return the result of the game
+   * @throws InterruptedException if a strategy is interrupted.
+   * @throws IOException if a strategy fails to write its output.
+   * @throws IllegalArgumentException if some player has no strategy.
+   */
+  public GameResult play(WorldOutline world, Map<Integer, ? extends PlayerStrategy> strategies)
+      throws InterruptedException, IOException {
+    PlayerStrategy[] byPlayer = new PlayerStrategy[world.getPlayerIds().size()];
+    for (int playerId : world.getPlayerIds()) {
+      PlayerStrategy strategy = strategies.get(playerId);
+      if (strategy == null || playerId < 0 || playerId >= byPlayer.length) {
+        throw new IllegalArgumentException("No strategy for player " + playerId + ".");
+      }
+      byPlayer[playerId] = strategy;
+    }
+    int hits = 0;
+    int winnerId = -1;
+    itemsUsed.clear();
+    while (world.getIsRunning() && world.getCurrentTurn() < world.getMaxTurns()) {
+      int playerId = world.getCurrentPlayerId();
+      int turn = world.getCurrentTurn();
+      int healthBefore = world.getTargetHealthPoint();
+      List<Gadget> itemsBefore = world.canMurderAttempt(playerId)
+          ? world.getPlayerGadgets(playerId) : null;
+      byPlayer[playerId].executeActions(playerId);
+      if (itemsBefore != null) {
+        recordItemsUsed(itemsBefore, world.getPlayerGadgets(playerId));
+      }
+      int health = world.getTargetHealthPoint();
+      if (health < healthBefore) {
+        if (hits == damageTurns.length) {
+          damageTurns = Arrays.copyOf(damageTurns, hits * 2);
+          damagePlayers = Arrays.copyOf(damagePlayers, hits * 2);
+          damageAmounts = Arrays.copyOf(damageAmounts, hits * 2);
+        }
+        damageTurns[hits] = turn;
+        damagePlayers[hits] = playerId;
+        damageAmounts[hits++] = healthBefore - health;
+      }
+      if (health <= 0) {
+        winnerId = playerId;
+        world.setRunning(false);
+      }
+    }
+    return new GameResult(winnerId, world.getCurrentTurn(), Arrays.copyOf(damageTurns, hits),
+        Arrays.copyOf(damagePlayers, hits), Arrays.copyOf(damageAmounts, hits),
+        itemsUsed.toArray(new String[0]));
+  }
+
+  /**
+   * Adds the names of the items a player no longer holds to the item log. Items are
+   * compared by identity, so items sharing a name are told apart.
+   */
+  private void recordItemsUsed(List<Gadget> before, List<Gadget> after) {
+    for (Gadget item : before) {
+      boolean kept = false;
+      for (Gadget held : after) {
+        if (held == item) {
+          kept = true;
+          break;
+        }
+      }
+      if (!kept) {
+        itemsUsed.add(item.getItemName());
+      }
+    }
+  }
+}
@@ -8,11 +8,10 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.util.List;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
@@ -29,8 +28,8 @@ import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 import javax.swing.filechooser.FileNameExtensionFilter;
+import world.CompiledWorld;
 import world.ReadOnlyWorld;
-import world.World;
 
 /**
  * The main window of the game, serving as the central interface for player 
@@ -42,6 +41,7 @@ import world.World;
  */
 public class GameFrame extends JFrame implements FrameView {
   private static final long serialVersionUID = 1L;
+  private static final String COMPUTER_TURN = "Computer players are taking their turns.";
   private ReadOnlyWorld world;
   private JLabel statusLabel;
   private WorldPanel worldPanel;
@@ -80,9 +80,10 @@ public class GameFrame extends JFrame implements FrameView {
   
   private void loadDefaultWorld(Controller gameController) throws IOException {
     setUpInstruction();
-    FileReader fileReader = new FileReader(this.currentGameFile);
-    this.world = new World(fileReader);
+    this.world = CompiledWorld.open(this.currentGameFile);
     gameController.loadNewWorld(world);
+    worldPanel.clearTiles();
+    worldPanel.setRoomCoordinates(gameController.getRoomCoordinates());
     gameController.setMaxTurn(maxturn);  
     refreshWorldDisplay(gameController);
     infoTextArea.setText("");
@@ -92,9 +93,10 @@ public class GameFrame extends JFrame implements FrameView {
   void restartWorld(Controller gameController) throws IOException {
     setUpInstruction();
     infoTextArea.setText("");
-    FileReader fileReader = new FileReader(this.currentGameFile);
-    this.world = new World(fileReader);
+    this.world = CompiledWorld.open(this.currentGameFile);
     gameController.loadNewWorld(world);
+    worldPanel.clearTiles();
+    worldPanel.setRoomCoordinates(gameController.getRoomCoordinates());
     gameController.setMaxTurn(maxturn);
     gameController.setEnd(false);
     setupInitialGamePanel(gameController);
@@ -130,24 +132,26 @@ public class GameFrame extends JFrame implements FrameView {
   void loadWorldFromFile(Controller gameController) {
     JFileChooser fileChooser = new JFileChooser();
     fileChooser.setDialogTitle("Select Game Configuration File");
-    fileChooser.setFileFilter(new FileNameExtensionFilter("Text Files", "txt"));
+    fileChooser.setFileFilter(new FileNameExtensionFilter("World Files", "txt",
+        CompiledWorld.EXTENSION.substring(1)));
     setUpInstruction();
     infoTextArea.setText("");
     int result = fileChooser.showOpenDialog(this);
     if (result == JFileChooser.APPROVE_OPTION) {
       File selectedFile = fileChooser.getSelectedFile();
       try {
-        FileReader fileReader = new FileReader(selectedFile);
-        ReadOnlyWorld worlda = new World(fileReader);
+        ReadOnlyWorld worlda = CompiledWorld.open(selectedFile);
         this.world = worlda;
         gameController.loadNewWorld(world);  
+        worldPanel.clearTiles();
+        worldPanel.setRoomCoordinates(gameController.getRoomCoordinates());
         gameController.setMaxTurn(maxturn);
         gameController.setEnd(false);
         setupInitialGamePanel(gameController);
         refreshWorldDisplay(gameController);
         statusLabel.setText("Selected Game loaded. Please set up the game.");
         this.currentGameFile = selectedFile;
-      } catch (FileNotFoundException e) {
+      } catch (FileNotFoundException | NoSuchFileException e) {
         JOptionPane.showMessageDialog(this, "File not found: " + e.getMessage(), ""
             + "Error", JOptionPane.ERROR_MESSAGE);
       } catch (IOException e) {
@@ -240,11 +244,11 @@ public class GameFrame extends JFrame implements FrameView {
   @Override
   public void refreshWorldDisplay(Controller gameController) {
     if (!gameController.getEnd()) {
-      BufferedImage image = gameController.saveWorldImg();
-      worldPanel.setWorldImage(image);
-      worldPanel.setRoomCoordinates(gameController.getRoomCoordinates());
+      worldPanel.refreshMap();
       worldPanel.setPlayerCoordinates(gameController.getPlayerCoordinates());
-      if (gameController.getRunning()) {
+      if (gameController.isComputerTurn()) {
+        statusLabel.setText(COMPUTER_TURN);
+      } else if (gameController.getRunning()) {
         statusLabel.setText("Player ID " + gameController.getCurrentPlayerId() + "'s turn");
       }
     } else {
@@ -260,7 +264,9 @@ public class GameFrame extends JFrame implements FrameView {
   private void startGame(Controller gameController) throws IOException, InterruptedException {
     try {
       gameController.startGame();
-      if (gameController.getRunning()) {
+      if (gameController.isComputerTurn()) {
+        statusLabel.setText(COMPUTER_TURN);
+      } else if (gameController.getRunning()) {
         statusLabel.setText("Player ID " + gameController.getCurrentPlayerId() + "'s turn");
       }
       showInfoPanel();
@@ -295,7 +301,9 @@ public class GameFrame extends JFrame implements FrameView {
   @Override
   public void onRoomClick(Controller gameController, int roomId) 
       throws IOException, InterruptedException {
-    if (gameController.getRunning()) {
+    if (gameController.isComputerTurn()) {
+      statusLabel.setText(COMPUTER_TURN);
+    } else if (gameController.getRunning()) {
       try {
         StringBuilder output = new StringBuilder();
         gameController.movePlayerToRoom(roomId, output);
@@ -323,6 +331,10 @@ public class GameFrame extends JFrame implements FrameView {
     this.addKeyListener(new KeyAdapter() {
         @Override
         public void keyPressed(KeyEvent e) {
+            if (gameController.isComputerTurn()) {
+              statusLabel.setText(COMPUTER_TURN);
+              return;
+            }
             try {
               if (e.getKeyChar() == 'p') {
                 showItemPickupDialog(gameController);
@@ -489,6 +501,7 @@ public class GameFrame extends JFrame implements FrameView {
         + "Press 'L' on keyboard to look around to gather information\n"
         + "Press 'A' on keyboard to attack target(red dot)\n"
         + "Press 'M' on keyboard to move the pet the other room\n"
+        + "Hold Ctrl and scroll the mouse wheel to zoom the map\n"
         + "enjoy the game!");
   }
   
@@ -0,0 +1,124 @@
+package view;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid of square cells over a set of rectangles, used to answer "which rectangle
+ * holds this point" without looking at every rectangle. Each rectangle is listed in every
+ * cell it covers; only cells holding something are stored, so memory follows the area the
+ * rectangles cover rather than the size of the map. Rectangles are keyed by id and can be
+ * added, moved and removed one at a time.
+ */
+final class HitIndex {
+  private final int cellSize;
+  private final Map<Long, List<Integer>> cells = new HashMap<>();
+  private final Map<Integer, Rectangle> rectangles = new HashMap<>();
+
+  /**
+   * Constructor for HitIndex.
+   *
+   * @param cellSizeInput the side of a grid cell in pixels, about the size of a rectangle.
+   */
+  HitIndex(int cellSizeInput) {
+    this.cellSize = cellSizeInput;
+  }
+
+  /**
+   * Brings the index in line with a map of rectangles, touching only the ids that were
+   * added, moved or removed since the last update.
+   *
+   * @param latest the rectangles by id.
+   */
+  void update(Map<Integer, Rectangle> latest) {
+    Iterator<Map.Entry<Integer, Rectangle>> it = rectangles.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Integer, Rectangle> entry = it.next();
+      if (!latest.containsKey(entry.getKey())) {
+        unlist(entry.getKey(), entry.getValue());
+        it.remove();
+      }
+    }
+    for (Map.Entry<Integer, Rectangle> entry : latest.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * Removes every rectangle.
+   */
+  void clear() {
+    cells.clear();
+    rectangles.clear();
+  }
+
+  /**
+   * Adds a rectangle, or moves it if the id is already indexed.
+   *
+   * @param id the rectangle's id.
+   * @param rectangle where it is.
+   */
+  void put(int id, Rectangle rectangle) {
+    Rectangle old = rectangles.get(id);
+    if (rectangle.equals(old)) {
+      return;
+    }
+    if (old != null) {
+      unlist(id, old);
+    }
+    Rectangle copy = new Rectangle(rectangle);
+    rectangles.put(id, copy);
+    for (int row = cellOf(copy.y); row <= cellOf(copy.y + copy.height); row++) {
+      for (int col = cellOf(copy.x); col <= cellOf(copy.x + copy.width); col++) {
+        cells.computeIfAbsent(key(row, col), k -> new ArrayList<>(2)).add(id);
+      }
+    }
+  }
+
+  /**
+   * Finds the rectangle holding a point, the one with the lowest id if several do.
+   *
+   * @param x the point's x coordinate.
+   * @param y the point's y coordinate.
+   * @return the id of the rectangle, or -1 if no rectangle holds the point
+   */
+  int find(int x, int y) {
+    List<Integer> ids = cells.get(key(cellOf(y), cellOf(x)));
+    int found = -1;
+    if (ids != null) {
+      for (int id : ids) {
+        if ((found < 0 || id < found) && rectangles.get(id).contains(x, y)) {
+          found = id;
+        }
+      }
+    }
+    return found;
+  }
+
+  private void unlist(int id, Rectangle rectangle) {
+    for (int row = cellOf(rectangle.y); row <= cellOf(rectangle.y + rectangle.height); row++) {
+      for (int col = cellOf(rectangle.x); col <= cellOf(rectangle.x + rectangle.width); col++) {
+        Long key = key(row, col);
+        List<Integer> ids = cells.get(key);
+        if (ids != null) {
+          ids.remove(Integer.valueOf(id));
+          if (ids.isEmpty()) {
+            cells.remove(key);
+          }
+        }
+      }
+    }
+  }
+
+  private int cellOf(int coordinate) {
+    return Math.floorDiv(coordinate, cellSize);
+  }
+
+  private static long key(int row, int col) {
+    return ((long) row << 32) | (col & 0xffffffffL);
+  }
+}
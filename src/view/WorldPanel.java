@@ -1,49 +1,86 @@
 package view;
 
 import controller.Controller;
+import java.awt.Color;
+import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
 
 /**
- * A custom panel for displaying the game world as a buffered image. It also manages the coordinates
+ * A custom panel for displaying the game world map. It also manages the coordinates
  * for rooms and players to facilitate interaction, such as clicking on game elements.
+ *
+ * <p>The map is cut into fixed-size tiles that are painted on demand, only for the part of
+ * the panel being shown, and kept in a least recently used cache; the target and players are
+ * painted over the tiles on every repaint. Memory stays bounded however large the world is.
+ * The map can be shown at several zoom levels, changed with Ctrl and the mouse wheel.
  */
 public class WorldPanel extends JPanel {
   private static final long serialVersionUID = 1L;
-  private BufferedImage worldImage;
-  private Map<Integer, Rectangle> roomCoordinates = new HashMap<>();
-  private Map<Integer, Rectangle> playerCoordinates = new HashMap<>();
+  private static final int TILE_SIZE = 256;
+  private static final int TILE_CACHE_SIZE = 96;
+  private static final double[] ZOOM_LEVELS = {0.25, 0.5, 1, 2};
+  private final Controller controller;
+  private final Map<Long, BufferedImage> tiles =
+      new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+          return size() > TILE_CACHE_SIZE;
+        }
+      };
+  private Dimension mapSize;
+  private int zoomLevel = 2;
+  private final HitIndex rooms = new HitIndex(128);
+  private final HitIndex players = new HitIndex(32);
   private FrameView clickListener;
 
   /**
-   * Constructs a WorldPanel with a mouse listener that 
+   * Constructs a WorldPanel with a mouse listener that
    * triggers actions based on the location clicked.
    *
    * @param gameController the controller that handles game logic and mouse interactions.
    */
   public WorldPanel(Controller gameController) {
     super();
-    this.worldImage = null;
+    this.controller = gameController;
+    this.mapSize = null;
     addMouseListener(new MouseAdapter() {
         @Override
         public void mouseClicked(MouseEvent e) {
             try {
-              handleMouseClick(gameController, e.getX(), e.getY());
+              double zoom = getZoom();
+              handleMouseClick(gameController, (int) (e.getX() / zoom),
+                  (int) (e.getY() / zoom));
             } catch (IOException | InterruptedException e1) {
               e1.printStackTrace();
             }
         }
       });
+    addMouseWheelListener(e -> {
+      if (e.isControlDown()) {
+        setZoomLevel(zoomLevel - e.getWheelRotation());
+      } else {
+        Component scrollPane = SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+        if (scrollPane != null) {
+          scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(this, e, scrollPane));
+        }
+      }
+    });
   }
-  
+
   /**
    * Sets the listener for handling clicks within the panel.
    *
@@ -52,58 +89,151 @@ public class WorldPanel extends JPanel {
   public void setClickListener(FrameView listener) {
     this.clickListener = listener;
   }
-  
+
+  /**
+   * Shows the current state of the world. The room tiles are kept, only the players and
+   * the target are painted again.
+   */
+  public void refreshMap() {
+    Dimension size = controller.getMapSize();
+    if (!size.equals(mapSize)) {
+      mapSize = size;
+      resize();
+    }
+    repaint();
+  }
+
   /**
-   * Updates the image displayed within the panel.
+   * Forgets every painted tile, for when a different world is loaded.
+   */
+  public void clearTiles() {
+    tiles.clear();
+    mapSize = null;
+  }
+
+  /**
+   * Gets the current zoom factor, 1 meaning the map's own pixel size.
    *
-   * @param worldImageInput the new image to display.
+   * @return the zoom factor.
    */
-  public void setWorldImage(BufferedImage worldImageInput) {
-    this.worldImage = worldImageInput;
-    setPreferredSize(new Dimension(worldImage.getWidth(), worldImage.getHeight()));
-    revalidate();
-    repaint();  
+  public double getZoom() {
+    return ZOOM_LEVELS[zoomLevel];
+  }
+
+  /**
+   * Changes the zoom, keeping it within the available levels.
+   *
+   * @param level the zoom level, from 0 for the smallest map to 3 for the largest.
+   */
+  public void setZoomLevel(int level) {
+    int clamped = Math.max(0, Math.min(ZOOM_LEVELS.length - 1, level));
+    if (clamped != zoomLevel) {
+      zoomLevel = clamped;
+      resize();
+      repaint();
+    }
+  }
+
+  private void resize() {
+    if (mapSize != null) {
+      setPreferredSize(new Dimension((int) Math.ceil(mapSize.width * getZoom()),
+          (int) Math.ceil(mapSize.height * getZoom())));
+      revalidate();
+    }
   }
 
   @Override
   protected void paintComponent(Graphics g) {
     super.paintComponent(g);
-    if (worldImage != null) {
-      g.drawImage(worldImage, 0, 0, this);
+    if (mapSize == null || mapSize.width <= 0 || mapSize.height <= 0) {
+      return;
+    }
+    double zoom = getZoom();
+    Rectangle visible = g.getClipBounds();
+    if (visible == null) {
+      visible = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    int columns = (int) Math.ceil(mapSize.width * zoom / TILE_SIZE);
+    int rows = (int) Math.ceil(mapSize.height * zoom / TILE_SIZE);
+    int firstColumn = Math.max(0, visible.x / TILE_SIZE);
+    int lastColumn = Math.min(columns - 1, (visible.x + visible.width - 1) / TILE_SIZE);
+    int firstRow = Math.max(0, visible.y / TILE_SIZE);
+    int lastRow = Math.min(rows - 1, (visible.y + visible.height - 1) / TILE_SIZE);
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        g.drawImage(tile(column, row), column * TILE_SIZE, row * TILE_SIZE, this);
+      }
+    }
+    Graphics2D tokens = (Graphics2D) g.create();
+    tokens.scale(zoom, zoom);
+    controller.paintMapTokens(tokens, toMap(visible));
+    tokens.dispose();
+  }
+
+  private BufferedImage tile(int column, int row) {
+    long key = ((long) zoomLevel << 56) | ((long) row << 28) | column;
+    BufferedImage tile = tiles.get(key);
+    if (tile == null) {
+      tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+      Graphics2D g = tile.createGraphics();
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+      g.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+      g.scale(getZoom(), getZoom());
+      controller.paintMapRooms(g, toMap(new Rectangle(column * TILE_SIZE, row * TILE_SIZE,
+          TILE_SIZE, TILE_SIZE)));
+      g.dispose();
+      tiles.put(key, tile);
     }
+    return tile;
+  }
+
+  /**
+   * Converts an area of the panel to the map pixels it shows.
+   */
+  private Rectangle toMap(Rectangle area) {
+    double zoom = getZoom();
+    int x = (int) Math.floor(area.x / zoom);
+    int y = (int) Math.floor(area.y / zoom);
+    int right = (int) Math.ceil((area.x + area.width) / zoom);
+    int bottom = (int) Math.ceil((area.y + area.height) / zoom);
+    return new Rectangle(x, y, right - x, bottom - y);
   }
 
+  /**
+   * Sets the rooms that can be clicked, replacing those of the previous world. Rooms never
+   * move during a game, so this is called once per loaded world rather than on every
+   * refresh.
+   *
+   * @param coordinates the rectangle of every room by room id, in map pixels.
+   */
   public void setRoomCoordinates(Map<Integer, Rectangle> coordinates) {
-    this.roomCoordinates = coordinates;
+    rooms.clear();
+    rooms.update(coordinates);
   }
 
+  /**
+   * Sets the players that can be clicked. Only players who moved since the last call are
+   * re-indexed.
+   *
+   * @param coordinates the rectangle of every player by player id, in map pixels.
+   */
   public void setPlayerCoordinates(Map<Integer, Rectangle> coordinates) {
-    this.playerCoordinates = coordinates;
+    players.update(coordinates);
   }
 
-  private void handleMouseClick(Controller gameController, int x, int y) 
+  private void handleMouseClick(Controller gameController, int x, int y)
       throws IOException, InterruptedException {
-    boolean found = false;
-
-    for (Map.Entry<Integer, Rectangle> entry : playerCoordinates.entrySet()) {
-      if (entry.getValue().contains(x, y)) {
-        if (clickListener != null) {
-          clickListener.onPlayerClick(gameController, entry.getKey());
-        }
-        found = true;
-        break;
+    int playerId = players.find(x, y);
+    if (playerId >= 0) {
+      if (clickListener != null) {
+        clickListener.onPlayerClick(gameController, playerId);
       }
+      return;
     }
-
-    if (!found) {
-      for (Map.Entry<Integer, Rectangle> entry : roomCoordinates.entrySet()) {
-        if (entry.getValue().contains(x, y)) {
-          if (clickListener != null) {
-            clickListener.onRoomClick(gameController, entry.getKey());
-          }
-          break;
-        }
-      }
+    int roomId = rooms.find(x, y);
+    if (roomId >= 0 && clickListener != null) {
+      clickListener.onRoomClick(gameController, roomId);
     }
   }
 
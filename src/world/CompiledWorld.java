@@ -0,0 +1,217 @@
+package world;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes compiled world files: a loaded world saved together with everything
+ * computed while loading it, so it can be opened again without parsing text or searching
+ * for neighbors, lines of sight and the pet's tour. A compiled file holds the world file
+ * content, the neighbor and visible-from graphs in compressed sparse row form and the pet's
+ * starting tour. Loading maps the file into memory and copies those arrays out in bulk.
+ *
+ * <p>Layout, all numbers big-endian 32-bit ints: magic and version; rows, columns, target
+ * health, room count, item count, the link count of each graph and the tour length; id
+ * and coordinates of every room; location and murder value of every item; offsets and
+ * targets of the neighbor graph, then of the visible-from graph; the tour. The names come
+ * last, the world, target and pet names and then every room and item name, each as a
+ * byte length followed by its UTF-8 bytes.
+ */
+public final class CompiledWorld {
+  /**
+   * File name extension of compiled world files.
+   */
+  public static final String EXTENSION = ".kdlw";
+  private static final int MAGIC = 0x4b444c57;
+  private static final int VERSION = 1;
+
+  private CompiledWorld() {
+  }
+
+  /**
+   * Writes a world to a compiled world file. Only what was loaded is written: players,
+   * moves and picked up items are not part of it.
+   *
+   * @param world a world as loaded from a world file.
+   * @param file the file to write.
+   * @throws IOException if the file cannot be written.
+   * @throws IllegalArgumentException if rooms were added or linked by hand since loading.
+   */
+  public static void write(World world, File file) throws IOException {
+    if (!world.hasLoadedRooms()) {
+      throw new IllegalArgumentException(
+          "Only a world as loaded from a file can be compiled, its rooms were changed.");
+    }
+    WorldSpec spec = world.getSpec();
+    RoomGraph adjacency = world.getAdjacency();
+    RoomGraph visibility = world.getVisibility();
+    int[] tour = world.getStartPetTour();
+    List<RoomRecord> rooms = spec.getRooms();
+    List<ItemRecord> items = spec.getItems();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(spec.getRows());
+      out.writeInt(spec.getCols());
+      out.writeInt(spec.getTargetHealth());
+      out.writeInt(rooms.size());
+      out.writeInt(items.size());
+      out.writeInt(adjacency.getLinkCount());
+      out.writeInt(visibility.getLinkCount());
+      out.writeInt(tour.length);
+      for (RoomRecord room : rooms) {
+        out.writeInt(room.getRoomId());
+        out.writeInt(room.getTop());
+        out.writeInt(room.getLeft());
+        out.writeInt(room.getBottom());
+        out.writeInt(room.getRight());
+      }
+      for (ItemRecord item : items) {
+        out.writeInt(item.getLocation());
+        out.writeInt(item.getMurderValue());
+      }
+      writeInts(out, adjacency.offsets());
+      writeInts(out, adjacency.targets());
+      writeInts(out, visibility.offsets());
+      writeInts(out, visibility.targets());
+      writeInts(out, tour);
+      writeName(out, spec.getWorldName());
+      writeName(out, spec.getTargetName());
+      writeName(out, spec.getPetName());
+      for (RoomRecord room : rooms) {
+        writeName(out, room.getRoomName());
+      }
+      for (ItemRecord item : items) {
+        writeName(out, item.getItemName());
+      }
+    }
+  }
+
+  /**
+   * Loads a world from a compiled world file.
+   *
+   * @param file the compiled world file.
+   * @return the world, as it was when compiled
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a valid compiled world.
+   */
+  public static World load(File file) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Compiled world files over 2 GB are not supported.");
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    try {
+      return read(buffer);
+    } catch (BufferUnderflowException | IndexOutOfBoundsException
+        | NegativeArraySizeException e) {
+      throw new IllegalArgumentException("Invalid compiled world file: " + file
+          + " ends too early.");
+    }
+  }
+
+  /**
+   * Opens a world file of either kind: a compiled world if the name ends with
+   * {@link #EXTENSION}, otherwise the text format, mapped into memory by
+   * {@link MappedWorldFile}.
+   *
+   * @param file the world file.
+   * @return the loaded world
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the file's content is not valid.
+   */
+  public static World open(File file) throws IOException {
+    if (file.getName().endsWith(EXTENSION)) {
+      return load(file);
+    }
+    return new World(MappedWorldFile.open(file).getSpec());
+  }
+
+  private static World read(ByteBuffer buffer) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a compiled world file.");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported compiled world version " + version + ".");
+    }
+    final int rows = buffer.getInt();
+    final int cols = buffer.getInt();
+    final int targetHealth = buffer.getInt();
+    int roomCount = buffer.getInt();
+    int itemCount = buffer.getInt();
+    final int adjacencyLinks = buffer.getInt();
+    final int visibilityLinks = buffer.getInt();
+    final int tourLength = buffer.getInt();
+    int[] roomInts = readInts(buffer, 5 * roomCount);
+    int[] itemInts = readInts(buffer, 2 * itemCount);
+    RoomGraph adjacency = new RoomGraph(readInts(buffer, roomCount + 1),
+        readInts(buffer, adjacencyLinks));
+    RoomGraph visibility = new RoomGraph(readInts(buffer, roomCount + 1),
+        readInts(buffer, visibilityLinks));
+    int[] tour = readInts(buffer, tourLength);
+    if (tour.length == 0 || tour[0] != 0) {
+      throw new IllegalArgumentException("Invalid pet tour.");
+    }
+    for (int position : tour) {
+      if (position < 0 || position >= roomCount) {
+        throw new IllegalArgumentException("Invalid pet tour.");
+      }
+    }
+    byte[] scratch = new byte[64];
+    String worldName = readName(buffer, scratch);
+    String targetName = readName(buffer, scratch);
+    String petName = readName(buffer, scratch);
+    List<RoomRecord> rooms = new ArrayList<>(roomCount);
+    for (int i = 0, k = 0; i < roomCount; i++, k += 5) {
+      rooms.add(new RoomRecord(readName(buffer, scratch), roomInts[k], roomInts[k + 1],
+          roomInts[k + 2], roomInts[k + 3], roomInts[k + 4]));
+    }
+    List<ItemRecord> items = new ArrayList<>(itemCount);
+    for (int i = 0, k = 0; i < itemCount; i++, k += 2) {
+      items.add(new ItemRecord(readName(buffer, scratch), itemInts[k], itemInts[k + 1]));
+    }
+    WorldSpec spec = new WorldSpec(rows, cols, worldName, targetHealth, targetName, petName,
+        rooms, items);
+    return new World(spec, adjacency, visibility, tour);
+  }
+
+  private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+    for (int value : values) {
+      out.writeInt(value);
+    }
+  }
+
+  private static int[] readInts(ByteBuffer buffer, int count) {
+    int[] values = new int[count];
+    buffer.asIntBuffer().get(values);
+    buffer.position(buffer.position() + 4 * count);
+    return values;
+  }
+
+  private static void writeName(DataOutputStream out, String name) throws IOException {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readName(ByteBuffer buffer, byte[] scratch) {
+    int length = buffer.getInt();
+    byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+    buffer.get(bytes, 0, length);
+    return new String(bytes, 0, length, StandardCharsets.UTF_8);
+  }
+}
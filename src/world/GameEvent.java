@@ -0,0 +1,124 @@
+package world;
+
+/**
+ * Something that happened in a game, as the world reports it. Events only hold the ids and
+ * names involved, so creating one costs no formatting; {@link #toText()} renders the message
+ * the text game shows, and is only called by whoever wants that text.
+ */
+public sealed interface GameEvent {
+  /**
+   * Renders the event as the text game words it.
+   *
+   * @return the event's message
+   */
+  String toText();
+
+  /**
+   * A player moved into a neighboring room.
+   *
+   * @param playerId the player's id.
+   * @param playerName the player's name.
+   * @param roomName the room the player moved into.
+   */
+  record PlayerMoved(int playerId, String playerName, String roomName) implements GameEvent {
+    @Override
+    public String toText() {
+      return "Player " + playerName + " moved to room " + roomName + ".";
+    }
+  }
+
+  /**
+   * A player picked up an item from their room.
+   *
+   * @param playerId the player's id.
+   * @param playerName the player's name.
+   * @param itemName the item picked up.
+   */
+  record ItemPickedUp(int playerId, String playerName, String itemName) implements GameEvent {
+    @Override
+    public String toText() {
+      return "Item '" + itemName + "' picked up successfully by " + playerName + ".";
+    }
+  }
+
+  /**
+   * How a murder attempt ended.
+   */
+  enum Outcome {
+    /** Another player could see the attacker, so there was no attack. */
+    SEEN,
+    /** The target was hurt. */
+    HIT,
+    /** The attack did not hurt the target. */
+    NO_EFFECT
+  }
+
+  /**
+   * A player attempted to murder the target.
+   *
+   * @param playerId the attacker's id.
+   * @param playerName the attacker's name.
+   * @param outcome how the attempt ended.
+   * @param targetHealth the target's health after the attempt.
+   */
+  record AttackAttempted(int playerId, String playerName, Outcome outcome, int targetHealth)
+      implements GameEvent {
+    @Override
+    public String toText() {
+      switch (outcome) {
+        case SEEN:
+          return "Failed: Player " + playerName
+              + " was seen and cannot proceed with the attack.";
+        case HIT:
+          return "Success: Target's health reduced to " + targetHealth + ".";
+        default:
+          return "Failed: Attack had no effect on the target.";
+      }
+    }
+  }
+
+  /**
+   * The pet moved, along its tour or because a player moved it.
+   *
+   * @param playerId the id of the player who moved the pet, -1 if it moved along its tour.
+   * @param roomName the room the pet moved into.
+   */
+  record PetMoved(int playerId, String roomName) implements GameEvent {
+    @Override
+    public String toText() {
+      return playerId < 0 ? "Pet moved to room: " + roomName
+          : "Pet has been moved to " + roomName + ".";
+    }
+  }
+
+  /**
+   * The target moved to the next room of its route.
+   *
+   * @param roomName the room the target moved into.
+   */
+  record TargetMoved(String roomName) implements GameEvent {
+    @Override
+    public String toText() {
+      return "Target moved to next room: " + roomName;
+    }
+  }
+
+  /**
+   * A turn ended. Unless the turn limit was passed, the target and the pet moved on and the
+   * next player's turn began.
+   *
+   * @param turn the turn now being played.
+   * @param playerId the id of the player whose turn it is, -1 if the game ended or the
+   *        world has no players in its turn order.
+   * @param ended whether the turn limit was passed, which ends the game.
+   * @param targetMove the target's move, null if the game ended.
+   * @param petMove the pet's move, null if the game ended.
+   */
+  record TurnAdvanced(int turn, int playerId, boolean ended, TargetMoved targetMove,
+      PetMoved petMove) implements GameEvent {
+    @Override
+    public String toText() {
+      return ended ? "Maximum turns reached. Ending game." : petMove.toText();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package world;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Receives the events of a world as they happen, on the thread that changes the world.
+ */
+@FunctionalInterface
+public interface GameEventSink {
+  /**
+   * Receives an event.
+   *
+   * @param event the event.
+   */
+  void accept(GameEvent event);
+
+  /**
+   * Creates a sink that writes every event's text as a line, for a text consumer such as a
+   * log. Events are only rendered here, so worlds without such a sink format nothing.
+   *
+   * @param output where the lines are written.
+   * @return the sink
+   * @throws UncheckedIOException from {@link #accept(GameEvent)} if writing fails.
+   */
+  static GameEventSink text(Appendable output) {
+    return event -> {
+      try {
+        output.append(event.toText()).append('\n');
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    };
+  }
+}
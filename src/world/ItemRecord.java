@@ -0,0 +1,65 @@
+package world;
+
+/**
+ * An immutable description of one item line in a world file.
+ */
+public final class ItemRecord {
+  private final String itemName;
+  private final int location;
+  private final int murderValue;
+
+  /**
+   * Constructor for ItemRecord.
+   *
+   * @param itemNameInput Name of the item.
+   * @param locationInput The 0-based index of the room holding the item.
+   * @param murderValueInput The murder value of the item.
+   */
+  public ItemRecord(String itemNameInput, int locationInput, int murderValueInput) {
+    this.itemName = itemNameInput;
+    this.location = locationInput;
+    this.murderValue = murderValueInput;
+  }
+
+  /**
+   * Returns the name of the item.
+   *
+   * @return the item name
+   */
+  public String getItemName() {
+    return itemName;
+  }
+
+  /**
+   * Returns the 0-based index of the room holding the item.
+   *
+   * @return the room index
+   */
+  public int getLocation() {
+    return location;
+  }
+
+  /**
+   * Returns the murder value of the item.
+   *
+   * @return the murder value
+   */
+  public int getMurderValue() {
+    return murderValue;
+  }
+
+  /**
+   * Converts this record to the legacy String[] row of {name, location, murder value}.
+   *
+   * @return the legacy item data row
+   */
+  public String[] toItemData() {
+    return new String[] {itemName, String.valueOf(location), String.valueOf(murderValue)};
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ItemRecord[name=%s, location=%d, murderValue=%d]",
+        itemName, location, murderValue);
+  }
+}
@@ -0,0 +1,87 @@
+package world;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+/**
+ * Writes map snapshots to a PNG file on a background thread, so encoding never holds up
+ * the game. Only the newest snapshot matters: a snapshot submitted while an earlier one is
+ * still waiting replaces it, and at most one write is queued at a time. The thread is
+ * started on demand, does not keep the program running and stops after a second without
+ * work. Each world has a writer of its own, so snapshots of different worlds never replace
+ * each other.
+ *
+ * <p>Every submit returns the result of the write that carries its snapshot, or the newer
+ * snapshot that replaced it, so each caller learns whether its own map reached the file.
+ */
+final class MapImageWriter {
+  private final File file;
+  private final ThreadPoolExecutor executor;
+  private BufferedImage pending;
+  private CompletableFuture<Void> pendingResult;
+
+  /**
+   * Constructor for MapImageWriter.
+   *
+   * @param fileInput the PNG file to write, its directory is created when missing.
+   */
+  MapImageWriter(File fileInput) {
+    this.file = fileInput;
+    this.executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), task -> {
+          Thread thread = new Thread(task, "map-image-writer");
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Queues a snapshot of an image to be written. The image is copied first, so the caller
+   * may keep drawing on it.
+   *
+   * @param image the picture to save.
+   * @return completes once the snapshot, or a newer one that replaced it, is written, and
+   *         completes exceptionally with the IOException if that write fails
+   */
+  CompletableFuture<Void> submit(BufferedImage image) {
+    BufferedImage snapshot = new BufferedImage(image.getWidth(), image.getHeight(),
+        BufferedImage.TYPE_INT_RGB);
+    snapshot.setData(image.getRaster());
+    synchronized (this) {
+      if (pending == null) {
+        pendingResult = new CompletableFuture<>();
+        executor.execute(this::writeLatest);
+      }
+      pending = snapshot;
+      return pendingResult;
+    }
+  }
+
+  private void writeLatest() {
+    BufferedImage image;
+    CompletableFuture<Void> result;
+    synchronized (this) {
+      image = pending;
+      result = pendingResult;
+      pending = null;
+      pendingResult = null;
+    }
+    try {
+      File outputDir = file.getAbsoluteFile().getParentFile();
+      if (outputDir != null && !outputDir.exists()) {
+        outputDir.mkdirs();
+      }
+      ImageIO.write(image, "png", file);
+      result.complete(null);
+    } catch (IOException | RuntimeException e) {
+      result.completeExceptionally(e);
+    }
+  }
+}
@@ -0,0 +1,351 @@
+package world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A text world file opened by mapping it into memory rather than reading it through a
+ * {@link Readable}, for generated worlds that run to gigabytes. Opening makes a single pass
+ * over the bytes that notes where every record line starts and decodes only the header;
+ * room and item records are decoded from their line each time they are asked for and are
+ * not kept, so the heap holds one offset per record and whatever the caller holds on to.
+ *
+ * <p>The format and its rules are those of {@link WorldFileParser}, read as UTF-8: blank
+ * lines are skipped, names have surrounding whitespace removed, and a short item list is
+ * accepted. A malformed room or item line is reported, with its line and column, when
+ * that record is first read rather than when the file is opened.
+ */
+public final class MappedWorldFile {
+  private static final int SEGMENT_BITS = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+  private static final int HEADER_LINES = 4;
+  private static final int EOL = -1;
+
+  private final ByteBuffer[] segments;
+  private final long size;
+  private final long[] roomLines;
+  private final long[] itemLines;
+  private final WorldSpec spec;
+
+  private MappedWorldFile(ByteBuffer[] segmentsInput, long sizeInput) {
+    this.segments = segmentsInput;
+    this.size = sizeInput;
+    long[] lines = indexLines();
+    requireLine(lines, 0, "world header");
+    LineReader header = new LineReader(lines[0]);
+    final int rows = header.readInt("row count");
+    final int cols = header.readInt("column count");
+    final String worldName = header.readName(true);
+    requireLine(lines, 1, "target line");
+    LineReader target = new LineReader(lines[1]);
+    final int targetHealth = target.readInt("target health");
+    final String targetName = target.readName(false);
+    requireLine(lines, 2, "pet name");
+    final String petName = new LineReader(lines[2]).readName(false);
+    requireLine(lines, 3, "room count");
+    LineReader count = new LineReader(lines[3]);
+    int roomCount = count.readInt("room count");
+    count.expectEndOfLine("room count");
+    if (roomCount < 1) {
+      throw count.error("world must contain at least one room");
+    }
+    for (int i = 1; i <= roomCount; i++) {
+      requireLine(lines, HEADER_LINES + i - 1, "room " + i);
+    }
+    this.roomLines = Arrays.copyOfRange(lines, HEADER_LINES, HEADER_LINES + roomCount);
+    int itemCountLine = HEADER_LINES + roomCount;
+    if (itemCountLine < lines.length) {
+      LineReader items = new LineReader(lines[itemCountLine]);
+      int itemCount = items.readInt("item count");
+      items.expectEndOfLine("item count");
+      if (itemCount < 0) {
+        throw items.error("item count cannot be negative");
+      }
+      int available = (int) Math.min(itemCount, lines.length - itemCountLine - 1L);
+      this.itemLines = Arrays.copyOfRange(lines, itemCountLine + 1,
+          itemCountLine + 1 + available);
+    } else {
+      this.itemLines = new long[0];
+    }
+    this.spec = new WorldSpec(rows, cols, worldName, targetHealth, targetName, petName,
+        new RoomList(), new ItemList());
+  }
+
+  /**
+   * Maps a world file into memory and indexes its lines.
+   *
+   * @param file the text world file.
+   * @return the opened file
+   * @throws IOException if the file cannot be read.
+   * @throws IllegalArgumentException if the header is malformed or records are missing.
+   */
+  public static MappedWorldFile open(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      ByteBuffer[] segments = new ByteBuffer[(int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_BITS)];
+      for (int i = 0; i < segments.length; i++) {
+        long start = (long) i << SEGMENT_BITS;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+            Math.min(SEGMENT_SIZE, size - start));
+      }
+      return new MappedWorldFile(segments, size);
+    }
+  }
+
+  /**
+   * Returns the content of the file. The room and item lists decode a record from the
+   * mapped file on every {@link java.util.List#get(int)}; see {@link #toSpec()} for lists
+   * decoded once.
+   *
+   * @return the world content
+   */
+  public WorldSpec getSpec() {
+    return spec;
+  }
+
+  /**
+   * Decodes every room and item record once and returns the content with plain lists, which
+   * no longer depend on the mapping or on the file staying as it was. Use it wherever the
+   * records are read more than once, such as worlds built many times from one file.
+   *
+   * @return the decoded world content
+   * @throws IllegalArgumentException if a room or item line is malformed.
+   */
+  public WorldSpec toSpec() {
+    return new WorldSpec(spec.getRows(), spec.getCols(), spec.getWorldName(),
+        spec.getTargetHealth(), spec.getTargetName(), spec.getPetName(),
+        List.copyOf(spec.getRooms()), List.copyOf(spec.getItems()));
+  }
+
+  /**
+   * Finds the start of every line that is not blank, in one pass over the mapped bytes.
+   * A line ends at "\n", "\r\n" or a lone "\r", the same line breaks the parser folds.
+   */
+  private long[] indexLines() {
+    long[] lines = new long[1024];
+    int count = 0;
+    long lineStart = 0;
+    boolean content = false;
+    boolean afterReturn = false;
+    for (int s = 0; s < segments.length; s++) {
+      ByteBuffer segment = segments[s];
+      long base = (long) s << SEGMENT_BITS;
+      for (int i = 0, limit = segment.limit(); i < limit; i++) {
+        int b = segment.get(i) & 0xff;
+        if (b == '\n' && afterReturn) {
+          afterReturn = false;
+          lineStart = base + i + 1;
+          continue;
+        }
+        afterReturn = false;
+        if (b == '\n' || b == '\r') {
+          if (content) {
+            if (count == lines.length) {
+              lines = Arrays.copyOf(lines, count * 2);
+            }
+            lines[count++] = lineStart;
+            content = false;
+          }
+          lineStart = base + i + 1;
+          afterReturn = b == '\r';
+        } else if (b > ' ') {
+          content = true;
+        }
+      }
+    }
+    if (content) {
+      lines = Arrays.copyOf(lines, count + 1);
+      lines[count++] = lineStart;
+    }
+    return Arrays.copyOf(lines, count);
+  }
+
+  private void requireLine(long[] lines, int index, String what) {
+    if (index >= lines.length) {
+      throw error(size, "unexpected end of input, expected " + what);
+    }
+  }
+
+  private int byteAt(long position) {
+    return segments[(int) (position >>> SEGMENT_BITS)]
+        .get((int) (position & (SEGMENT_SIZE - 1))) & 0xff;
+  }
+
+  /**
+   * Builds an error naming the line and column of a position. Lines are counted only
+   * here, by going over the file again up to the position.
+   */
+  private IllegalArgumentException error(long position, String message) {
+    int line = 1;
+    long lineStart = 0;
+    for (long p = 0; p < position; p++) {
+      int b = byteAt(p);
+      if (b == '\n' || b == '\r' && (p + 1 >= size || byteAt(p + 1) != '\n')) {
+        line++;
+        lineStart = p + 1;
+      }
+    }
+    return new IllegalArgumentException(String.format("Line %d, column %d: %s", line,
+        Math.max(position - lineStart + 1, 1), message));
+  }
+
+  private RoomRecord decodeRoom(int index) {
+    LineReader reader = new LineReader(roomLines[index]);
+    int top = reader.readInt("room coordinate");
+    int left = reader.readInt("room coordinate");
+    int bottom = reader.readInt("room coordinate");
+    int right = reader.readInt("room coordinate");
+    String roomName = reader.readName(true);
+    if (roomName.isEmpty()) {
+      throw reader.error("Insufficient parts to parse room details.");
+    }
+    return new RoomRecord(roomName, index + 1, top, left, bottom, right);
+  }
+
+  private ItemRecord decodeItem(int index) {
+    LineReader reader = new LineReader(itemLines[index]);
+    int location = reader.readInt("item room index");
+    int murderValue = reader.readInt("item murder value");
+    return new ItemRecord(reader.readName(true), location, murderValue);
+  }
+
+  /**
+   * The rooms of the file, each decoded when it is read.
+   */
+  private final class RoomList extends AbstractList<RoomRecord> implements RandomAccess {
+    @Override
+    public RoomRecord get(int index) {
+      return decodeRoom(index);
+    }
+
+    @Override
+    public int size() {
+      return roomLines.length;
+    }
+  }
+
+  /**
+   * The items of the file, each decoded when it is read.
+   */
+  private final class ItemList extends AbstractList<ItemRecord> implements RandomAccess {
+    @Override
+    public ItemRecord get(int index) {
+      return decodeItem(index);
+    }
+
+    @Override
+    public int size() {
+      return itemLines.length;
+    }
+  }
+
+  /**
+   * Reads the fields of one line of the mapped file.
+   */
+  private final class LineReader {
+    private long position;
+
+    LineReader(long lineStart) {
+      this.position = lineStart;
+    }
+
+    private int peek() {
+      if (position >= size) {
+        return EOL;
+      }
+      int b = byteAt(position);
+      return b == '\n' || b == '\r' ? EOL : b;
+    }
+
+    private void skipSpaces() {
+      int b = peek();
+      while (b != EOL && b <= ' ') {
+        position++;
+        b = peek();
+      }
+    }
+
+    int readInt(String what) {
+      skipSpaces();
+      final long start = position;
+      int b = peek();
+      boolean negative = false;
+      if (b == '-' || b == '+') {
+        negative = b == '-';
+        position++;
+        b = peek();
+      }
+      if (b < '0' || b > '9') {
+        throw error("expected " + what);
+      }
+      long value = 0;
+      while (b >= '0' && b <= '9') {
+        value = value * 10 + (b - '0');
+        if (value > Integer.MAX_VALUE + 1L) {
+          throw MappedWorldFile.this.error(start, what + " is out of range");
+        }
+        position++;
+        b = peek();
+      }
+      if (b > ' ') {
+        throw error("expected " + what);
+      }
+      value = negative ? -value : value;
+      if (value > Integer.MAX_VALUE) {
+        throw MappedWorldFile.this.error(start, what + " is out of range");
+      }
+      return (int) value;
+    }
+
+    /**
+     * Reads the rest of the line with surrounding whitespace removed, inner whitespace
+     * runs becoming a single space when collapse is set.
+     */
+    String readName(boolean collapse) {
+      skipSpaces();
+      long start = position;
+      long end = start;
+      int length = 0;
+      while (peek() != EOL) {
+        if (peek() > ' ') {
+          end = position + 1;
+        }
+        position++;
+      }
+      byte[] bytes = new byte[(int) (end - start)];
+      boolean pendingSpace = false;
+      for (long p = start; p < end; p++) {
+        int b = byteAt(p);
+        if (b <= ' ' && collapse) {
+          pendingSpace = true;
+        } else {
+          if (pendingSpace) {
+            bytes[length++] = ' ';
+            pendingSpace = false;
+          }
+          bytes[length++] = (byte) b;
+        }
+      }
+      return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    void expectEndOfLine(String what) {
+      skipSpaces();
+      if (peek() != EOL) {
+        throw error("unexpected text after " + what);
+      }
+    }
+
+    IllegalArgumentException error(String message) {
+      return MappedWorldFile.this.error(position, message);
+    }
+  }
+}
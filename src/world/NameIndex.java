@@ -0,0 +1,49 @@
+package world;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A case-insensitive hash index from names to world objects. Names match when
+ * {@link String#equalsIgnoreCase(String)} would match them, and the first object added
+ * under a name wins, the same result a front-to-back scan of the world's lists gives.
+ *
+ * @param <T> the kind of object indexed, such as rooms or items.
+ */
+final class NameIndex<T> {
+  private final Map<String, T> entries = new HashMap<>();
+
+  /**
+   * Adds an object under its name, unless an earlier object already has that name.
+   *
+   * @param name the object's name.
+   * @param value the object.
+   */
+  void add(String name, T value) {
+    if (name != null) {
+      entries.putIfAbsent(key(name), value);
+    }
+  }
+
+  /**
+   * Looks up an object by name, ignoring case.
+   *
+   * @param name the name to find.
+   * @return the first object added under that name, or null if there is none
+   */
+  T get(String name) {
+    return name == null ? null : entries.get(key(name));
+  }
+
+  /**
+   * Folds every character the way equalsIgnoreCase compares it, upper case then lower case,
+   * so equal keys mean equalsIgnoreCase names.
+   */
+  private static String key(String name) {
+    char[] folded = new char[name.length()];
+    for (int i = 0; i < folded.length; i++) {
+      folded[i] = Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+    }
+    return new String(folded);
+  }
+}
@@ -0,0 +1,369 @@
+package world;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A one-time index over which map cells are covered by rooms, used for line-of-sight checks
+ * between rooms. A row is blocked between two columns when some room covers a cell of that
+ * row between them, so two rooms fail to see each other exactly when a row (or column) they
+ * both span has an empty run covering their whole overlap. For each row and each column the
+ * maximal empty runs are stored, and a merge-sort tree over those runs answers "does any
+ * line in this range have an empty run covering this interval" in O(log^2 n) without
+ * allocating. The index is built on the first query, so a world whose room links were
+ * computed before, such as a compiled one, never pays for it.
+ */
+final class OccupancyMap {
+  private final List<RoomRecord> rooms;
+  private volatile Axis[] axes;
+
+  /**
+   * Prepares the index over the given rooms.
+   *
+   * @param roomsInput the rooms of the map.
+   */
+  OccupancyMap(List<RoomRecord> roomsInput) {
+    this.rooms = roomsInput;
+  }
+
+  /**
+   * Returns the row and column axes, building them on first use. Queries may come from
+   * several linking threads at once, so the build is done once under a lock.
+   */
+  private Axis[] axes() {
+    Axis[] built = axes;
+    if (built == null) {
+      synchronized (this) {
+        built = axes;
+        if (built == null) {
+          built = build(rooms);
+          axes = built;
+        }
+      }
+    }
+    return built;
+  }
+
+  private static Axis[] build(List<RoomRecord> rooms) {
+    int n = rooms.size();
+    int[] top = new int[n];
+    int[] left = new int[n];
+    int[] bottom = new int[n];
+    int[] right = new int[n];
+    for (int i = 0; i < n; i++) {
+      RoomRecord room = rooms.get(i);
+      top[i] = room.getTop();
+      left[i] = room.getLeft();
+      bottom[i] = room.getBottom();
+      right[i] = room.getRight();
+    }
+    return new Axis[] {new Axis(top, bottom, left, right), new Axis(left, right, top, bottom)};
+  }
+
+  /**
+   * Checks whether some row in [rowFrom, rowTo] has no room cell in columns [colFrom, colTo].
+   *
+   * @param rowFrom first row to check.
+   * @param rowTo last row to check.
+   * @param colFrom first column of the interval.
+   * @param colTo last column of the interval.
+   * @return true if at least one of the rows is empty over the whole interval.
+   */
+  boolean hasEmptyRow(int rowFrom, int rowTo, int colFrom, int colTo) {
+    return axes()[0].hasEmptySpan(rowFrom, rowTo, colFrom, colTo);
+  }
+
+  /**
+   * Checks whether some column in [colFrom, colTo] has no room cell in rows [rowFrom, rowTo].
+   *
+   * @param colFrom first column to check.
+   * @param colTo last column to check.
+   * @param rowFrom first row of the interval.
+   * @param rowTo last row of the interval.
+   * @return true if at least one of the columns is empty over the whole interval.
+   */
+  boolean hasEmptyColumn(int colFrom, int colTo, int rowFrom, int rowTo) {
+    return axes()[1].hasEmptySpan(colFrom, colTo, rowFrom, rowTo);
+  }
+
+  /**
+   * Finds the nearest row before the given one that has no room cell in [colFrom, colTo].
+   * Rooms whose columns fit in that interval can only see rooms in the rows between the
+   * results of this method and {@link #emptyRowAfter(int, int, int)}.
+   *
+   * @param row the row to search back from, exclusive.
+   * @param colFrom first column of the interval.
+   * @param colTo last column of the interval.
+   * @return the nearest empty row before row.
+   */
+  long emptyRowBefore(int row, int colFrom, int colTo) {
+    return axes()[0].emptyBefore(row, colFrom, colTo);
+  }
+
+  /**
+   * Finds the nearest row after the given one that has no room cell in [colFrom, colTo].
+   *
+   * @param row the row to search forward from, exclusive.
+   * @param colFrom first column of the interval.
+   * @param colTo last column of the interval.
+   * @return the nearest empty row after row.
+   */
+  long emptyRowAfter(int row, int colFrom, int colTo) {
+    return axes()[0].emptyAfter(row, colFrom, colTo);
+  }
+
+  /**
+   * Finds the nearest column before the given one that has no room cell in [rowFrom, rowTo].
+   *
+   * @param col the column to search back from, exclusive.
+   * @param rowFrom first row of the interval.
+   * @param rowTo last row of the interval.
+   * @return the nearest empty column before col.
+   */
+  long emptyColumnBefore(int col, int rowFrom, int rowTo) {
+    return axes()[1].emptyBefore(col, rowFrom, rowTo);
+  }
+
+  /**
+   * Finds the nearest column after the given one that has no room cell in [rowFrom, rowTo].
+   *
+   * @param col the column to search forward from, exclusive.
+   * @param rowFrom first row of the interval.
+   * @param rowTo last row of the interval.
+   * @return the nearest empty column after col.
+   */
+  long emptyColumnAfter(int col, int rowFrom, int rowTo) {
+    return axes()[1].emptyAfter(col, rowFrom, rowTo);
+  }
+
+  /**
+   * The empty runs of every line along one axis. Runs are laid out line after line, so the
+   * runs of a range of lines form one contiguous slice, and each level of the tree keeps
+   * blocks of 2^k runs sorted by start with a running maximum of their ends.
+   */
+  private static final class Axis {
+    private static final int LEAF_LEVEL = 4;
+
+    private final int minLine;
+    private final int maxLine;
+    private final int[] lineStart;
+    private final int[] runFrom;
+    private final int[] runTo;
+    private final int[][] sortedFrom;
+    private final int[][] maxTo;
+
+    Axis(int[] lineLo, int[] lineHi, int[] spanLo, int[] spanHi) {
+      int n = lineLo.length;
+      int lo = Integer.MAX_VALUE;
+      int hi = Integer.MIN_VALUE;
+      for (int i = 0; i < n; i++) {
+        lo = Math.min(lo, lineLo[i]);
+        hi = Math.max(hi, lineHi[i]);
+      }
+      this.minLine = lo;
+      this.maxLine = hi;
+      int lines = n == 0 ? 0 : Math.toIntExact((long) hi - lo + 1);
+
+      int[] spanStart = new int[lines + 1];
+      for (int i = 0; i < n; i++) {
+        for (int line = lineLo[i]; line <= lineHi[i]; line++) {
+          spanStart[line - lo + 1]++;
+        }
+      }
+      for (int i = 0; i < lines; i++) {
+        spanStart[i + 1] += spanStart[i];
+      }
+      long[] spans = new long[spanStart[lines]];
+      int[] fill = Arrays.copyOf(spanStart, lines);
+      for (int i = 0; i < n; i++) {
+        long span = ((long) spanLo[i] << 32) | (spanHi[i] & 0xffffffffL);
+        for (int line = lineLo[i]; line <= lineHi[i]; line++) {
+          spans[fill[line - lo]++] = span;
+        }
+      }
+
+      this.lineStart = new int[lines + 1];
+      int[] from = new int[spans.length + lines + 1];
+      int[] to = new int[from.length];
+      int count = 0;
+      for (int line = 0; line < lines; line++) {
+        Arrays.sort(spans, spanStart[line], spanStart[line + 1]);
+        long free = Integer.MIN_VALUE;
+        for (int k = spanStart[line]; k < spanStart[line + 1]; k++) {
+          long start = spans[k] >> 32;
+          long end = (int) spans[k];
+          if (start > free) {
+            from[count] = (int) free;
+            to[count++] = (int) (start - 1);
+          }
+          free = Math.max(free, end + 1);
+        }
+        if (free <= Integer.MAX_VALUE) {
+          from[count] = (int) free;
+          to[count++] = Integer.MAX_VALUE;
+        }
+        lineStart[line + 1] = count;
+      }
+      this.runFrom = Arrays.copyOf(from, count);
+      this.runTo = Arrays.copyOf(to, count);
+
+      int levels = 0;
+      while ((1L << levels) < count) {
+        levels++;
+      }
+      this.sortedFrom = new int[levels + 1][];
+      this.maxTo = new int[levels + 1][];
+      int[] order = null;
+      for (int level = LEAF_LEVEL; level <= levels; level++) {
+        order = buildLevel(level, count, order);
+      }
+    }
+
+    /**
+     * Sorts every block of 2^level runs by start, merging the blocks of the level below,
+     * and records the running maximum of run ends inside each block.
+     */
+    private int[] buildLevel(int level, int count, int[] prevOrder) {
+      int size = 1 << level;
+      int[] order = new int[count];
+      int[] levelFrom = new int[count];
+      int[] levelMax = new int[count];
+      for (int start = 0; start < count; start += size) {
+        int end = Math.min(start + size, count);
+        if (prevOrder == null) {
+          for (int k = start; k < end; k++) {
+            order[k] = k;
+          }
+          sortBlock(order, start, end);
+        } else {
+          int mid = Math.min(start + size / 2, end);
+          int a = start;
+          int b = mid;
+          for (int k = start; k < end; k++) {
+            if (b >= end || (a < mid && runFrom[prevOrder[a]] <= runFrom[prevOrder[b]])) {
+              order[k] = prevOrder[a++];
+            } else {
+              order[k] = prevOrder[b++];
+            }
+          }
+        }
+        int best = Integer.MIN_VALUE;
+        for (int k = start; k < end; k++) {
+          levelFrom[k] = runFrom[order[k]];
+          best = Math.max(best, runTo[order[k]]);
+          levelMax[k] = best;
+        }
+      }
+      sortedFrom[level] = levelFrom;
+      maxTo[level] = levelMax;
+      return order;
+    }
+
+    private void sortBlock(int[] order, int start, int end) {
+      for (int i = start + 1; i < end; i++) {
+        int value = order[i];
+        int j = i - 1;
+        while (j >= start && runFrom[order[j]] > runFrom[value]) {
+          order[j + 1] = order[j];
+          j--;
+        }
+        order[j + 1] = value;
+      }
+    }
+
+    boolean hasEmptySpan(int lineFrom, int lineTo, int from, int to) {
+      if (lineFrom > lineTo) {
+        return false;
+      }
+      if (lineStart.length == 1 || lineFrom < minLine || lineTo > maxLine) {
+        return true;
+      }
+      int p = lineStart[lineFrom - minLine];
+      int q = lineStart[lineTo - minLine + 1];
+      for (int level = 0; p < q; level++) {
+        int size = 1 << level;
+        if ((p & size) != 0) {
+          if (blockCovers(level, p, from, to)) {
+            return true;
+          }
+          p += size;
+        }
+        if (p < q && (q & size) != 0) {
+          q -= size;
+          if (blockCovers(level, q, from, to)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    long emptyBefore(int line, int from, int to) {
+      long end = (long) line - 1;
+      if (lineStart.length == 1 || end < minLine || end > maxLine) {
+        return end;
+      }
+      if (!hasEmptySpan(minLine, (int) end, from, to)) {
+        return (long) minLine - 1;
+      }
+      long low = minLine;
+      long high = end;
+      while (low < high) {
+        long mid = (low + high + 1) >> 1;
+        if (hasEmptySpan((int) mid, (int) end, from, to)) {
+          low = mid;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return low;
+    }
+
+    long emptyAfter(int line, int from, int to) {
+      long start = (long) line + 1;
+      if (lineStart.length == 1 || start < minLine || start > maxLine) {
+        return start;
+      }
+      if (!hasEmptySpan((int) start, maxLine, from, to)) {
+        return (long) maxLine + 1;
+      }
+      long low = start;
+      long high = maxLine;
+      while (low < high) {
+        long mid = (low + high) >> 1;
+        if (hasEmptySpan((int) start, (int) mid, from, to)) {
+          high = mid;
+        } else {
+          low = mid + 1;
+        }
+      }
+      return low;
+    }
+
+    private boolean blockCovers(int level, int start, int from, int to) {
+      int end = start + (1 << level);
+      if (level < LEAF_LEVEL) {
+        for (int k = start; k < end; k++) {
+          if (runFrom[k] <= from && runTo[k] >= to) {
+            return true;
+          }
+        }
+        return false;
+      }
+      int[] levelFrom = sortedFrom[level];
+      int low = start;
+      int high = end - 1;
+      int last = -1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        if (levelFrom[mid] <= from) {
+          last = mid;
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      return last >= 0 && maxTo[level][last] >= to;
+    }
+  }
+}
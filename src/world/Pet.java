@@ -10,7 +10,11 @@ import java.util.Stack;
 public class Pet implements CharacterPet {
   private String name;
   private Block currentRoom;
+  private RoomOccupants occupants;
   private Stack<Block> path;
+  private int[] tour;
+  private Block[] tourRooms;
+  private int tourIndex;
 
   /**
    * Constructs a new Pet with a name and an initial room.
@@ -40,6 +44,21 @@ public class Pet implements CharacterPet {
       throw new IllegalArgumentException("Room cannot be null.");
     }
     this.currentRoom = room;
+    if (occupants != null) {
+      occupants.petMoved(room);
+    }
+  }
+
+  /**
+   * Starts reporting this pet's location and moves to a world's occupancy index.
+   * 
+   * @param occupantsInput the index to report to, or null to stop reporting.
+   */
+  void trackOccupancy(RoomOccupants occupantsInput) {
+    this.occupants = occupantsInput;
+    if (occupants != null) {
+      occupants.petMoved(currentRoom);
+    }
   }
 
   @Override
@@ -50,6 +69,8 @@ public class Pet implements CharacterPet {
   
   @Override
   public void setPath(Stack<Block> pathInput) {
+    this.tour = null;
+    this.tourRooms = null;
     this.path = new Stack<>();
     if (pathInput != null) {
       for (int i = pathInput.size() - 1; i >= 0; i--) {
@@ -58,8 +79,57 @@ public class Pet implements CharacterPet {
     }
   }
 
+  /**
+   * Returns the remaining path. A tour set through {@link #setTour(int[], Block[])} is
+   * turned into a stack here, and from then on the stack is the pet's path.
+   * 
+   * @return the remaining path, next room on top
+   */
   @Override
   public Stack<Block> getPath() {
+    if (tour != null) {
+      Stack<Block> remaining = new Stack<>();
+      for (int i = tour.length - 1; i >= tourIndex; i--) {
+        remaining.push(tourRooms[tour[i]]);
+      }
+      this.path = remaining;
+      this.tour = null;
+      this.tourRooms = null;
+    }
     return path;
   }
+
+  /**
+   * Sets the path as a tour of room positions, followed by an index instead of popping a
+   * stack. The arrays are shared and never modified.
+   * 
+   * @param tourInput room positions in visiting order.
+   * @param roomsInput the room at each position.
+   */
+  void setTour(int[] tourInput, Block[] roomsInput) {
+    this.tour = tourInput;
+    this.tourRooms = roomsInput;
+    this.tourIndex = 0;
+  }
+
+  /**
+   * Checks whether the path has rooms left.
+   * 
+   * @return true if {@link #nextRoom()} can be called
+   */
+  boolean hasNextRoom() {
+    return tour != null ? tourIndex < tour.length : !path.isEmpty();
+  }
+
+  /**
+   * Takes the next room off the path.
+   * 
+   * @return the next room to move to
+   */
+  Block nextRoom() {
+    if (tour != null) {
+      return tourRooms[tour[tourIndex++]];
+    }
+    return path.pop();
+  }
 }
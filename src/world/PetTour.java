@@ -0,0 +1,122 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes the pet's depth-first tour of the rooms. The tour lists every room the pet
+ * steps into, in order: each newly reached room, and the room it came from again whenever
+ * a branch is exhausted, until the rooms reachable from the start have all been visited.
+ * The search runs on an explicit stack, so long corridors cannot overflow the call stack.
+ */
+final class PetTour {
+  private PetTour() {
+  }
+
+  /**
+   * Computes the tour over a room graph.
+   *
+   * @param graph the adjacency graph.
+   * @param start the start room position.
+   * @param roomCount the number of visited rooms at which the tour ends early.
+   * @return the room positions of the tour, starting with start
+   */
+  static int[] of(RoomGraph graph, int start, int roomCount) {
+    int n = graph.getRoomCount();
+    boolean[] visited = new boolean[n];
+    int[] frameRoom = new int[n];
+    int[] frameNext = new int[n];
+    int[] tour = new int[Math.max(1, 2 * n - 1)];
+    int length = 0;
+    int depth = 0;
+    visited[start] = true;
+    int count = 1;
+    tour[length++] = start;
+    if (count == roomCount) {
+      return Arrays.copyOf(tour, length);
+    }
+    frameRoom[depth] = start;
+    frameNext[depth++] = 0;
+    while (depth > 0) {
+      int room = frameRoom[depth - 1];
+      int next = frameNext[depth - 1];
+      int degree = graph.degree(room);
+      while (next < degree && visited[graph.neighbor(room, next)]) {
+        next++;
+      }
+      if (next == degree) {
+        depth--;
+        if (depth > 0) {
+          tour[length++] = frameRoom[depth - 1];
+        }
+        continue;
+      }
+      frameNext[depth - 1] = next + 1;
+      int child = graph.neighbor(room, next);
+      visited[child] = true;
+      count++;
+      tour[length++] = child;
+      if (count == roomCount) {
+        break;
+      }
+      frameRoom[depth] = child;
+      frameNext[depth++] = 0;
+    }
+    return Arrays.copyOf(tour, length);
+  }
+
+  /**
+   * Computes the tour by following each room's own neighbor list, for rooms that are not
+   * part of a room graph. Rooms are told apart by id, as the world always has.
+   *
+   * @param start the start room.
+   * @param roomCount the number of visited rooms at which the tour ends early.
+   * @return the rooms of the tour, starting with start
+   */
+  static List<Block> of(Block start, int roomCount) {
+    List<Block> tour = new ArrayList<>();
+    Set<Integer> visited = new HashSet<>();
+    List<Block> frameRoom = new ArrayList<>();
+    List<List<Block>> frameNeighbors = new ArrayList<>();
+    List<Integer> frameNext = new ArrayList<>();
+    visited.add(start.getRoomId());
+    tour.add(start);
+    if (visited.size() == roomCount) {
+      return tour;
+    }
+    frameRoom.add(start);
+    frameNeighbors.add(start.getNeighbor());
+    frameNext.add(0);
+    while (!frameRoom.isEmpty()) {
+      int top = frameRoom.size() - 1;
+      List<Block> neighbors = frameNeighbors.get(top);
+      int next = frameNext.get(top);
+      while (next < neighbors.size() && visited.contains(neighbors.get(next).getRoomId())) {
+        next++;
+      }
+      if (next == neighbors.size()) {
+        frameRoom.remove(top);
+        frameNeighbors.remove(top);
+        frameNext.remove(top);
+        if (top > 0) {
+          tour.add(frameRoom.get(top - 1));
+        }
+        continue;
+      }
+      frameNext.set(top, next + 1);
+      Block child = neighbors.get(next);
+      visited.add(child.getRoomId());
+      tour.add(child);
+      if (visited.size() == roomCount) {
+        break;
+      }
+      frameRoom.add(child);
+      frameNeighbors.add(child.getNeighbor());
+      frameNext.add(0);
+    }
+    return tour;
+  }
+}
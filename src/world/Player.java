@@ -17,6 +17,7 @@ public class Player implements CharacterPlayer {
   private List<Gadget> items;
   private int itemLimit;
   private int murderPoint = 1;
+  private RoomOccupants occupants;
 
   /**
    * Constructor for the Player class.
@@ -175,7 +176,7 @@ public class Player implements CharacterPlayer {
         .append("Current Room Items: ").append(playerCurrentRoom.listItems()).append("\n");
 
     List<Block> visibleAndNeighbor = playerCurrentRoom.getVisibleFrom().stream()
-        .filter(currentRoom.getNeighbor()::contains)
+        .filter(currentRoom::isAdjacent)
         .collect(Collectors.toList());
 
     if (!visibleAndNeighbor.isEmpty()) {
@@ -188,7 +189,7 @@ public class Player implements CharacterPlayer {
     }
 
     List<Block> visibleNotNeighbor = currentRoom.getVisibleFrom().stream()
-        .filter(room -> !currentRoom.getNeighbor().contains(room))
+        .filter(room -> !currentRoom.isAdjacent(room))
         .collect(Collectors.toList());
 
     if (!visibleNotNeighbor.isEmpty()) {
@@ -241,7 +242,26 @@ public class Player implements CharacterPlayer {
     if (!currentRoom.isAdjacent(targetRoom)) {
       throw new IllegalArgumentException("Cannot move to a non-neighboring room.");
     }
+    Block previousRoom = this.currentRoom;
     this.currentRoom = targetRoom;
+    if (occupants != null) {
+      occupants.playerMoved(this, previousRoom, targetRoom);
+    }
+  }
+
+  /**
+   * Starts reporting this player's location and moves to a world's occupancy index.
+   * 
+   * @param occupantsInput the index to report to, or null to stop reporting.
+   */
+  void trackOccupancy(RoomOccupants occupantsInput) {
+    if (occupants != null) {
+      occupants.playerMoved(this, currentRoom, null);
+    }
+    this.occupants = occupantsInput;
+    if (occupants != null) {
+      occupants.playerMoved(this, null, currentRoom);
+    }
   }
   
   /**
@@ -279,13 +299,7 @@ public class Player implements CharacterPlayer {
     if (this.currentRoom.equals(otherPlayerLocation)) {
       return true;
     }
-    List<Block> neighbors = this.currentRoom.getNeighbor();
-    for (Block neighbor : neighbors) {
-      if (neighbor.equals(otherPlayerLocation)) {
-        return true;
-      }
-    }
-    return false; 
+    return this.currentRoom.isAdjacent(otherPlayerLocation);
   }
 
 
@@ -1,5 +1,7 @@
 package world;
 
+import java.awt.Dimension;
+import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.util.List;
@@ -195,6 +197,26 @@ public interface ReadOnlyWorld {
    */
   int getPlayerRoomId(int playerId);
 
+  /**
+   * Retrieves the room the target will be in at a coming turn, assuming it keeps walking
+   * its route and is not moved by hand.
+   *
+   * @param turn The turn, no earlier than the current turn.
+   * @return The room ID the target will be in at that turn.
+   * @throws IllegalArgumentException If the turn has passed or there is no target.
+   */
+  int getTargetRoomIdAtTurn(int turn);
+
+  /**
+   * Retrieves the next turn at which the target walks into a room, assuming it keeps
+   * walking its route and is not moved by hand.
+   *
+   * @param roomId The room ID.
+   * @return The turn, after the current one, or -1 if the target never enters the room.
+   * @throws IllegalArgumentException If there is no target.
+   */
+  int getNextTargetVisitTurn(int roomId);
+
   /**
    * Retrieves detailed information about the current target in the game.
    * @return Information about the target, otherwise a notification that no target is set.
@@ -215,6 +237,14 @@ public interface ReadOnlyWorld {
    * @return A BufferedImage.
    */
   BufferedImage drawWorld();
+
+  /**
+   * Saves the current map to 'res/world.png' and waits until it is written. The map is
+   * encoded on a background thread; when several saves are requested before the file is
+   * written, only the latest map is written and every one of them waits for it.
+   * @throws IllegalArgumentException If the map could not be written.
+   */
+  void saveWorldMap();
   
 
   /**
@@ -240,6 +270,30 @@ public interface ReadOnlyWorld {
    *        is the corresponding rectangle representing room coordinates.
    */
   Map<Integer, Rectangle> getRoomCoordinates();
+
+  /**
+   * Gets the size of the world map in pixels, at the scale drawWorld uses.
+   * 
+   * @return the width and height of the whole map.
+   */
+  Dimension getMapSize();
+
+  /**
+   * Paints the rooms found in one area of the map, so that a view can show a large map
+   * piece by piece instead of as one image.
+   * 
+   * @param g where to paint, in map pixel coordinates.
+   * @param area the area of the map to paint.
+   */
+  void paintMapRooms(Graphics g, Rectangle area);
+
+  /**
+   * Paints the target and the players found in one area of the map, over the rooms.
+   * 
+   * @param g where to paint, in map pixel coordinates.
+   * @param area the area of the map to paint.
+   */
+  void paintMapTokens(Graphics g, Rectangle area);
   
   /**
    * Gets whether the GUI for the game is currently running.
@@ -247,4 +301,13 @@ public interface ReadOnlyWorld {
    * @return true if the GUI is running, otherwise false.
    */
   boolean getIsRunningGui();
+
+  /**
+   * Gets the world as of the last committed turn. Once the world publishes snapshots,
+   * this can be called from any thread without locks; before that a snapshot is taken on
+   * each call, which is only safe on the thread changing the world.
+   * 
+   * @return an immutable snapshot of the world.
+   */
+  WorldSnapshot getSnapshot();
 }
@@ -1,11 +1,8 @@
 package world;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * Represents a room in the game world, implementing the Block interface to manage
@@ -18,7 +15,10 @@ public class Room implements Block {
   private List<Block> visibleFrom;
   private List<Gadget> items;
   private final int[] locationRoom;  
-  private List<String[]> allRoomData;
+  private OccupancyMap occupancy;
+  private RoomMatrix adjacency;
+  private RoomMatrix visibility;
+  private int position = -1;
 
   /**
    * Constructor for Room.
@@ -30,13 +30,28 @@ public class Room implements Block {
    */
   public Room(String roomNameInput, int roomIdInput, int[] locationRoomInput,
       List<String[]> allRoomDataInput) {
+    this(roomNameInput, roomIdInput, locationRoomInput);
+    this.occupancy = new OccupancyMap(RoomRecord.fromRoomData(allRoomDataInput));
+  }
+
+  /**
+   * Constructor for Room from a parsed room record.
+   * 
+   * @param record the parsed room line.
+   * @param occupancyInput occupancy of the map shared by all rooms of the world
+   */
+  Room(RoomRecord record, OccupancyMap occupancyInput) {
+    this(record.getRoomName(), record.getRoomId(), record.getCoordinates());
+    this.occupancy = occupancyInput;
+  }
+
+  private Room(String roomNameInput, int roomIdInput, int[] locationRoomInput) {
     this.roomName = roomNameInput;
     this.roomId  = roomIdInput;
     this.locationRoom = locationRoomInput;
     this.visibleFrom = new ArrayList<>();
     this.items = new ArrayList<>(); 
     this.neighbors = new ArrayList<>();
-    this.allRoomData = allRoomDataInput;
   }
 
   /**
@@ -83,7 +98,7 @@ public class Room implements Block {
    * @param room the room to check against this room
    * @return true if the rooms are adjacent, false otherwise
    */
-  private boolean areNeighbors(Room room) {
+  boolean areNeighbors(Room room) {
     if (this == room) {
       return false;  
     }
@@ -96,11 +111,13 @@ public class Room implements Block {
   
   /**
    * Checks if this room is visible from another room based on direct line of sight.
+   * Every row (or column) between the two rooms must have a room cell inside their
+   * shared columns (or rows); the occupancy map answers that without scanning rooms.
    * 
    * @param otherRoom the room to check visibility from
    * @return true if this room is visible from the other room, false otherwise
    */
-  private boolean canSeeFrom(Room otherRoom) {
+  boolean canSeeFrom(Room otherRoom) {
     boolean horizontalAlignment = (this.locationRoom[1] <= otherRoom.locationRoom[3] 
         && this.locationRoom[3] >= otherRoom.locationRoom[1]) 
         || (otherRoom.locationRoom[1] <= this.locationRoom[3] 
@@ -110,48 +127,23 @@ public class Room implements Block {
         || (otherRoom.locationRoom[0] <= this.locationRoom[2] 
         && otherRoom.locationRoom[2] >= this.locationRoom[0]);
 
-    Set<Integer> occupiedX = new HashSet<>();
-    Set<Integer> occupiedY = new HashSet<>();
-
     if (horizontalAlignment) {
       int startY = Math.max(this.locationRoom[1], otherRoom.locationRoom[1]);
       int endY = Math.min(this.locationRoom[3], otherRoom.locationRoom[3]);
-      for (String[] roomDataEntry : allRoomData) {
-        int[] coords = Arrays.stream(roomDataEntry[1].replace("[", "").replace("]", "").split(", "))
-            .mapToInt(Integer::parseInt).toArray();
-        if (coords[1] <= endY && coords[3] >= startY) {
-          for (int x = coords[0]; x <= coords[2]; x++) {
-            occupiedX.add(x);
-          }
-        }
-      }
       int startX = Math.min(this.locationRoom[0], otherRoom.locationRoom[0]);
       int endX = Math.max(this.locationRoom[2], otherRoom.locationRoom[2]);
-      for (int x = startX; x <= endX; x++) {
-        if (!occupiedX.contains(x)) {
-          return false; 
-        }
+      if (occupancy.hasEmptyRow(startX, endX, startY, endY)) {
+        return false; 
       }
     }
 
     if (verticalAlignment) {
       int startX = Math.max(this.locationRoom[0], otherRoom.locationRoom[0]);
       int endX = Math.min(this.locationRoom[2], otherRoom.locationRoom[2]);
-      for (String[] roomDataEntry : allRoomData) {
-        int[] coords = Arrays.stream(roomDataEntry[1].replace("[", "").replace("]", "")
-            .split(", ")).mapToInt(Integer::parseInt).toArray();
-        if (coords[0] <= endX && coords[2] >= startX) {
-          for (int y = coords[1]; y <= coords[3]; y++) {
-            occupiedY.add(y);
-          }
-        }
-      }
       int startY = Math.min(this.locationRoom[1], otherRoom.locationRoom[1]);
       int endY = Math.max(this.locationRoom[3], otherRoom.locationRoom[3]);
-      for (int y = startY; y <= endY; y++) {
-        if (!occupiedY.contains(y)) {
-          return false; 
-        }
+      if (occupancy.hasEmptyColumn(startY, endY, startX, endX)) {
+        return false; 
       }
     }
 
@@ -160,14 +152,52 @@ public class Room implements Block {
 
   @Override
   public boolean isAdjacent(Block room) {
+    if (adjacency != null && room instanceof Room && ((Room) room).adjacency == adjacency) {
+      return adjacency.get(position, ((Room) room).position);
+    }
     return neighbors.contains(room);
   }
 
   @Override
   public boolean isVisibleFrom(Block room) {
+    if (visibility != null && room instanceof Room && ((Room) room).visibility == visibility) {
+      return visibility.get(position, ((Room) room).position);
+    }
     return visibleFrom.contains(room);
   }
 
+  /**
+   * Attaches the world's room matrices, so adjacency and visibility checks against other
+   * rooms of the same world are answered from them instead of scanning lists.
+   * 
+   * @param adjacencyInput the neighbor matrix of the world.
+   * @param visibilityInput the visible-from matrix of the world.
+   * @param positionInput this room's position in both matrices.
+   */
+  void attachGraphs(RoomMatrix adjacencyInput, RoomMatrix visibilityInput, int positionInput) {
+    this.adjacency = adjacencyInput;
+    this.visibility = visibilityInput;
+    this.position = positionInput;
+  }
+
+  /**
+   * Returns the neighbor matrix this room is attached to.
+   * 
+   * @return the matrix, or null once the lists were changed by hand
+   */
+  RoomMatrix getAdjacency() {
+    return adjacency;
+  }
+
+  /**
+   * Returns this room's position in the attached graphs.
+   * 
+   * @return the position, or -1 if the room was never attached
+   */
+  int getPosition() {
+    return position;
+  }
+
   @Override
   public List<Gadget> getItem() {
     return new ArrayList<>(items);
@@ -179,17 +209,50 @@ public class Room implements Block {
     if (room != null && !neighbors.contains(room) && this.areNeighbors(room)) {
       neighbors.add(room);
       room.neighbors.add(this); 
+      if (this.adjacency != null) {
+        this.adjacency.markEdited();
+      }
+      if (room.adjacency != null) {
+        room.adjacency.markEdited();
+      }
+      this.adjacency = null;
+      room.adjacency = null;
     }
   }
 
  
+  /**
+   * Appends a room already known to satisfy {@link #areNeighbors(Room)} to this room's
+   * neighbors only. Used by the world when it builds all neighbor lists in one pass.
+   * 
+   * @param room the neighboring room
+   */
+  void linkNeighbor(Room room) {
+    neighbors.add(room);
+  }
+
   @Override
   public void addVisibleFromRoom(Room room) {
     if (room != null && !visibleFrom.contains(room) && this.canSeeFrom(room)) {
       visibleFrom.add(room);
+      if (this.visibility != null) {
+        this.visibility.markEdited();
+      }
+      this.visibility = null;
     }
   }
 
+  /**
+   * Appends a room that already passed {@link #canSeeFrom(Room)} to this room's
+   * visible-from list, without the duplicate scan of {@link #addVisibleFromRoom(Room)}.
+   * Used by the world when it links every pair of rooms exactly once.
+   * 
+   * @param room the visible room
+   */
+  void linkVisibleFrom(Room room) {
+    visibleFrom.add(room);
+  }
+
   @Override
   public void addItem(Gadget item) {
     if (item != null && !items.contains(item)) {
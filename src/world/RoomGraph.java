@@ -0,0 +1,145 @@
+package world;
+
+import java.util.Arrays;
+
+/**
+ * An immutable room graph in compressed sparse row form, built once when the world is
+ * loaded. Rooms are identified by their position in the world's room list (room id minus
+ * one for a loaded world); the partners of room r are targets[offsets[r]] up to
+ * targets[offsets[r + 1]], in ascending order. The world keeps one graph for adjacency and
+ * one for visibility, and every query here works on ints without allocating.
+ */
+public final class RoomGraph {
+  private final int[] offsets;
+  private final int[] targets;
+
+  /**
+   * Builds the graph from per-room link lists.
+   *
+   * @param links for each room position, its partner positions in ascending order.
+   */
+  RoomGraph(int[][] links) {
+    this.offsets = new int[links.length + 1];
+    for (int i = 0; i < links.length; i++) {
+      offsets[i + 1] = offsets[i] + links[i].length;
+    }
+    this.targets = new int[offsets[links.length]];
+    for (int i = 0; i < links.length; i++) {
+      System.arraycopy(links[i], 0, targets, offsets[i], links[i].length);
+    }
+  }
+
+  /**
+   * Wraps a graph that is already in compressed sparse row form, such as one read back
+   * from a compiled world file. The arrays are checked and then used as they are.
+   *
+   * @param offsetsInput for each room position, where its partners start in targets, with
+   *        the total link count as the last entry.
+   * @param targetsInput the partner positions of all rooms, ascending within each room.
+   * @throws IllegalArgumentException if the arrays do not form a valid graph.
+   */
+  RoomGraph(int[] offsetsInput, int[] targetsInput) {
+    int rooms = offsetsInput.length - 1;
+    if (rooms < 0 || offsetsInput[0] != 0 || offsetsInput[rooms] != targetsInput.length) {
+      throw new IllegalArgumentException("Invalid room graph offsets.");
+    }
+    for (int room = 0; room < rooms; room++) {
+      if (offsetsInput[room] > offsetsInput[room + 1]) {
+        throw new IllegalArgumentException("Invalid room graph offsets.");
+      }
+      for (int k = offsetsInput[room]; k < offsetsInput[room + 1]; k++) {
+        int other = targetsInput[k];
+        if (other < 0 || other >= rooms || other == room
+            || (k > offsetsInput[room] && other <= targetsInput[k - 1])) {
+          throw new IllegalArgumentException("Invalid link from room position " + room + ".");
+        }
+      }
+    }
+    this.offsets = offsetsInput;
+    this.targets = targetsInput;
+  }
+
+  /**
+   * Returns the offsets array, shared rather than copied, for writing the graph out.
+   *
+   * @return the offsets, which must not be changed
+   */
+  int[] offsets() {
+    return offsets;
+  }
+
+  /**
+   * Returns the targets array, shared rather than copied, for writing the graph out.
+   *
+   * @return the targets, which must not be changed
+   */
+  int[] targets() {
+    return targets;
+  }
+
+  /**
+   * Returns the number of rooms in the graph.
+   *
+   * @return the room count
+   */
+  public int getRoomCount() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the total number of directed links in the graph.
+   *
+   * @return the link count
+   */
+  public int getLinkCount() {
+    return targets.length;
+  }
+
+  /**
+   * Returns the number of partners of a room.
+   *
+   * @param room the room position.
+   * @return the number of rooms linked from it
+   * @throws IllegalArgumentException if the position is out of range.
+   */
+  public int degree(int room) {
+    checkRoom(room);
+    return offsets[room + 1] - offsets[room];
+  }
+
+  /**
+   * Returns the index-th partner of a room, in ascending position order.
+   *
+   * @param room the room position.
+   * @param index the partner index, from 0 to degree(room) - 1.
+   * @return the partner position
+   * @throws IllegalArgumentException if either argument is out of range.
+   */
+  public int neighbor(int room, int index) {
+    checkRoom(room);
+    if (index < 0 || index >= offsets[room + 1] - offsets[room]) {
+      throw new IllegalArgumentException("Link index out of range: " + index);
+    }
+    return targets[offsets[room] + index];
+  }
+
+  /**
+   * Checks whether one room is linked to another.
+   *
+   * @param room the room position.
+   * @param other the other room position.
+   * @return true if other is a partner of room
+   */
+  public boolean hasLink(int room, int other) {
+    if (room < 0 || room >= offsets.length - 1) {
+      return false;
+    }
+    return Arrays.binarySearch(targets, offsets[room], offsets[room + 1], other) >= 0;
+  }
+
+  private void checkRoom(int room) {
+    if (room < 0 || room >= offsets.length - 1) {
+      throw new IllegalArgumentException("Room position out of range: " + room);
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package world;
+
+/**
+ * A uniform grid of buckets over room rectangles, used to find the rooms that may touch a
+ * given area without comparing every pair of rooms. Each room is stored in every cell its
+ * rectangle covers; the cell size follows the average room size and is grown until the grid
+ * holds at most a few cells per room, so memory stays linear in the number of rooms.
+ *
+ * <p>Rectangles are given in room coordinate order: top, left, bottom, right (inclusive).
+ */
+final class RoomGrid {
+  private final int minRow;
+  private final int minCol;
+  private final int cellSize;
+  private final int gridRows;
+  private final int gridCols;
+  private final int[] cellStart;
+  private final int[] cellRooms;
+
+  /**
+   * Builds the grid over the given room rectangles.
+   *
+   * @param boxes one {top, left, bottom, right} array per room, indexed by room position.
+   */
+  RoomGrid(int[][] boxes) {
+    int n = boxes.length;
+    long top = Long.MAX_VALUE;
+    long left = Long.MAX_VALUE;
+    long bottom = Long.MIN_VALUE;
+    long right = Long.MIN_VALUE;
+    long extent = 0;
+    for (int[] box : boxes) {
+      top = Math.min(top, box[0]);
+      left = Math.min(left, box[1]);
+      bottom = Math.max(bottom, box[2]);
+      right = Math.max(right, box[3]);
+      extent += (long) box[2] - box[0] + box[3] - box[1] + 2;
+    }
+    if (n == 0) {
+      top = 0;
+      left = 0;
+      bottom = 0;
+      right = 0;
+    }
+    long height = bottom - top + 1;
+    long width = right - left + 1;
+    long size = Math.max(1, extent / Math.max(1, 2L * n));
+    long maxCells = 4L * n + 16;
+    while (ceilDiv(height, size) * ceilDiv(width, size) > maxCells) {
+      size *= 2;
+    }
+    this.minRow = (int) top;
+    this.minCol = (int) left;
+    this.cellSize = (int) Math.min(size, Integer.MAX_VALUE);
+    this.gridRows = (int) ceilDiv(height, size);
+    this.gridCols = (int) ceilDiv(width, size);
+
+    int[] counts = new int[gridRows * gridCols + 1];
+    for (int[] box : boxes) {
+      for (int r = rowOf(box[0]); r <= rowOf(box[2]); r++) {
+        for (int c = colOf(box[1]); c <= colOf(box[3]); c++) {
+          counts[r * gridCols + c + 1]++;
+        }
+      }
+    }
+    for (int i = 1; i < counts.length; i++) {
+      counts[i] += counts[i - 1];
+    }
+    this.cellStart = counts;
+    this.cellRooms = new int[counts[counts.length - 1]];
+    int[] fill = new int[gridRows * gridCols];
+    for (int i = 0; i < n; i++) {
+      int[] box = boxes[i];
+      for (int r = rowOf(box[0]); r <= rowOf(box[2]); r++) {
+        for (int c = colOf(box[1]); c <= colOf(box[3]); c++) {
+          int cell = r * gridCols + c;
+          cellRooms[cellStart[cell] + fill[cell]++] = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * Collects every room whose rectangle shares a grid cell with the given area. The result
+   * is a superset of the rooms intersecting the area; callers apply their exact rule.
+   * Several areas can be collected into one buffer by reusing the same mark.
+   *
+   * @param top top row of the area.
+   * @param left left column of the area.
+   * @param bottom bottom row of the area.
+   * @param right right column of the area.
+   * @param marks scratch array of room length used to skip duplicates.
+   * @param mark a value not yet stored in marks, unique to this query.
+   * @param out receives the candidate room positions.
+   * @param count the number of candidates already in out.
+   * @return the number of candidates in out after this query.
+   */
+  int collect(long top, long left, long bottom, long right, int[] marks, int mark, 
+      int[] out, int count) {
+    if (bottom < minRow || right < minCol) {
+      return count;
+    }
+    int rowFrom = clamp(top, minRow, gridRows);
+    int rowTo = clamp(bottom, minRow, gridRows);
+    int colFrom = clamp(left, minCol, gridCols);
+    int colTo = clamp(right, minCol, gridCols);
+    for (int r = rowFrom; r <= rowTo; r++) {
+      for (int c = colFrom; c <= colTo; c++) {
+        int cell = r * gridCols + c;
+        for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+          int room = cellRooms[k];
+          if (marks[room] != mark) {
+            marks[room] = mark;
+            out[count++] = room;
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  private int rowOf(int row) {
+    return (int) (((long) row - minRow) / cellSize);
+  }
+
+  private int colOf(int col) {
+    return (int) (((long) col - minCol) / cellSize);
+  }
+
+  private int clamp(long coordinate, int min, int cells) {
+    if (coordinate <= min) {
+      return 0;
+    }
+    long offset = Math.min(coordinate, Integer.MAX_VALUE) - min;
+    return (int) Math.min(offset / cellSize, cells - 1);
+  }
+
+  private static long ceilDiv(long value, long divisor) {
+    return (value + divisor - 1) / divisor;
+  }
+}
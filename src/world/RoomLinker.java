@@ -0,0 +1,138 @@
+package world;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes a link list for every room, such as its neighbors or the rooms it is visible
+ * from. Each room's list depends only on the shared, read-only room indexes, so the rooms
+ * can be split across a fork-join pool; the lists are returned per room in room order and
+ * applied by the caller afterwards, so the result is the same for any thread count.
+ */
+final class RoomLinker {
+  private static final int MIN_CHUNK = 64;
+
+  /**
+   * The rule that decides which rooms a room is linked to.
+   */
+  interface LinkRule {
+    /**
+     * Collects the candidate partners of a room into out.
+     *
+     * @param room the room position.
+     * @param marks scratch array of room length, see {@link RoomGrid#collect}.
+     * @param out receives the candidate room positions.
+     * @return the number of candidates in out.
+     */
+    int candidates(int room, int[] marks, int[] out);
+
+    /**
+     * Applies the exact check to a candidate pair. Must be safe to call concurrently.
+     *
+     * @param room the room position.
+     * @param other the candidate position.
+     * @return true if the rooms are linked.
+     */
+    boolean accepts(int room, int other);
+  }
+
+  private final int roomCount;
+  private final int threads;
+
+  /**
+   * Constructor for RoomLinker.
+   *
+   * @param roomCountInput number of rooms in the world.
+   * @param threadsInput number of worker threads, 1 to run on the calling thread.
+   */
+  RoomLinker(int roomCountInput, int threadsInput) {
+    this.roomCount = roomCountInput;
+    this.threads = Math.max(1, threadsInput);
+  }
+
+  /**
+   * Computes the link list of every room.
+   *
+   * @param rule the candidate source and exact check.
+   * @return for each room position, the linked room positions in ascending order.
+   */
+  int[][] link(LinkRule rule) {
+    int[][] links = new int[roomCount][];
+    if (threads == 1 || roomCount < 2 * MIN_CHUNK) {
+      linkRange(rule, links, 0, roomCount, newScratch());
+      return links;
+    }
+    int chunk = Math.max(MIN_CHUNK, roomCount / (threads * 8));
+    ConcurrentLinkedQueue<int[][]> scratch = new ConcurrentLinkedQueue<>();
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      pool.invoke(new LinkTask(rule, links, 0, roomCount, chunk, scratch));
+    } finally {
+      pool.shutdown();
+    }
+    return links;
+  }
+
+  private int[][] newScratch() {
+    return new int[][]{new int[roomCount], new int[roomCount], new int[roomCount]};
+  }
+
+  private void linkRange(LinkRule rule, int[][] links, int from, int to, int[][] arrays) {
+    int[] marks = arrays[0];
+    int[] candidates = arrays[1];
+    int[] accepted = arrays[2];
+    for (int i = from; i < to; i++) {
+      int count = rule.candidates(i, marks, candidates);
+      Arrays.sort(candidates, 0, count);
+      int kept = 0;
+      for (int k = 0; k < count; k++) {
+        if (candidates[k] != i && rule.accepts(i, candidates[k])) {
+          accepted[kept++] = candidates[k];
+        }
+      }
+      links[i] = Arrays.copyOf(accepted, kept);
+    }
+  }
+
+  /**
+   * Splits a range of rooms in halves down to the chunk size. Leaves borrow scratch arrays
+   * from a shared queue, so at most one set per worker thread is ever allocated.
+   */
+  private final class LinkTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final LinkRule rule;
+    private final int[][] links;
+    private final int from;
+    private final int to;
+    private final int chunk;
+    private final ConcurrentLinkedQueue<int[][]> scratch;
+
+    LinkTask(LinkRule rule, int[][] links, int from, int to, int chunk,
+        ConcurrentLinkedQueue<int[][]> scratch) {
+      this.rule = rule;
+      this.links = links;
+      this.from = from;
+      this.to = to;
+      this.chunk = chunk;
+      this.scratch = scratch;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunk) {
+        int[][] arrays = scratch.poll();
+        if (arrays == null) {
+          arrays = newScratch();
+        }
+        linkRange(rule, links, from, to, arrays);
+        scratch.offer(arrays);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new LinkTask(rule, links, from, mid, chunk, scratch),
+          new LinkTask(rule, links, mid, to, chunk, scratch));
+    }
+  }
+}
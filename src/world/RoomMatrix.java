@@ -0,0 +1,136 @@
+package world;
+
+import java.util.BitSet;
+
+/**
+ * A room-by-room bit matrix over a {@link RoomGraph}, one row of 64-bit words per room with
+ * bit c of row r set when room r is linked to room c. Membership is a single bit test and
+ * "is any room of this set linked to r" is a word-level AND of row r with the set.
+ *
+ * <p>A dense matrix takes rooms^2 bits, so above {@link #DENSE_ROOM_LIMIT} rooms no words
+ * are kept and the same queries walk the sparse row of the graph instead.
+ */
+final class RoomMatrix {
+  /**
+   * Largest room count for which the dense rows are built, 2 MB per matrix.
+   */
+  static final int DENSE_ROOM_LIMIT = 4096;
+
+  private final RoomGraph graph;
+  private final int words;
+  private final long[] bits;
+  private boolean edited;
+
+  /**
+   * Builds the matrix of the given graph.
+   *
+   * @param graphInput the links to index.
+   */
+  RoomMatrix(RoomGraph graphInput) {
+    this.graph = graphInput;
+    int rooms = graph.getRoomCount();
+    this.words = wordCount(rooms);
+    if (rooms > DENSE_ROOM_LIMIT) {
+      this.bits = null;
+      return;
+    }
+    this.bits = new long[rooms * words];
+    for (int row = 0; row < rooms; row++) {
+      for (int k = 0, degree = graph.degree(row); k < degree; k++) {
+        int col = graph.neighbor(row, k);
+        bits[row * words + (col >>> 6)] |= 1L << col;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of words a room mask of this matrix needs.
+   *
+   * @param rooms the room count.
+   * @return the word count
+   */
+  static int wordCount(int rooms) {
+    return (rooms + 63) >>> 6;
+  }
+
+  /**
+   * Records that the links of some room were changed by hand after the matrix was built,
+   * so the graph no longer describes every room.
+   */
+  void markEdited() {
+    this.edited = true;
+  }
+
+  /**
+   * Checks whether the links of some room were changed by hand after the matrix was built.
+   *
+   * @return true once {@link #markEdited()} was called
+   */
+  boolean isEdited() {
+    return edited;
+  }
+
+  /**
+   * Returns the graph this matrix indexes.
+   *
+   * @return the graph
+   */
+  RoomGraph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Checks whether room row is linked to room col.
+   *
+   * @param row the room position.
+   * @param col the other room position.
+   * @return true if the bit is set
+   */
+  boolean get(int row, int col) {
+    if (bits == null) {
+      return graph.hasLink(row, col);
+    }
+    if (row < 0 || col < 0 || row >= graph.getRoomCount() || col >= graph.getRoomCount()) {
+      return false;
+    }
+    return (bits[row * words + (col >>> 6)] & (1L << col)) != 0;
+  }
+
+  /**
+   * Checks whether room row is linked to any room of a mask.
+   *
+   * @param row the room position.
+   * @param mask a set of room positions, {@link #wordCount(int)} words long.
+   * @return true if the row and the mask share a bit
+   */
+  boolean intersects(int row, long[] mask) {
+    if (bits == null) {
+      for (int k = 0, degree = graph.degree(row); k < degree; k++) {
+        int col = graph.neighbor(row, k);
+        if ((mask[col >>> 6] & (1L << col)) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+    int base = row * words;
+    for (int w = 0; w < words; w++) {
+      if ((bits[base + w] & mask[w]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Sets in out the bit of every room linked to room row.
+   *
+   * @param row the room position.
+   * @param out receives the room positions.
+   */
+  void or(int row, BitSet out) {
+    for (int k = 0, degree = graph.degree(row); k < degree; k++) {
+      out.set(graph.neighbor(row, k));
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Who is in which room, kept up to date by the characters themselves: a player, the
+ * target or the pet reports every move here once the world starts tracking it. Players of
+ * a room are kept in id order, the order the world lists them in. For rooms that sit in
+ * the world's room matrices a bit mask of rooms holding at least one player is kept too,
+ * so witness checks are a word-level AND against a matrix row.
+ */
+final class RoomOccupants {
+  private final Map<Block, List<CharacterPlayer>> playersByRoom = new HashMap<>();
+  private final long[] occupied;
+  private Block targetRoom;
+  private Block petRoom;
+
+  /**
+   * Constructor for RoomOccupants.
+   *
+   * @param positions number of room positions in the world's room matrices.
+   */
+  RoomOccupants(int positions) {
+    this.occupied = new long[RoomMatrix.wordCount(positions)];
+  }
+
+  /**
+   * Records a player entering the world or moving between rooms.
+   *
+   * @param player the player.
+   * @param from the room the player left, or null for a new player.
+   * @param to the room the player is now in, or null if it stopped being tracked.
+   */
+  void playerMoved(CharacterPlayer player, Block from, Block to) {
+    if (from != null) {
+      List<CharacterPlayer> players = playersByRoom.get(from);
+      if (players != null) {
+        int index = find(players, player.getPlayerId());
+        if (index >= 0) {
+          players.remove(index);
+        }
+        if (players.isEmpty()) {
+          playersByRoom.remove(from);
+          setOccupied(from, false);
+        }
+      }
+    }
+    if (to != null) {
+      List<CharacterPlayer> players = playersByRoom.computeIfAbsent(to,
+          room -> new ArrayList<>(2));
+      int index = find(players, player.getPlayerId());
+      if (index < 0) {
+        players.add(-index - 1, player);
+      }
+      setOccupied(to, true);
+    }
+  }
+
+  /**
+   * Records the target's room.
+   *
+   * @param room the room the target is now in.
+   */
+  void targetMoved(Block room) {
+    this.targetRoom = room;
+  }
+
+  /**
+   * Records the pet's room.
+   *
+   * @param room the room the pet is now in.
+   */
+  void petMoved(Block room) {
+    this.petRoom = room;
+  }
+
+  /**
+   * Returns the players in a room, in id order. The list must not be modified.
+   *
+   * @param room the room.
+   * @return the players in it, empty if there are none
+   */
+  List<CharacterPlayer> playersIn(Block room) {
+    List<CharacterPlayer> players = playersByRoom.get(room);
+    return players == null ? Collections.emptyList() : players;
+  }
+
+  /**
+   * Returns the number of players in a room.
+   *
+   * @param room the room.
+   * @return the player count
+   */
+  int playerCount(Block room) {
+    return playersIn(room).size();
+  }
+
+  /**
+   * Checks whether the target is in a room.
+   *
+   * @param room the room.
+   * @return true if the target was last reported there
+   */
+  boolean hasTarget(Block room) {
+    return targetRoom != null && targetRoom.equals(room);
+  }
+
+  /**
+   * Checks whether the pet is in a room.
+   *
+   * @param room the room.
+   * @return true if the pet was last reported there
+   */
+  boolean hasPet(Block room) {
+    return petRoom != null && petRoom.equals(room);
+  }
+
+  /**
+   * Returns the positions of matrix rooms holding at least one player. The array is live
+   * and must not be modified.
+   *
+   * @return the room mask
+   */
+  long[] occupiedRooms() {
+    return occupied;
+  }
+
+  private void setOccupied(Block room, boolean value) {
+    int position = room instanceof Room ? ((Room) room).getPosition() : -1;
+    if (position < 0 || position >= occupied.length * 64) {
+      return;
+    }
+    if (value) {
+      occupied[position >>> 6] |= 1L << position;
+    } else {
+      occupied[position >>> 6] &= ~(1L << position);
+    }
+  }
+
+  private static int find(List<CharacterPlayer> players, int playerId) {
+    int low = 0;
+    int high = players.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int id = players.get(mid).getPlayerId();
+      if (id < playerId) {
+        low = mid + 1;
+      } else if (id > playerId) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -low - 1;
+  }
+}
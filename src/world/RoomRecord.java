@@ -0,0 +1,138 @@
+package world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable description of one room line in a world file. The coordinates are kept as
+ * plain ints in file order: upper-left row, upper-left column, lower-right row and
+ * lower-right column.
+ */
+public final class RoomRecord {
+  private final String roomName;
+  private final int roomId;
+  private final int top;
+  private final int left;
+  private final int bottom;
+  private final int right;
+
+  /**
+   * Constructor for RoomRecord.
+   *
+   * @param roomNameInput Name of the room.
+   * @param roomIdInput The 1-based ID of the room.
+   * @param topInput Upper-left row of the room.
+   * @param leftInput Upper-left column of the room.
+   * @param bottomInput Lower-right row of the room.
+   * @param rightInput Lower-right column of the room.
+   */
+  public RoomRecord(String roomNameInput, int roomIdInput, int topInput, int leftInput,
+      int bottomInput, int rightInput) {
+    this.roomName = roomNameInput;
+    this.roomId = roomIdInput;
+    this.top = topInput;
+    this.left = leftInput;
+    this.bottom = bottomInput;
+    this.right = rightInput;
+  }
+
+  /**
+   * Returns the name of the room.
+   *
+   * @return the room name
+   */
+  public String getRoomName() {
+    return roomName;
+  }
+
+  /**
+   * Returns the 1-based ID of the room.
+   *
+   * @return the room ID
+   */
+  public int getRoomId() {
+    return roomId;
+  }
+
+  /**
+   * Returns the upper-left row of the room.
+   *
+   * @return the top row
+   */
+  public int getTop() {
+    return top;
+  }
+
+  /**
+   * Returns the upper-left column of the room.
+   *
+   * @return the left column
+   */
+  public int getLeft() {
+    return left;
+  }
+
+  /**
+   * Returns the lower-right row of the room.
+   *
+   * @return the bottom row
+   */
+  public int getBottom() {
+    return bottom;
+  }
+
+  /**
+   * Returns the lower-right column of the room.
+   *
+   * @return the right column
+   */
+  public int getRight() {
+    return right;
+  }
+
+  /**
+   * Returns a fresh copy of the coordinates in the layout used by {@link Room}.
+   *
+   * @return an array of four integers
+   */
+  public int[] getCoordinates() {
+    return new int[] {top, left, bottom, right};
+  }
+
+  /**
+   * Converts this record to the legacy String[] row of {name, coordinates, id}.
+   *
+   * @return the legacy room data row
+   */
+  public String[] toRoomData() {
+    return new String[] {roomName, Arrays.toString(getCoordinates()), String.valueOf(roomId)};
+  }
+
+  /**
+   * Converts legacy String[] room rows of {name, coordinates, id} into typed records.
+   *
+   * @param roomData the legacy room rows, may be null
+   * @return an unmodifiable list of records
+   */
+  public static List<RoomRecord> fromRoomData(List<String[]> roomData) {
+    if (roomData == null || roomData.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<RoomRecord> records = new ArrayList<>(roomData.size());
+    for (String[] row : roomData) {
+      int[] coords = Arrays.stream(row[1].replace("[", "").replace("]", "").split(", "))
+          .mapToInt(Integer::parseInt).toArray();
+      records.add(new RoomRecord(row[0], Integer.parseInt(row[2]),
+          coords[0], coords[1], coords[2], coords[3]));
+    }
+    return Collections.unmodifiableList(records);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("RoomRecord[name=%s, id=%d, coordinates=[%d, %d, %d, %d]]",
+        roomName, roomId, top, left, bottom, right);
+  }
+}
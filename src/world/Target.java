@@ -7,6 +7,7 @@ package world;
 public class Target implements CharacterTarget {
   private final String name;
   private Block currentRoom;
+  private RoomOccupants occupants;
   private int healthPoint; 
   
   /**
@@ -68,6 +69,21 @@ public class Target implements CharacterTarget {
       throw new IllegalArgumentException("Room cannot be null.");
     }
     this.currentRoom = room;
+    if (occupants != null) {
+      occupants.targetMoved(room);
+    }
+  }
+
+  /**
+   * Starts reporting this target's location and moves to a world's occupancy index.
+   * 
+   * @param occupantsInput the index to report to, or null to stop reporting.
+   */
+  void trackOccupancy(RoomOccupants occupantsInput) {
+    this.occupants = occupantsInput;
+    if (occupants != null) {
+      occupants.targetMoved(currentRoom);
+    }
   }
 
 }
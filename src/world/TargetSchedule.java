@@ -0,0 +1,135 @@
+package world;
+
+import java.util.function.IntPredicate;
+
+/**
+ * The target's route through the rooms, worked out once from the room it stands in. Each
+ * turn the target moves to the room whose id is one more than its own, or to the first
+ * room of the world when there is none, so from any start the route is a run of
+ * consecutive ids (the tail) leading into a second run that repeats forever (the cycle),
+ * which starts at the first room. Both runs are kept as id ranges, so the room at any step
+ * and the next step at which a room is reached are plain arithmetic.
+ *
+ * <p>Steps count moves from the start room: step 0 is the start, the tail covers steps 0
+ * to tail length - 1 and the cycle follows. The schedule also remembers how far along the
+ * route the target has moved.
+ */
+final class TargetSchedule {
+  private final int tailFrom;
+  private final int tailLength;
+  private final int cycleFrom;
+  private final int cycleLength;
+  private Block room;
+  private int step;
+
+  private TargetSchedule(Block start, int tailFrom, int tailLength, int cycleFrom,
+      int cycleLength, int step) {
+    this.room = start;
+    this.tailFrom = tailFrom;
+    this.tailLength = tailLength;
+    this.cycleFrom = cycleFrom;
+    this.cycleLength = cycleLength;
+    this.step = step;
+  }
+
+  /**
+   * Works out the route starting in a room.
+   *
+   * @param start the room the target stands in.
+   * @param firstRoomId id of the world's first room, where the route wraps to.
+   * @param hasRoom tells whether the world has a room with a given id.
+   * @return the schedule, at step 0 in the start room
+   */
+  static TargetSchedule of(Block start, int firstRoomId, IntPredicate hasRoom) {
+    int cycleTo = lastInRun(firstRoomId, firstRoomId, hasRoom);
+    int cycleLength = cycleTo - firstRoomId + 1;
+    int startId = start.getRoomId();
+    if (startId >= firstRoomId && startId <= cycleTo) {
+      return new TargetSchedule(start, startId, 0, firstRoomId, cycleLength,
+          startId - firstRoomId);
+    }
+    int tailTo = lastInRun(startId, firstRoomId, hasRoom);
+    return new TargetSchedule(start, startId, tailTo - startId + 1, firstRoomId,
+        cycleLength, 0);
+  }
+
+  /**
+   * Follows consecutive ids from a room until the next id is missing or is the first room.
+   */
+  private static int lastInRun(int from, int firstRoomId, IntPredicate hasRoom) {
+    int id = from;
+    while (id < Integer.MAX_VALUE && id + 1 != firstRoomId && hasRoom.test(id + 1)) {
+      id++;
+    }
+    return id;
+  }
+
+  /**
+   * Returns the room the target was last moved to along this route.
+   *
+   * @return the current room
+   */
+  Block getRoom() {
+    return room;
+  }
+
+  /**
+   * Returns the id of the room the target moves to next.
+   *
+   * @return the next room id
+   */
+  int nextRoomId() {
+    return roomIdAfter(1);
+  }
+
+  /**
+   * Records that the target moved one step along the route.
+   *
+   * @param next the room it moved to.
+   */
+  void advance(Block next) {
+    this.room = next;
+    step++;
+    if (step >= tailLength + cycleLength) {
+      step -= cycleLength;
+    }
+  }
+
+  /**
+   * Returns the id of the room the target will be in after a number of further moves.
+   *
+   * @param moves the number of moves from now, at least 0.
+   * @return the room id
+   */
+  int roomIdAfter(long moves) {
+    long at = step + moves;
+    if (at < tailLength) {
+      return tailFrom + (int) at;
+    }
+    return cycleFrom + (int) ((at - tailLength) % cycleLength);
+  }
+
+  /**
+   * Returns the fewest further moves after which the target enters a room.
+   *
+   * @param roomId the room id.
+   * @return the number of moves, at least 1, or -1 if the target never enters the room
+   */
+  int movesUntil(int roomId) {
+    int at;
+    if (tailLength > 0 && roomId >= tailFrom && roomId - tailFrom < tailLength) {
+      at = roomId - tailFrom;
+    } else if (roomId >= cycleFrom && roomId - cycleFrom < cycleLength) {
+      at = tailLength + roomId - cycleFrom;
+    } else {
+      return -1;
+    }
+    if (at > step) {
+      return at - step;
+    }
+    if (at < tailLength) {
+      return -1;
+    }
+    return cycleLength - (step - at) % cycleLength;
+  }
+}
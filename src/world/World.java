@@ -1,47 +1,75 @@
 package world;
 
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.FontMetrics;
+import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
-import javax.imageio.ImageIO;
 
 /**
  * Represents the game world, managing rooms, items, and the target character.
  * The world is initialized from a specified file.
  */
 public class World implements WorldOutline {
+  /**
+   * Room count from which the world is linked in parallel by default.
+   */
+  public static final int PARALLEL_BUILD_ROOMS = 2048;
+  private static final int PET_TOUR_CACHE_SIZE = 64;
+  private static final int MAP_SCALE = 40;
+  private static final File MAP_FILE = new File("../res", "world.png");
+
   private List<Block> rooms;
   private List<Gadget> items;
   private List<CharacterPlayer> players;
   private CharacterTarget target;
-  private String worldText;
+  private WorldSummary worldSummary;
   private int rows;
   private int cols;
-  private List<String[]> roomData;
-  private List<String[]> itemData;
+  private List<RoomRecord> roomRecords;
+  private List<ItemRecord> itemRecords;
+  private OccupancyMap occupancy;
+  private RoomGraph adjacency;
+  private RoomGraph visibility;
+  private RoomMatrix adjacencyMatrix;
+  private RoomMatrix visibilityMatrix;
+  private Room[] graphRooms;
+  private Block[] roomsById = new Block[16];
+  private Map<Integer, Block> sparseRoomsById = new HashMap<>();
+  private NameIndex<Block> roomsByName = new NameIndex<>();
+  private NameIndex<Gadget> itemsByName = new NameIndex<>();
+  private RoomOccupants occupants;
   private String targetName;
   private String petName;
   private int targetHealth = 0;
   private String worldName;
   private int itemLimit = 3;
   private int nextPlayerId = 0;
-  private CharacterPet pet;
+  private Pet pet;
+  private TargetSchedule targetSchedule;
+  private WorldMap worldMap;
+  private MapImageWriter mapWriter;
+  private Map<Integer, int[]> petTours = new LinkedHashMap<>(16, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+      return size() > PET_TOUR_CACHE_SIZE;
+    }
+  };
+  private final int[] startTour;
   private int currentTurn = 1;
   private int maxTurns = 200;
   private List<Integer> playerIds = new ArrayList<>();
@@ -52,6 +80,9 @@ public class World implements WorldOutline {
   private boolean isRunningGui = false;
   private Map<Integer, Rectangle> playerPositions = new HashMap<>();
   private Map<Integer, Rectangle> roomCoordinates = new HashMap<>();
+  private volatile WorldSnapshot snapshot;
+  private long snapshotVersion = 0;
+  private GameEventSink eventSink;
   
   /**
    * Constructor for World that initializes the game from a file.
@@ -59,142 +90,183 @@ public class World implements WorldOutline {
    * @param inputSource The path to the text file containing world setup information.
    */
   public World(Readable inputSource) throws IllegalArgumentException {
+    this(new WorldFileParser(inputSource).parse());
+  }
+
+  /**
+   * Constructor for World that initializes the game from a file, building room links
+   * with the given number of threads.
+   * 
+   * @param inputSource The path to the text file containing world setup information.
+   * @param buildThreads Number of threads used to link rooms, 1 for a sequential build.
+   */
+  public World(Readable inputSource, int buildThreads) throws IllegalArgumentException {
+    this(new WorldFileParser(inputSource).parse(), buildThreads);
+  }
+
+  /**
+   * Constructor for World that initializes the game from already parsed world content.
+   * Worlds of at least {@link #PARALLEL_BUILD_ROOMS} rooms link their rooms on every
+   * available processor, smaller ones on the calling thread.
+   * 
+   * @param spec The typed rooms, items and characters of the world.
+   */
+  public World(WorldSpec spec) throws IllegalArgumentException {
+    this(spec, defaultBuildThreads(spec));
+  }
+
+  /**
+   * Constructor for World that initializes the game from already parsed world content,
+   * building room links with the given number of threads. The result does not depend on
+   * the thread count.
+   * 
+   * @param spec The typed rooms, items and characters of the world.
+   * @param buildThreads Number of threads used to link rooms, 1 for a sequential build.
+   */
+  public World(WorldSpec spec, int buildThreads) throws IllegalArgumentException {
+    if (buildThreads < 1) {
+      throw new IllegalArgumentException("Build threads must be at least 1");
+    }
     rooms = new ArrayList<>();
     items = new ArrayList<>();
-    roomData = new ArrayList<>();
-    itemData = new ArrayList<>();
     players = new ArrayList<>();
-    loadWorld(inputSource);
-    establishRoomNeighbors();
-    establishRoomVisble();
+    loadWorld(spec);
+    RoomLinker linker = new RoomLinker(rooms.size(), buildThreads);
+    establishRoomNeighbors(linker);
+    establishRoomVisble(linker);
+    linkRooms();
+    attachRoomGraphs();
     initializePetDfs();
+    startTour = petTours.get(0);
     movePetToNextRoom();
     setWorldText();
   }
 
   /**
-   * Loads the world configuration from a specified text file, 
+   * Constructor for World from world content whose room links were computed before, as
+   * stored by {@link CompiledWorld}. Nothing is linked or searched again: the rooms take
+   * their neighbors and visible-from lists from the graphs, and the pet starts on the
+   * given tour.
+   * 
+   * @param spec The typed rooms, items and characters of the world.
+   * @param adjacencyInput the neighbor graph of the rooms in spec order.
+   * @param visibilityInput the visible-from graph of the rooms in spec order.
+   * @param petTour the pet's tour from the first room, as room positions.
+   */
+  World(WorldSpec spec, RoomGraph adjacencyInput, RoomGraph visibilityInput, int[] petTour) {
+    rooms = new ArrayList<>();
+    items = new ArrayList<>();
+    players = new ArrayList<>();
+    loadWorld(spec);
+    if (adjacencyInput.getRoomCount() != rooms.size()
+        || visibilityInput.getRoomCount() != rooms.size()) {
+      throw new IllegalArgumentException("Room graphs do not match the room count.");
+    }
+    this.adjacency = adjacencyInput;
+    this.visibility = visibilityInput;
+    linkRooms();
+    attachRoomGraphs();
+    petTours.put(0, petTour);
+    startTour = petTour;
+    initializePetDfs();
+    movePetToNextRoom();
+    setWorldText();
+  }
+
+  private static int defaultBuildThreads(WorldSpec spec) {
+    if (spec != null && spec.getRooms().size() >= PARALLEL_BUILD_ROOMS) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    return 1;
+  }
+
+  /**
+   * Loads the world configuration from parsed world content, 
    * setting up rooms, items, and the target.
    * 
-   * @param filename the file path to load world data from.
+   * @param spec the typed world content.
    */
-  private void loadWorld(Readable inputSource) {
-    if (inputSource == null) {
+  private void loadWorld(WorldSpec spec) {
+    if (spec == null) {
       throw new IllegalArgumentException("Input source cannot be null");
     }
+    this.rows = spec.getRows();
+    this.cols = spec.getCols();
+    this.worldName = spec.getWorldName();
+    this.targetHealth = spec.getTargetHealth();
+    this.targetName = spec.getTargetName();
+    this.petName = spec.getPetName();
+    this.roomRecords = List.copyOf(spec.getRooms());
+    this.itemRecords = List.copyOf(spec.getItems());
+    processRoomData(roomRecords);
+    processItemData(itemRecords);
+    createTarget(targetName, rooms.get(0), targetHealth);
+    createPet(petName, target.getLocation());
+  }
+ 
+  /**
+   * Processes room records to create room objects and add them to the world.
+   * 
+   * @param roomRecordsInput List of room records parsed from the file.
+   */
+  private void processRoomData(List<RoomRecord> roomRecordsInput) {
+    this.occupancy = new OccupancyMap(roomRecordsInput);
+    this.occupants = new RoomOccupants(roomRecordsInput.size());
+    for (RoomRecord record : roomRecordsInput) {
+      validateRoom(record.getRoomName(), record.getRoomId(), record.getCoordinates());
+      Room room = new Room(record, occupancy);
+      rooms.add(room);
+      indexRoom(room);
+    }
+  }
 
-    Scanner scanner = new Scanner(inputSource);
-    int state = 0;  
-    int roomCount = 0;  
-    int itemCount = 0;
-    try {
-      while (scanner.hasNextLine()) {
-        String line = scanner.nextLine().trim();
-        if (line.isEmpty()) {
-          continue;
-        }
-        switch (state) {
-          case 0:  
-            String[] dimensions = line.split("\\s+");
-            this.rows = Integer.parseInt(dimensions[0]);
-            this.cols = Integer.parseInt(dimensions[1]);
-            this.worldName = String.join(" ", Arrays.copyOfRange(dimensions, 2, dimensions.length));
-            state = 1;
-            break;
-          case 1:  
-            String[] targetDetails = line.split("\\s+", 2);
-            targetHealth = Integer.parseInt(targetDetails[0]);
-            targetName = targetDetails.length > 1 ? targetDetails[1] : "";
-            state = 2;
-            break;
-          case 2: 
-            petName = line;
-            state = 3;
-            break;
-          case 3:  
-            roomCount = Integer.parseInt(line);
-            state = 4;
-            break;
-          case 4:  
-            if (roomCount > 0) {
-              String[] parts = line.split("\\s+");
-              if (parts.length < 5) {  
-                throw new IllegalArgumentException("Insufficient parts to parse room details.");
-              }
-              int[] coordinates = {
-                  Integer.parseInt(parts[0]),
-                  Integer.parseInt(parts[1]),
-                  Integer.parseInt(parts[2]),
-                  Integer.parseInt(parts[3])
-              };
-              String roomName = String.join(" ", Arrays.copyOfRange(parts, 4, parts.length));
-              int roomId = roomData.size() + 1;  
-              roomData.add(new String[]{roomName, 
-                  Arrays.toString(coordinates), String.valueOf(roomId)});
-              roomCount--;
-              if (roomCount == 0) {
-                state = 5;
-              }
-            }
-            break;
-          case 5:  
-            itemCount = Integer.parseInt(line);
-            state = 6;
-            break;
-          case 6:  
-            if (itemCount > 0) {
-              String[] itemParts = line.split("\\s+");
-              String itemName = String.join(" ", Arrays.copyOfRange(itemParts, 
-                  2, itemParts.length));
-              int location = Integer.parseInt(itemParts[0]);
-              int murderValue = Integer.parseInt(itemParts[1]);                      
-              itemData.add(new String[]{itemName, String.valueOf(location), 
-                  String.valueOf(murderValue)});
-              itemCount--;
-            }
-            break;
-          default:
-            break;
-        }
+  /**
+   * Adds a room to the id and name indexes. Ids up to a few times the room count live in
+   * a dense array; anything larger, which only hand-made rooms can have, goes to a map
+   * until the array grows past it. An id or name already taken keeps pointing at the
+   * earlier room.
+   * 
+   * @param room the room just added to the world.
+   */
+  private void indexRoom(Block room) {
+    int roomId = room.getRoomId();
+    if (roomId < roomsById.length || roomId <= 4 * rooms.size() + 16) {
+      if (roomId >= roomsById.length) {
+        growRoomIndex(roomId);
+      }
+      if (roomsById[roomId] == null) {
+        roomsById[roomId] = room;
       }
-      scanner.close();
-      processRoomData(roomData);
-      processItemData(itemData);
-      createTarget(targetName, rooms.get(0), targetHealth);
-      createPet(petName, target.getLocation());
-    } catch (NumberFormatException e) {
-      System.err.println("Error parsing numbers from the input: " + e.getMessage());
-    } finally {
-      scanner.close();
+    } else {
+      sparseRoomsById.putIfAbsent(roomId, room);
     }
+    roomsByName.add(room.getRoomName(), room);
   }
- 
+
   /**
-   * Processes room data to create room objects and add them to the world.
-   * 
-   * @param roomData List of room data strings parsed from the file.
+   * Grows the id array to hold the given id. Rooms kept in the sparse map whose ids now fit
+   * move into the array, because lookups of ids inside the array never check the map.
    */
-  private void processRoomData(List<String[]> roomDataInput) {
-    for (String[] roomInfo : roomDataInput) {
-      String roomName = roomInfo[0];
-      int[] intCoords = Arrays.stream(roomInfo[1].replace("[", "").replace("]", "").split(", "))
-                      .mapToInt(Integer::parseInt)
-                      .toArray();
-      int roomIdWrite = Integer.parseInt(roomInfo[2]);
-      createRoom(roomName, roomIdWrite, intCoords, roomDataInput);
+  private void growRoomIndex(int roomId) {
+    roomsById = Arrays.copyOf(roomsById, Math.max(roomId + 1, roomsById.length * 2));
+    Iterator<Map.Entry<Integer, Block>> sparse = sparseRoomsById.entrySet().iterator();
+    while (sparse.hasNext()) {
+      Map.Entry<Integer, Block> entry = sparse.next();
+      if (entry.getKey() < roomsById.length) {
+        roomsById[entry.getKey()] = entry.getValue();
+        sparse.remove();
+      }
     }
   }
 
   /**
-   * Processes item data to create item objects and add them to the world.
+   * Processes item records to create item objects and add them to the world.
    * 
-   * @param itemData List of item data strings parsed from the file.
+   * @param itemRecordsInput List of item records parsed from the file.
    */
-  private void processItemData(List<String[]> itemDataInput) {
-    for (String[] itemInfo : itemDataInput) {
-      int location = Integer.parseInt(itemInfo[1]);
-      int murderValue = Integer.parseInt(itemInfo[2]);
-      createItem(itemInfo[0], location, murderValue);
+  private void processItemData(List<ItemRecord> itemRecordsInput) {
+    for (ItemRecord itemInfo : itemRecordsInput) {
+      createItem(itemInfo.getItemName(), itemInfo.getLocation(), itemInfo.getMurderValue());
     }
   }
  
@@ -223,6 +295,7 @@ public class World implements WorldOutline {
     Block room = rooms.get(location);
     Item newItem = new Item(name, room, murderValue);
     items.add(newItem);
+    itemsByName.add(name, newItem);
     room.addItem(newItem); 
     return newItem;
   }
@@ -230,13 +303,28 @@ public class World implements WorldOutline {
   @Override
   public CharacterTarget createTarget(String name, Block room, int health) {
     Target newTarget = new Target(name, room, health);
+    if (this.target instanceof Target) {
+      ((Target) this.target).trackOccupancy(null);
+    }
+    newTarget.trackOccupancy(occupants);
     this.target = newTarget;
+    this.targetSchedule = null;
     return newTarget;
   }
 
   @Override
   public Block createRoom(String roomName, int roomId, 
       int[] coordinates, List<String[]> allRoomData) {
+    validateRoom(roomName, roomId, coordinates);
+    Room newRoom = new Room(roomName, roomId, coordinates, allRoomData);
+    rooms.add(newRoom);
+    indexRoom(newRoom);
+    petTours.clear();
+    targetSchedule = null;
+    return newRoom;
+  }
+
+  private void validateRoom(String roomName, int roomId, int[] coordinates) {
     if (roomName == null || roomName.trim().isEmpty()) {
       throw new IllegalArgumentException("Room name cannot be null or empty.");
     }
@@ -250,130 +338,155 @@ public class World implements WorldOutline {
       throw new IllegalArgumentException("Invalid coordinates: x1 should be "
           + "<= x2 and y1 should be <= y2.");
     }
-    Room newRoom = new Room(roomName, roomId, coordinates, allRoomData);
-    rooms.add(newRoom);
-    return newRoom;
   }
 
 
   @Override
   public BufferedImage drawWorld() {
-    int scaleFactor = 40;
-    BufferedImage image = new BufferedImage(this.cols * scaleFactor, this.rows * scaleFactor, 
-        BufferedImage.TYPE_INT_RGB);
-    Graphics g = image.createGraphics();
-
-    g.setColor(Color.WHITE);
-    g.fillRect(0, 0, this.cols * scaleFactor, this.rows * scaleFactor);
-
-    Font font = new Font("Arial", Font.BOLD, scaleFactor / 3);
-    g.setFont(font);
-
-    
-    for (String[] room : roomData) {
-      String roomName = room[0];
-      Integer roomId = Integer.parseInt(room[2]);
-      String[] coordsStr = room[1].replace("[", "").replace("]", "").split(", ");
-      int y1 = Integer.parseInt(coordsStr[0]);
-      int x1 = Integer.parseInt(coordsStr[1]);
-      int y2 = Integer.parseInt(coordsStr[2]);
-      int x2 = Integer.parseInt(coordsStr[3]);
-
-      int x1Draw = x1 * scaleFactor;
-      int y1Draw = y1 * scaleFactor;
-      int width = ((x2 - x1 + 1) * scaleFactor) - 1;
-      int height = ((y2 - y1 + 1) * scaleFactor) - 1;
-
-      if (width > 0 && height > 0) {
-        g.setColor(Color.WHITE);
-        g.fillRect(x1Draw, y1Draw, width, height);
-
-        g.setColor(Color.BLACK);
-        g.drawRect(x1Draw, y1Draw, width, height);
-        g.drawString(roomName + " (" + roomId + ")", x1Draw + 3, y1Draw + (height / 2) + 5);
-      }
-      roomCoordinates.put(roomId, new Rectangle(x1Draw, y1Draw, width, height));
+    return worldMap().render(targetRoomName(), tokenIds(), tokenRooms(), tokenPlayerId(),
+        playerPositions);
+  }
 
-      if (target != null && target.getLocation() != null 
-          && roomName.equals(target.getLocation().getRoomName())) {
-        g.setColor(Color.RED);
-        g.fillOval(x1Draw + scaleFactor / 3, y1Draw + scaleFactor / 3, 20, 20); 
-      }
+  /**
+   * Returns the map layout, made on first use. The room rectangles are published with it.
+   * A view may ask for it first, so it is made under the world's lock.
+   * 
+   * @return the world map
+   */
+  private synchronized WorldMap worldMap() {
+    if (worldMap == null) {
+      WorldMap map = new WorldMap(roomRecords, this.cols, this.rows, MAP_SCALE);
+      roomCoordinates.putAll(map.getRoomBounds());
+      worldMap = map;
+    }
+    return worldMap;
+  }
 
-      
-      int playerOffset = scaleFactor / 3 + 30;
-      int playerHorizontalSpace = scaleFactor / 3;
-      for (CharacterPlayer player : players) {
-        if (player.getLocation() != null && roomName.equals(player.getLocation().getRoomName())) {
-          Color playerColor = player.getPlayerId() == players.get(currentPlayerIndex)
-              .getPlayerId() ? Color.BLUE : Color.BLACK;
-          g.setColor(playerColor);
-          int playerX = x1Draw + playerHorizontalSpace;
-          int playerY = y1Draw + playerOffset;
-          g.fillOval(playerX, playerY, 20, 20);
-          playerPositions.put(player.getPlayerId(), new Rectangle(playerX, playerY, 20, 20));
-          
-          String playerIdText = String.valueOf(player.getPlayerId());
-          FontMetrics fm = g.getFontMetrics();
-          int textWidth = fm.stringWidth(playerIdText);
-          int textHeight = fm.getAscent();
-          g.setColor(Color.WHITE); // Set text color to white for better visibility
-          g.drawString(playerIdText, playerX + (20 - textWidth) / 2, 
-              playerY + (20 + textHeight) / 2 - fm.getDescent());
-          playerHorizontalSpace += scaleFactor / 1.5;
-          if (player.getPlayerId() % 5 == 4) {
-            playerOffset += scaleFactor / 2;
-            playerHorizontalSpace = scaleFactor / 3;
-          }
-        }
+  private String targetRoomName() {
+    return target == null || target.getLocation() == null ? null
+        : target.getLocation().getRoomName();
+  }
+
+  private int[] tokenIds() {
+    int[] ids = new int[players.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = players.get(i).getPlayerId();
+    }
+    return ids;
+  }
+
+  private String[] tokenRooms() {
+    String[] names = new String[players.size()];
+    for (int i = 0; i < names.length; i++) {
+      Block location = players.get(i).getLocation();
+      names[i] = location == null ? null : location.getRoomName();
+    }
+    return names;
+  }
+
+  private int tokenPlayerId() {
+    return players.isEmpty() ? -1 : players.get(currentPlayerIndex).getPlayerId();
+  }
+
+  @Override
+  public WorldSnapshot getSnapshot() {
+    WorldSnapshot published = snapshot;
+    return published != null ? published : takeSnapshot();
+  }
+
+  @Override
+  public void publishSnapshot() {
+    snapshot = takeSnapshot();
+  }
+
+  /**
+   * Publishes a new snapshot if snapshots are being published.
+   */
+  private void commit() {
+    if (snapshot != null) {
+      snapshot = takeSnapshot();
+    }
+  }
+
+  private WorldSnapshot takeSnapshot() {
+    Map<Integer, List<String>> itemsByPlayer = new HashMap<>();
+    Map<Integer, List<String>> roomItemsByPlayer = new HashMap<>();
+    for (CharacterPlayer player : players) {
+      itemsByPlayer.put(player.getPlayerId(), itemNames(player.getItem()));
+      if (player.getLocation() != null) {
+        roomItemsByPlayer.put(player.getPlayerId(), itemNames(player.getLocation().getItem()));
       }
     }
+    String targetRoom = targetRoomName();
+    int[] ids = tokenIds();
+    String[] rooms = tokenRooms();
+    Map<Integer, Rectangle> positions = new HashMap<>();
+    worldMap().locatePlayers(targetRoom, ids, rooms, positions);
+    return new WorldSnapshot(++snapshotVersion, currentTurn,
+        playerIds.isEmpty() ? -1 : getCurrentPlayerId(), isRunning, isRunningGui,
+        getTargetHealthPoint(), playerIds, playerNames, isComputer, itemsByPlayer,
+        roomItemsByPlayer, positions, targetRoom, ids, rooms);
+  }
+
+  private static List<String> itemNames(List<Gadget> gadgets) {
+    List<String> names = new ArrayList<>(gadgets.size());
+    for (Gadget item : gadgets) {
+      names.add(item.getItemName() + ": Murder Value " + item.getMurderValue());
+    }
+    return names;
+  }
+
+  @Override
+  public Dimension getMapSize() {
+    return worldMap().getSize();
+  }
 
-    g.dispose();
+  @Override
+  public void paintMapRooms(Graphics g, Rectangle area) {
+    worldMap().paintRooms(g, area);
+  }
 
+  @Override
+  public void paintMapTokens(Graphics g, Rectangle area) {
+    WorldSnapshot published = snapshot;
+    if (published != null) {
+      worldMap().paintTokens(g, area, published.getTargetRoom(), published.getTokenIds(),
+          published.getTokenRooms(), published.getCurrentPlayerId());
+    } else {
+      worldMap().paintTokens(g, area, targetRoomName(), tokenIds(), tokenRooms(),
+          tokenPlayerId());
+    }
+  }
+
+  @Override
+  public void saveWorldMap() {
+    if (mapWriter == null) {
+      mapWriter = new MapImageWriter(MAP_FILE);
+    }
     try {
-      File outputDir = new File("../res");
-      if (!outputDir.exists()) {
-        outputDir.mkdirs();  
-      }
-      File outputfile = new File(outputDir, "world.png");
-      ImageIO.write(image, "png", outputfile);
-    } catch (IOException e) {
-      throw new IllegalArgumentException("Error saving world image: " + e.getMessage());
+      mapWriter.submit(drawWorld()).get();
+    } catch (ExecutionException e) {
+      throw new IllegalArgumentException("Error saving world image: " 
+          + e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalArgumentException("Interrupted while saving the world image.", e);
     }
-    
-    return image;
   }
 
   @Override
   public void setWorldText() {
-    String petInfo = (pet != null) ? String.format("Pet: %s\nPet's Location: %s",
-                                                  pet.getCharacterName(),
-                                                  (pet.getLocation() != null 
-                                                  ? pet.getLocation().getRoomName() : "Unknown"))
-                                   : "No pet currently set.";
-
-    this.worldText = String.format("World Name: %s\n" 
-                                  + "World Dimensions: %dx%d\n" 
-                                  + "Number of Rooms: %d\n" 
-                                  + "Number of Items: %d\n" 
-                                  + "Target: %s\n" 
-                                  + "Target's Health: %d\n" 
-                                  + "Target's Location: %s\n"
-                                  + "%s", 
-                                  this.worldName, this.cols, this.rows, getRoomCount(), 
-                                  getItemCount(),
-                                  (target != null ? target.getCharacterName() : "No target"),
-                                  (target != null ? target.getHealthPoint() : 0),
-                                  (target != null && target.getLocation() != null 
-                                  ? target.getLocation().getRoomName() : "Unknown"),
-                                  petInfo);
+    if (worldSummary == null) {
+      worldSummary = new WorldSummary();
+    }
+    worldSummary.capture(this.worldName, this.cols, this.rows, getRoomCount(), getItemCount(),
+        target, pet);
   }
 
   
   @Override
   public String getWorldText() {
-    return this.worldText;
+    return worldSummary != null ? worldSummary.getText() : null;
   }
   
   @Override
@@ -390,13 +503,21 @@ public class World implements WorldOutline {
  
   @Override
   public List<String[]> getRoomData() {
-    return new ArrayList<>(roomData);  
+    List<String[]> roomData = new ArrayList<>(roomRecords.size());
+    for (RoomRecord record : roomRecords) {
+      roomData.add(record.toRoomData());
+    }
+    return roomData;
   }
 
 
   @Override
   public List<String[]> getItemData() {
-    return new ArrayList<>(itemData);  
+    List<String[]> itemData = new ArrayList<>(itemRecords.size());
+    for (ItemRecord record : itemRecords) {
+      itemData.add(record.toItemData());
+    }
+    return itemData;
   }
   
 
@@ -419,81 +540,319 @@ public class World implements WorldOutline {
 
   @Override
   public String moveTargetToNextRoom() {
-    if (this.target != null && this.target.getLocation() != null) {
-      int currentRoomId = this.target.getLocation().getRoomId();
-      Block nextRoom = null;
-      for (Block room : rooms) {
-        if (room.getRoomId() == currentRoomId + 1) {
-          nextRoom = room;
-          break;
-        }
-      }
-  
-      if (nextRoom == null) {
-        if (rooms.size() > 0) {
-          nextRoom = rooms.get(0);  
-        }
-      }
+    return emit(nextTargetMove()).toText();
+  }
 
-      if (nextRoom != null) {
-        this.target.move(nextRoom);
-        setWorldText();
-        return String.format("Target moved to next room: %s", nextRoom.getRoomName());
-      } else {
+  private GameEvent.TargetMoved nextTargetMove() {
+    if (this.target != null && this.target.getLocation() != null) {
+      if (rooms.isEmpty()) {
         throw new IllegalArgumentException("No rooms available to move the target to.");
       }
+      TargetSchedule schedule = targetSchedule();
+      Block nextRoom = getRoomById(schedule.nextRoomId());
+      this.target.move(nextRoom);
+      schedule.advance(nextRoom);
+      setWorldText();
+      return new GameEvent.TargetMoved(nextRoom.getRoomName());
     } else {
       throw new IllegalArgumentException("No target set in the world "
           + "or target does not have a current room.");
     }
   }
+
+  /**
+   * Returns the target's route from the room it stands in, working it out again when the
+   * target was put somewhere else than the route leads, or the rooms changed.
+   * 
+   * @return the schedule of the current target
+   */
+  private TargetSchedule targetSchedule() {
+    Block location = target.getLocation();
+    if (targetSchedule == null || targetSchedule.getRoom() != location) {
+      targetSchedule = TargetSchedule.of(location, rooms.get(0).getRoomId(), this::hasRoomId);
+    }
+    return targetSchedule;
+  }
+
+  private boolean hasRoomId(int roomId) {
+    return roomId >= 0 && roomId < roomsById.length 
+        ? roomsById[roomId] != null : sparseRoomsById.containsKey(roomId);
+  }
+
+  @Override
+  public int getTargetRoomIdAtTurn(int turn) {
+    if (turn < currentTurn) {
+      throw new IllegalArgumentException("Turn " + turn + " has already been played.");
+    }
+    if (target == null || target.getLocation() == null || rooms.isEmpty()) {
+      throw new IllegalArgumentException("No target set in the world "
+          + "or target does not have a current room.");
+    }
+    if (turn == currentTurn) {
+      return target.getLocation().getRoomId();
+    }
+    return targetSchedule().roomIdAfter((long) turn - currentTurn);
+  }
+
+  @Override
+  public int getNextTargetVisitTurn(int roomId) {
+    if (target == null || target.getLocation() == null || rooms.isEmpty()) {
+      throw new IllegalArgumentException("No target set in the world "
+          + "or target does not have a current room.");
+    }
+    int moves = targetSchedule().movesUntil(roomId);
+    return moves < 0 ? -1 : currentTurn + moves;
+  }
   
   /**
    * Establishes neighbor relationships among all rooms based on their proximity.
+   * Candidates come from a grid over the room rectangles, and each room's neighbors are
+   * linked in room order, the same order the pairwise loop produced.
+   * 
+   * @param linker computes the per-room lists, possibly in parallel.
    */
-  private void establishRoomNeighbors() {
-    for (int i = 0; i < rooms.size(); i++) {
-      Block currentRoom = rooms.get(i);
-      for (int j = 0; j < rooms.size(); j++) {
-        if (i != j) { 
-          Block otherRoom = rooms.get(j);
-          currentRoom.addNeighbor((Room) otherRoom);
-        }
+  private void establishRoomNeighbors(RoomLinker linker) {
+    int[][] boxes = roomBoxes();
+    RoomGrid grid = new RoomGrid(boxes);
+    int[][] links = linker.link(new RoomLinker.LinkRule() {
+      @Override
+      public int candidates(int room, int[] marks, int[] out) {
+        int[] box = boxes[room];
+        return grid.collect((long) box[0] - 1, (long) box[1] - 1, 
+            (long) box[2] + 1, (long) box[3] + 1, marks, room + 1, out, 0);
       }
-    }
+
+      @Override
+      public boolean accepts(int room, int other) {
+        return ((Room) rooms.get(room)).areNeighbors((Room) rooms.get(other));
+      }
+    });
+    this.adjacency = new RoomGraph(links);
   }
   
   /**
    * Establishes visibility relationships among all rooms based on their line of sight.
+   * Only rooms sharing a row or a column can see each other, and never across a line that
+   * is empty where the room stands, so candidates are taken from the room grid strips
+   * between the nearest such lines on each side and checked in room order.
+   * 
+   * @param linker computes the per-room lists, possibly in parallel.
+   */
+  private void establishRoomVisble(RoomLinker linker) {
+    int[][] boxes = roomBoxes();
+    RoomGrid grid = new RoomGrid(boxes);
+    int[][] links = linker.link(new RoomLinker.LinkRule() {
+      @Override
+      public int candidates(int room, int[] marks, int[] out) {
+        int[] box = boxes[room];
+        int count = grid.collect(occupancy.emptyRowBefore(box[0], box[1], box[3]) + 1, box[1], 
+            occupancy.emptyRowAfter(box[2], box[1], box[3]) - 1, box[3], 
+            marks, room + 1, out, 0);
+        return grid.collect(box[0], occupancy.emptyColumnBefore(box[1], box[0], box[2]) + 1, 
+            box[2], occupancy.emptyColumnAfter(box[3], box[0], box[2]) - 1, 
+            marks, room + 1, out, count);
+      }
+
+      @Override
+      public boolean accepts(int room, int other) {
+        return ((Room) rooms.get(room)).canSeeFrom((Room) rooms.get(other));
+      }
+    });
+    this.visibility = new RoomGraph(links);
+  }
+
+  /**
+   * Fills every room's neighbor and visible-from lists from the room graphs, in the
+   * graphs' ascending room order.
    */
-  private void establishRoomVisble() {
+  private void linkRooms() {
     for (int i = 0; i < rooms.size(); i++) {
-      Block currentRoom = rooms.get(i);
-      for (int j = 0; j < rooms.size(); j++) {
-        if (i != j) { 
-          Block otherRoom = rooms.get(j);
-          currentRoom.addVisibleFromRoom((Room) otherRoom);
-        }
+      Room currentRoom = (Room) rooms.get(i);
+      for (int k = 0, degree = adjacency.degree(i); k < degree; k++) {
+        currentRoom.linkNeighbor((Room) rooms.get(adjacency.neighbor(i, k)));
+      }
+      for (int k = 0, degree = visibility.degree(i); k < degree; k++) {
+        currentRoom.linkVisibleFrom((Room) rooms.get(visibility.neighbor(i, k)));
+      }
+    }
+  }
+
+  /**
+   * Hands the room matrices to every room and remembers which room sits at each graph
+   * position, so lookups by position keep working if the room list is edited later.
+   */
+  private void attachRoomGraphs() {
+    adjacencyMatrix = new RoomMatrix(adjacency);
+    visibilityMatrix = new RoomMatrix(visibility);
+    graphRooms = new Room[rooms.size()];
+    for (int i = 0; i < graphRooms.length; i++) {
+      graphRooms[i] = (Room) rooms.get(i);
+      graphRooms[i].attachGraphs(adjacencyMatrix, visibilityMatrix, i);
+    }
+  }
+
+  /**
+   * Returns the position of a room in the room matrices, or -1 if the room does not
+   * belong to them, such as a room added by hand or one whose links were edited.
+   */
+  private int matrixPosition(Block room) {
+    if (room instanceof Room && ((Room) room).getAdjacency() == adjacencyMatrix 
+        && adjacencyMatrix != null) {
+      return ((Room) room).getPosition();
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the rooms from which a player in the given room is noticed: the room itself
+   * and its neighbors, following the same rule as {@link #canPlayerBeSeenByAny(int)}.
+   * 
+   * @param roomId the observed room.
+   * @return a set of room ids
+   * @throws IllegalArgumentException if the room id is not valid.
+   */
+  public BitSet getObservingRooms(int roomId) {
+    Block room = getRoomById(roomId);
+    BitSet observers = new BitSet();
+    observers.set(room.getRoomId());
+    int position = matrixPosition(room);
+    if (position >= 0) {
+      BitSet positions = new BitSet(graphRooms.length);
+      adjacencyMatrix.or(position, positions);
+      for (int p = positions.nextSetBit(0); p >= 0; p = positions.nextSetBit(p + 1)) {
+        observers.set(graphRooms[p].getRoomId());
+      }
+    } else {
+      for (Block neighbor : room.getNeighbor()) {
+        observers.set(neighbor.getRoomId());
       }
     }
+    return observers;
+  }
+
+  /**
+   * Returns the players currently standing in a room from which the given room is
+   * observed, see {@link #getObservingRooms(int)}.
+   * 
+   * @param roomId the observed room.
+   * @return a set of player ids
+   * @throws IllegalArgumentException if the room id is not valid.
+   */
+  public BitSet getObservingPlayers(int roomId) {
+    Block room = getRoomById(roomId);
+    BitSet observers = new BitSet();
+    addPlayerIds(room, observers);
+    int position = matrixPosition(room);
+    if (position >= 0) {
+      RoomGraph graph = adjacencyMatrix.getGraph();
+      for (int k = 0, degree = graph.degree(position); k < degree; k++) {
+        addPlayerIds(graphRooms[graph.neighbor(position, k)], observers);
+      }
+    } else {
+      for (Block neighbor : room.getNeighbor()) {
+        addPlayerIds(neighbor, observers);
+      }
+    }
+    return observers;
+  }
+
+  private void addPlayerIds(Block room, BitSet out) {
+    for (CharacterPlayer player : occupants.playersIn(room)) {
+      out.set(player.getPlayerId());
+    }
+  }
+
+
+  /**
+   * Returns the neighbor graph built when the world was loaded. Room positions in the
+   * graph are room ids minus one.
+   * 
+   * @return the immutable adjacency graph
+   */
+  public RoomGraph getAdjacency() {
+    return adjacency;
+  }
+
+  /**
+   * Returns the visible-from graph built when the world was loaded. Room positions in the
+   * graph are room ids minus one.
+   * 
+   * @return the immutable visibility graph
+   */
+  public RoomGraph getVisibility() {
+    return visibility;
+  }
+
+  /**
+   * Returns the world file content this world was loaded from.
+   * 
+   * @return the typed world content
+   */
+  WorldSpec getSpec() {
+    return new WorldSpec(rows, cols, worldName, targetHealth, targetName, petName,
+        roomRecords, itemRecords);
+  }
+
+  /**
+   * Checks whether the rooms and their links are still exactly those loaded, with no room
+   * added and no link edited by hand since.
+   * 
+   * @return true if the room graphs describe every room of the world
+   */
+  boolean hasLoadedRooms() {
+    return graphRooms != null && rooms.size() == graphRooms.length
+        && !adjacencyMatrix.isEdited() && !visibilityMatrix.isEdited();
+  }
+
+  /**
+   * Returns the pet's tour from the first room, the tour it starts on when the world is
+   * loaded.
+   * 
+   * @return the tour as room positions
+   */
+  int[] getStartPetTour() {
+    return startTour;
+  }
+
+  /**
+   * Builds a new world with the content, room links and pet tour this world was loaded
+   * with, without linking rooms or searching for the tour again. Players, moves and picked
+   * up items are not copied. Copying only reads this world, so several threads may copy
+   * it at once as long as it is not changed meanwhile.
+   * 
+   * @return a new world as this one was when loaded
+   * @throws IllegalArgumentException if rooms were added or linked by hand since loading.
+   */
+  public World copyAsLoaded() {
+    if (!hasLoadedRooms()) {
+      throw new IllegalArgumentException(
+          "Only a world as loaded from a file can be copied, its rooms were changed.");
+    }
+    return new World(getSpec(), adjacency, visibility, startTour);
+  }
+
+  private int[][] roomBoxes() {
+    int[][] boxes = new int[rooms.size()][];
+    for (int i = 0; i < boxes.length; i++) {
+      boxes[i] = ((Room) rooms.get(i)).getCoordinates();
+    }
+    return boxes;
   }
   
   @Override
   public String getRoomOccupants(Block visibleRoom) {
     StringBuilder occupants = new StringBuilder();
     boolean isOccupied = false;
-    if (target != null && target.getLocation().equals(visibleRoom)) {
+    if (target != null && this.occupants.hasTarget(visibleRoom)) {
       occupants.append("Target: ").append(target.getCharacterName()).append("\n");
       isOccupied = true;
     }
-    for (CharacterPlayer player : players) {
-      if (player.getLocation().equals(visibleRoom)) {
-        if (occupants.length() > 0) {
-          occupants.append(", ");
-        }
-        occupants.append("Player: ").append(player.getCharacterName());
-        isOccupied = true;
+    for (CharacterPlayer player : this.occupants.playersIn(visibleRoom)) {
+      if (occupants.length() > 0) {
+        occupants.append(", ");
       }
+      occupants.append("Player: ").append(player.getCharacterName());
+      isOccupied = true;
     }
     return isOccupied ? occupants.toString() : "No occupants";
   }
@@ -507,6 +866,7 @@ public class World implements WorldOutline {
     Block startRoom = rooms.get(startRoomIndex - 1);
     Player newPlayer = new Player(playerName, startRoom, nextPlayerId++, itemLimit);
     players.add(newPlayer);
+    newPlayer.trackOccupancy(occupants);
     return newPlayer;
   }
 
@@ -592,44 +952,57 @@ public class World implements WorldOutline {
 
   @Override
   public String getPlayerInfo(int playerId) {
-    for (CharacterPlayer player : players) {
-      if (player.getPlayerId() == playerId) {
-        return player.getCharacterInfo();
-      }
+    CharacterPlayer player = findPlayer(playerId);
+    if (player != null) {
+      return player.getCharacterInfo();
     }
     throw new IllegalArgumentException("Player with ID " + playerId + " not found.");
   }
   
   private CharacterPlayer getPlayerById(int playerId) {
-    for (CharacterPlayer player : players) {
-      if (player.getPlayerId() == playerId) {
-        return player;
-      }
+    CharacterPlayer player = findPlayer(playerId);
+    if (player != null) {
+      return player;
     }
     throw new IllegalArgumentException("playerID not valid.");
   }
 
+  /**
+   * Finds a player by id. Ids are handed out in creation order starting at 0 and players
+   * are never removed, so the player list itself is the dense index.
+   */
+  private CharacterPlayer findPlayer(int playerId) {
+    if (playerId >= 0 && playerId < players.size()) {
+      return players.get(playerId);
+    }
+    return null;
+  }
+
   @Override
   public Block getRoomById(int roomId) {
-    for (Block room : rooms) {
-      if (room.getRoomId() == roomId) {
-        return room;
-      }
+    Block room = roomId >= 0 && roomId < roomsById.length 
+        ? roomsById[roomId] : sparseRoomsById.get(roomId);
+    if (room != null) {
+      return room;
     }
     throw new IllegalArgumentException("roomID not valid.");
   }
   
   private Block getRoomByName(String roomName) {
-    for (Block room : rooms) {
-      if (room.getRoomName().equalsIgnoreCase(roomName)) {
-        return room;
-      }
+    Block room = roomsByName.get(roomName);
+    if (room != null) {
+      return room;
     }
     throw new IllegalArgumentException("roomName not valid.");
   }
 
   @Override
   public String movePlayer(int playerId, int roomId) {
+    return applyPlayerMove(playerId, roomId).toText();
+  }
+
+  @Override
+  public GameEvent.PlayerMoved applyPlayerMove(int playerId, int roomId) {
     CharacterPlayer player = getPlayerById(playerId);
     if (player == null) {
       throw new IllegalArgumentException("Player not found.");
@@ -640,17 +1013,22 @@ public class World implements WorldOutline {
       throw new IllegalArgumentException("Target room not found.");
     }
 
-    if (!player.getLocation().getNeighbor().contains(targetRoom)) {
+    if (!player.getLocation().isAdjacent(targetRoom)) {
       throw new IllegalArgumentException("Move not allowed. Target room is not a neighbor.");
     }
 
     player.move(targetRoom);
-    return String.format("Player %s moved to room %s.", 
-        player.getCharacterName(), targetRoom.getRoomName());
+    return emit(new GameEvent.PlayerMoved(playerId, player.getCharacterName(),
+        targetRoom.getRoomName()));
   }
 
   @Override
   public String playerPickUpItem(int playerId, String itemName) {
+    return applyItemPickup(playerId, itemName).toText();
+  }
+
+  @Override
+  public GameEvent.ItemPickedUp applyItemPickup(int playerId, String itemName) {
     CharacterPlayer player = getPlayerById(playerId);
     if (player == null) {
       throw new IllegalArgumentException("Player not found.");
@@ -666,8 +1044,7 @@ public class World implements WorldOutline {
     }
 
     player.pickItem(item);
-    return String.format("Item '%s' picked up successfully by %s.", 
-        itemName, player.getCharacterName());
+    return emit(new GameEvent.ItemPickedUp(playerId, player.getCharacterName(), itemName));
   }
 
   @Override
@@ -736,13 +1113,17 @@ public class World implements WorldOutline {
                   .collect(Collectors.toList());
   }
 
+  @Override
+  public List<Gadget> getPlayerGadgets(int playerId) {
+    return getPlayerById(playerId).getItem();
+  }
+
 
   @Override
   public int getPlayerRoomId(int playerId) {
-    for (CharacterPlayer player : players) {
-      if (player.getPlayerId() == playerId) {
-        return player.getLocation().getRoomId();  
-      }
+    CharacterPlayer player = findPlayer(playerId);
+    if (player != null) {
+      return player.getLocation().getRoomId();  
     }
     throw new IllegalArgumentException("Player with ID " + playerId + " not found.");
   }
@@ -750,7 +1131,15 @@ public class World implements WorldOutline {
   @Override
   public List<Integer> getNeighborRooms(int roomId) {
     Block room = rooms.get(roomId - 1);
-    if (room != null) {
+    if (matrixPosition(room) >= 0) {
+      int position = ((Room) room).getPosition();
+      int degree = adjacency.degree(position);
+      List<Integer> neighborIds = new ArrayList<>(degree);
+      for (int k = 0; k < degree; k++) {
+        neighborIds.add(graphRooms[adjacency.neighbor(position, k)].getRoomId());
+      }
+      return neighborIds;
+    } else if (room != null) {
       return room.getNeighbor().stream()
                  .map(Block::getRoomId)
                  .collect(Collectors.toList());
@@ -792,6 +1181,10 @@ public class World implements WorldOutline {
   @Override
   public CharacterPet createPet(String petNameInput, Block initialRoom) {
     Pet newPet = new Pet(petNameInput, initialRoom);
+    if (this.pet != null) {
+      this.pet.trackOccupancy(null);
+    }
+    newPet.trackOccupancy(occupants);
     this.pet = newPet;
     return newPet;
   }
@@ -815,45 +1208,47 @@ public class World implements WorldOutline {
     return this.pet.getCharacterInfo();
   }
   
+  /**
+   * Sets the pet's path to its depth-first tour from its current room. Tours over the
+   * room graph are computed once per start room and kept, so moving the pet back to a
+   * room it started from before costs nothing.
+   */
   @Override
   public void initializePetDfs() {
     Block startRoom = pet.getLocation();
     if (startRoom == null) {
       return; 
     }
-    Stack<Block> path = new Stack<>();
-    Set<Integer> visited = new HashSet<>();
-    dfsVisit(startRoom, visited, path);
-    pet.setPath(path); 
-  }
-  
-  private void dfsVisit(Block room, Set<Integer> visited, Stack<Block> path) {
-    visited.add(room.getRoomId());   
-    path.push(room);                
-    
-    if (visited.size() == this.getRoomCount()) {
-      return; 
-    }
-
-    for (Block neighbor : room.getNeighbor()) {
-      if (!visited.contains(neighbor.getRoomId())) {
-        dfsVisit(neighbor, visited, path);  
-        if (visited.size() == this.getRoomCount()) {
-          return; 
-        }
-        path.push(room); 
+    int position = matrixPosition(startRoom);
+    if (position >= 0 && !adjacencyMatrix.isEdited()) {
+      int[] tour = petTours.get(position);
+      if (tour == null) {
+        tour = PetTour.of(adjacency, position, getRoomCount());
+        petTours.put(position, tour);
       }
+      pet.setTour(tour, graphRooms);
+      return;
     }
+    Block[] tourRooms = PetTour.of(startRoom, getRoomCount()).toArray(new Block[0]);
+    int[] tour = new int[tourRooms.length];
+    for (int i = 0; i < tour.length; i++) {
+      tour[i] = i;
+    }
+    pet.setTour(tour, tourRooms);
   }
 
   @Override
   public String movePetToNextRoom() {
-    if (pet.getPath().isEmpty()) {
+    return emit(nextPetMove()).toText();
+  }
+
+  private GameEvent.PetMoved nextPetMove() {
+    if (!pet.hasNextRoom()) {
       initializePetDfs();
     }
-    Block nextRoom = pet.getPath().pop();  
+    Block nextRoom = pet.nextRoom();  
     pet.move(nextRoom);  
-    return String.format("Pet moved to room: %s", nextRoom.getRoomName());
+    return new GameEvent.PetMoved(-1, nextRoom.getRoomName());
   }
   
   @Override
@@ -862,23 +1257,20 @@ public class World implements WorldOutline {
     if (targetPlayer == null) {
       throw new IllegalArgumentException("Player with ID " + playerId + " does not exist.");
     }
-    Block petLocation = pet.getLocation();
-    if (petLocation.equals(targetPlayer.getLocation())) {
-      for (CharacterPlayer player : players) {
-        if (player.getPlayerId() != playerId) {
-          if (targetPlayer.getLocation().equals(player.getLocation())) {
-            return true; 
-          }
-        }
-      }
-      return false; 
+    Block room = targetPlayer.getLocation();
+    if (occupants.playerCount(room) > 1) {
+      return true;
     }
-    
-    for (CharacterPlayer player : players) {
-      if (player.getPlayerId() != playerId) {
-        if (player.canSee(targetPlayer)) {
-          return true;  
-        }
+    if (occupants.hasPet(room)) {
+      return false;
+    }
+    int position = matrixPosition(room);
+    if (position >= 0) {
+      return adjacencyMatrix.intersects(position, occupants.occupiedRooms());
+    }
+    for (Block neighbor : room.getNeighbor()) {
+      if (occupants.playerCount(neighbor) > 0) {
+        return true;
       }
     }
     return false;  
@@ -886,9 +1278,17 @@ public class World implements WorldOutline {
   
   @Override
   public String movePet(int playerId, int targetRoomId) {
+    if (getPlayerById(playerId) == null) {
+      return "Error: Player not found.";
+    }
+    return applyPetMove(playerId, targetRoomId).toText();
+  }
+
+  @Override
+  public GameEvent.PetMoved applyPetMove(int playerId, int targetRoomId) {
     CharacterPlayer player = getPlayerById(playerId);
     if (player == null) {
-      return "Error: Player not found.";
+      throw new IllegalArgumentException("Error: Player not found.");
     }
     Block currentRoom = player.getLocation();
     Block petRoom = pet.getLocation();
@@ -903,7 +1303,7 @@ public class World implements WorldOutline {
     }
     pet.move(targetRoom);
     this.initializePetDfs();
-    return "Pet has been moved to " + targetRoom.getRoomName() + ".";
+    return emit(new GameEvent.PetMoved(playerId, targetRoom.getRoomName()));
   }
   
   @Override
@@ -931,31 +1331,34 @@ public class World implements WorldOutline {
   
   @Override
   public String murderAttempt(int playerId) {
+    return applyMurderAttempt(playerId).toText();
+  }
+
+  @Override
+  public GameEvent.AttackAttempted applyMurderAttempt(int playerId) {
     CharacterPlayer player = getPlayerById(playerId);
     if (!canMurderAttempt(playerId)) {
       throw new IllegalArgumentException(
           "Player " + player.getCharacterName() + " is not in the same room as the target.");
     }
+    GameEvent.Outcome outcome;
     if (canPlayerBeSeenByAny(playerId)) {
-      return "Failed: Player " + player.getCharacterName()  
-             + " was seen and cannot proceed with the attack.";
-    }
-    int healthBefore = target.getHealthPoint();
-    player.murder(target);
-    int healthAfter = target.getHealthPoint();
-    if (healthAfter < healthBefore) {
-      return "Success: Target's health reduced to " + healthAfter + ".";
+      outcome = GameEvent.Outcome.SEEN;
+    } else {
+      int healthBefore = target.getHealthPoint();
+      player.murder(target);
+      outcome = target.getHealthPoint() < healthBefore
+          ? GameEvent.Outcome.HIT : GameEvent.Outcome.NO_EFFECT;
     }
-  
-    return "Failed: Attack had no effect on the target.";
+    return emit(new GameEvent.AttackAttempted(playerId, player.getCharacterName(), outcome,
+        target.getHealthPoint()));
   }
   
   @Override
   public Gadget getItemByName(String itemName) {
-    for (Gadget item : items) {
-      if (item.getItemName().equalsIgnoreCase(itemName)) {
-        return item;
-      }
+    Gadget item = itemsByName.get(itemName);
+    if (item != null) {
+      return item;
     }
     throw new IllegalArgumentException("Item with name " + itemName + " not found.");
   }
@@ -973,6 +1376,10 @@ public class World implements WorldOutline {
   
   @Override
   public void removePet() {
+    if (this.pet != null) {
+      this.pet.trackOccupancy(null);
+    }
+    occupants.petMoved(null);
     this.pet = null;
   }
   
@@ -1024,6 +1431,7 @@ public class World implements WorldOutline {
   @Override
   public void setRunning(boolean running) {
     this.isRunning = running;
+    commit();
   }
   
   @Override
@@ -1034,6 +1442,7 @@ public class World implements WorldOutline {
   @Override
   public void setRunningGui(boolean running) {
     this.isRunningGui = running;
+    commit();
   }
   
   @Override
@@ -1044,6 +1453,7 @@ public class World implements WorldOutline {
   @Override
   public void setCurrentTurn(int currentTurnInput) {
     this.currentTurn = currentTurnInput;
+    commit();
   }
   
   @Override
@@ -1058,16 +1468,44 @@ public class World implements WorldOutline {
   
   @Override
   public String advanceTurn() {
+    return applyTurnAdvance().toText();
+  }
+
+  @Override
+  public GameEvent.TurnAdvanced applyTurnAdvance() {
     currentTurn++;
     if (currentTurn > maxTurns) {
       isRunning = false;
-      return "Maximum turns reached. Ending game.";
+      commit();
+      return emit(new GameEvent.TurnAdvanced(currentTurn, -1, true, null, null));
     } else {
       this.currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-      this.moveTargetToNextRoom();
-      String result = this.movePetToNextRoom();
-      return result;
+      GameEvent.TargetMoved targetMove = nextTargetMove();
+      GameEvent.PetMoved petMove = nextPetMove();
+      commit();
+      int playerId = currentPlayerIndex < playerIds.size()
+          ? playerIds.get(currentPlayerIndex) : -1;
+      return emit(new GameEvent.TurnAdvanced(currentTurn, playerId, false, targetMove, petMove));
+    }
+  }
+
+  @Override
+  public void setEventSink(GameEventSink sink) {
+    this.eventSink = sink;
+  }
+
+  /**
+   * Hands an event to the sink, if there is one.
+   *
+   * @param <E> the event's type.
+   * @param event the event.
+   * @return the event
+   */
+  private <E extends GameEvent> E emit(E event) {
+    if (eventSink != null) {
+      eventSink.accept(event);
     }
+    return event;
   }
   
   @Override
@@ -1097,11 +1535,13 @@ public class World implements WorldOutline {
   
   @Override
   public Map<Integer, Rectangle> getRoomCoordinates() {
+    worldMap();
     return new HashMap<>(roomCoordinates);
   }
 
   @Override
 public Map<Integer, Rectangle> getPlayerCoordinates() {
+    worldMap().locatePlayers(targetRoomName(), tokenIds(), tokenRooms(), playerPositions);
     return new HashMap<>(playerPositions);
   }
   
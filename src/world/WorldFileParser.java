@@ -0,0 +1,266 @@
+package world;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass parser for the world file format. Characters are pulled from the source in
+ * blocks and tokenized in place, so coordinates and counts are decoded straight into ints
+ * and only names become Strings. Malformed input is reported with its line and column.
+ *
+ * <p>The format is, with blank lines allowed between records:
+ * <pre>
+ * rows cols world name
+ * health target name
+ * pet name
+ * room count
+ * top left bottom right room name   (once per room)
+ * item count
+ * room index murder value item name (once per item)
+ * </pre>
+ */
+public final class WorldFileParser {
+  private static final int EOF = -1;
+  private static final int NONE = -2;
+
+  private final Readable source;
+  private final CharBuffer buffer = CharBuffer.allocate(8192);
+  private final StringBuilder text = new StringBuilder();
+  private int peeked = NONE;
+  private int line = 1;
+  private int column = 0;
+
+  /**
+   * Constructs a parser reading from the given source.
+   *
+   * @param sourceInput the world file content.
+   * @throws IllegalArgumentException if the source is null.
+   */
+  public WorldFileParser(Readable sourceInput) {
+    if (sourceInput == null) {
+      throw new IllegalArgumentException("Input source cannot be null");
+    }
+    this.source = sourceInput;
+    this.buffer.flip();
+  }
+
+  /**
+   * Parses the whole source into a {@link WorldSpec}. A short item list is accepted, the
+   * same way the original loader treated it; anything else missing is an error.
+   *
+   * @return the typed world content.
+   * @throws IllegalArgumentException if the input is malformed, naming line and column.
+   */
+  public WorldSpec parse() {
+    requireRecord("world header");
+    final int rows = readInt("row count");
+    final int cols = readInt("column count");
+    final String worldName = readName(true);
+
+    requireRecord("target line");
+    final int targetHealth = readInt("target health");
+    final String targetName = readName(false);
+
+    requireRecord("pet name");
+    final String petName = readName(false);
+
+    requireRecord("room count");
+    int roomCount = readInt("room count");
+    expectEndOfLine("room count");
+    if (roomCount < 1) {
+      throw error(line, column, "world must contain at least one room");
+    }
+    List<RoomRecord> rooms = new ArrayList<>(Math.min(roomCount, 1 << 16));
+    for (int i = 1; i <= roomCount; i++) {
+      requireRecord("room " + i);
+      int top = readInt("room coordinate");
+      int left = readInt("room coordinate");
+      int bottom = readInt("room coordinate");
+      int right = readInt("room coordinate");
+      String roomName = readName(true);
+      if (roomName.isEmpty()) {
+        throw error(line, column + 1, "Insufficient parts to parse room details.");
+      }
+      rooms.add(new RoomRecord(roomName, i, top, left, bottom, right));
+    }
+
+    List<ItemRecord> items = new ArrayList<>();
+    if (skipBlankLines()) {
+      int itemCount = readInt("item count");
+      expectEndOfLine("item count");
+      if (itemCount < 0) {
+        throw error(line, column, "item count cannot be negative");
+      }
+      for (int i = 0; i < itemCount && skipBlankLines(); i++) {
+        int location = readInt("item room index");
+        int murderValue = readInt("item murder value");
+        items.add(new ItemRecord(readName(true), location, murderValue));
+      }
+    }
+    return new WorldSpec(rows, cols, worldName, targetHealth, targetName, petName, rooms, items);
+  }
+
+  private void requireRecord(String what) {
+    if (!skipBlankLines()) {
+      throw error(line, column + 1, "unexpected end of input, expected " + what);
+    }
+  }
+
+  private boolean skipBlankLines() {
+    int c = peek();
+    while (c == '\n' || isSpace(c)) {
+      next();
+      c = peek();
+    }
+    return c != EOF;
+  }
+
+  private void skipSpaces() {
+    while (isSpace(peek())) {
+      next();
+    }
+  }
+
+  private int readInt(String what) {
+    skipSpaces();
+    final int startColumn = column + 1;
+    int c = peek();
+    boolean negative = false;
+    if (c == '-' || c == '+') {
+      negative = c == '-';
+      next();
+      c = peek();
+    }
+    if (!isDigit(c)) {
+      throw error(line, column + 1, "expected " + what);
+    }
+    long value = 0;
+    while (isDigit(peek())) {
+      value = value * 10 + (next() - '0');
+      if (value > Integer.MAX_VALUE + 1L) {
+        throw error(line, startColumn, what + " is out of range");
+      }
+    }
+    c = peek();
+    if (c != EOF && c != '\n' && !isSpace(c)) {
+      throw error(line, column + 1, "expected " + what);
+    }
+    value = negative ? -value : value;
+    if (value > Integer.MAX_VALUE) {
+      throw error(line, startColumn, what + " is out of range");
+    }
+    return (int) value;
+  }
+
+  /**
+   * Reads the rest of the line with surrounding whitespace removed. When collapse is set,
+   * inner whitespace runs become a single space, which matches how names split on
+   * whitespace were joined back together.
+   */
+  private String readName(boolean collapse) {
+    skipSpaces();
+    text.setLength(0);
+    boolean pendingSpace = false;
+    int c = peek();
+    while (c != EOF && c != '\n') {
+      next();
+      if (isSpace(c)) {
+        if (collapse) {
+          pendingSpace = true;
+        } else {
+          text.append((char) c);
+        }
+      } else {
+        if (pendingSpace) {
+          text.append(' ');
+          pendingSpace = false;
+        }
+        text.append((char) c);
+      }
+      c = peek();
+    }
+    int end = text.length();
+    while (end > 0 && isSpace(text.charAt(end - 1))) {
+      end--;
+    }
+    return text.substring(0, end);
+  }
+
+  private void expectEndOfLine(String what) {
+    skipSpaces();
+    int c = peek();
+    if (c != EOF && c != '\n') {
+      throw error(line, column + 1, "unexpected text after " + what);
+    }
+  }
+
+  private int peek() {
+    if (peeked == NONE) {
+      peeked = readRaw();
+    }
+    return peeked;
+  }
+
+  private int next() {
+    int c = peek();
+    peeked = NONE;
+    if (c == '\n') {
+      line++;
+      column = 0;
+    } else if (c != EOF) {
+      column++;
+    }
+    return c;
+  }
+
+  /**
+   * Returns the next character from the source with "\r\n" and "\r" folded into "\n".
+   */
+  private int readRaw() {
+    if (!fill()) {
+      return EOF;
+    }
+    char c = buffer.get();
+    if (c == '\r') {
+      if (fill() && buffer.get(buffer.position()) == '\n') {
+        buffer.get();
+      }
+      return '\n';
+    }
+    return c;
+  }
+
+  private boolean fill() {
+    if (buffer.hasRemaining()) {
+      return true;
+    }
+    buffer.clear();
+    int read;
+    try {
+      do {
+        read = source.read(buffer);
+      } while (read == 0);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Error reading world input: " + e.getMessage());
+    } finally {
+      buffer.flip();
+    }
+    return read > 0;
+  }
+
+  private static boolean isSpace(int c) {
+    return c != EOF && c != '\n' && c <= ' ';
+  }
+
+  private static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static IllegalArgumentException error(int lineNumber, int columnNumber,
+      String message) {
+    return new IllegalArgumentException(
+        String.format("Line %d, column %d: %s", lineNumber, Math.max(columnNumber, 1), message));
+  }
+}
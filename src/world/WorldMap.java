@@ -0,0 +1,373 @@
+package world;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The picture of the world in two layers. The room layer, walls and labels, never changes
+ * once the world is loaded and is drawn a single time. The token layer, the target and the
+ * players, is drawn on a copy of it: each frame works out where every token goes, and only
+ * the tokens that appeared, moved or changed colour are touched. Their old spots are
+ * restored from the room layer, and any token overlapping a touched spot is drawn again in
+ * its usual order, so a frame costs about as much as the number of tokens that changed.
+ *
+ * <p>Whole-map images are only made when the full picture is asked for. Any area of the
+ * map can also be painted on its own, rooms and tokens separately, for views that show the
+ * map in tiles; the rooms reaching into the area are found through a grid over the pixels
+ * each room paints, label included, so an area looks exactly like that part of the full
+ * picture.
+ */
+final class WorldMap {
+  private static final int TOKEN_SIZE = 20;
+
+  private final List<RoomRecord> roomRecords;
+  private final int width;
+  private final int height;
+  private final int scaleFactor;
+  private final Font font;
+  private final FontMetrics metrics;
+  private final Map<Integer, Rectangle> roomBounds = new HashMap<>();
+  private final Map<String, List<Integer>> recordsByName = new HashMap<>();
+  private BufferedImage rooms;
+  private BufferedImage frame;
+  private List<Token> drawn = new ArrayList<>();
+  private RoomGrid paintGrid;
+  private int[] paintMarks;
+  private int[] paintFound;
+  private int paintMark;
+
+  /**
+   * Lays out the rooms of the world.
+   *
+   * @param roomRecordsInput the rooms of the world, in drawing order.
+   * @param cols the world's width in cells.
+   * @param rows the world's height in cells.
+   * @param scaleFactorInput the size of a cell in pixels.
+   */
+  WorldMap(List<RoomRecord> roomRecordsInput, int cols, int rows, int scaleFactorInput) {
+    this.roomRecords = roomRecordsInput;
+    this.scaleFactor = scaleFactorInput;
+    this.width = cols * scaleFactor;
+    this.height = rows * scaleFactor;
+    this.font = new Font("Arial", Font.BOLD, scaleFactor / 3);
+    Graphics scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).createGraphics();
+    this.metrics = scratch.getFontMetrics(font);
+    scratch.dispose();
+    for (int i = 0; i < roomRecords.size(); i++) {
+      RoomRecord room = roomRecords.get(i);
+      roomBounds.put(room.getRoomId(), roomRectangle(room));
+      recordsByName.computeIfAbsent(room.getRoomName(), name -> new ArrayList<>(1)).add(i);
+    }
+  }
+
+  private Rectangle roomRectangle(RoomRecord room) {
+    int x1Draw = room.getLeft() * scaleFactor;
+    int y1Draw = room.getTop() * scaleFactor;
+    int width = ((room.getRight() - room.getLeft() + 1) * scaleFactor) - 1;
+    int height = ((room.getBottom() - room.getTop() + 1) * scaleFactor) - 1;
+    return new Rectangle(x1Draw, y1Draw, width, height);
+  }
+
+  private static String label(RoomRecord room) {
+    return room.getRoomName() + " (" + room.getRoomId() + ")";
+  }
+
+  private void paintRoom(Graphics g, RoomRecord room) {
+    Rectangle bounds = roomRectangle(room);
+    if (bounds.width > 0 && bounds.height > 0) {
+      g.setColor(Color.WHITE);
+      g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
+      g.setColor(Color.BLACK);
+      g.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+      g.drawString(label(room), bounds.x + 3, bounds.y + (bounds.height / 2) + 5);
+    }
+  }
+
+  /**
+   * Returns the size of the whole map in pixels.
+   *
+   * @return the map width and height
+   */
+  Dimension getSize() {
+    return new Dimension(width, height);
+  }
+
+  /**
+   * Returns the pixel rectangle of every room by room id.
+   *
+   * @return the room rectangles
+   */
+  Map<Integer, Rectangle> getRoomBounds() {
+    return roomBounds;
+  }
+
+  /**
+   * Brings the token layer up to date and returns the picture of the whole map. The same
+   * image is returned and updated by every call.
+   *
+   * @param targetRoom name of the target's room, or null if there is no target.
+   * @param playerIds the player ids, in drawing order.
+   * @param playerRooms name of each player's room, null for a player not on the map.
+   * @param currentPlayerId id of the player whose turn it is, drawn in blue.
+   * @param playerPositions receives the oval of every drawn player by player id.
+   * @return the picture of the world
+   */
+  BufferedImage render(String targetRoom, int[] playerIds, String[] playerRooms,
+      int currentPlayerId, Map<Integer, Rectangle> playerPositions) {
+    if (frame == null) {
+      rooms = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      Graphics layer = rooms.createGraphics();
+      layer.setColor(Color.WHITE);
+      layer.fillRect(0, 0, width, height);
+      layer.setFont(font);
+      for (RoomRecord room : roomRecords) {
+        paintRoom(layer, room);
+      }
+      layer.dispose();
+      frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+      frame.setData(rooms.getRaster());
+    }
+    Graphics g = frame.createGraphics();
+    g.setFont(font);
+    List<Token> tokens = layout(targetRoom, playerIds, playerRooms, currentPlayerId,
+        playerPositions);
+    Set<Token> kept = new HashSet<>(drawn);
+    kept.retainAll(tokens);
+    List<Rectangle> dirty = new ArrayList<>();
+    for (Token token : drawn) {
+      if (!kept.contains(token)) {
+        restore(g, token.bounds);
+        dirty.add(token.bounds);
+      }
+    }
+    for (Token token : tokens) {
+      if (!kept.contains(token) || overlapsAny(token.bounds, dirty)) {
+        token.draw(g);
+        dirty.add(token.bounds);
+      }
+    }
+    g.dispose();
+    this.drawn = tokens;
+    return frame;
+  }
+
+  /**
+   * Works out where every player is drawn without drawing anything.
+   *
+   * @param targetRoom name of the target's room, or null if there is no target.
+   * @param playerIds the player ids, in drawing order.
+   * @param playerRooms name of each player's room, null for a player not on the map.
+   * @param playerPositions receives the oval of every player on the map by player id.
+   */
+  void locatePlayers(String targetRoom, int[] playerIds, String[] playerRooms,
+      Map<Integer, Rectangle> playerPositions) {
+    layout(targetRoom, playerIds, playerRooms, -1, playerPositions);
+  }
+
+  /**
+   * Paints the rooms reaching into an area of the map, on a white background, the way the
+   * full picture shows them.
+   *
+   * @param g where to paint, in map pixel coordinates.
+   * @param area the area of the map to cover.
+   */
+  void paintRooms(Graphics g, Rectangle area) {
+    if (paintGrid == null) {
+      int[][] boxes = new int[roomRecords.size()][];
+      for (int i = 0; i < boxes.length; i++) {
+        RoomRecord room = roomRecords.get(i);
+        Rectangle bounds = roomRectangle(room);
+        bounds.add(new Rectangle(bounds.x + 3, bounds.y + (bounds.height / 2) + 5
+            - metrics.getMaxAscent() - 1, metrics.stringWidth(label(room)) + 2,
+            metrics.getMaxAscent() + metrics.getMaxDescent() + 2));
+        boxes[i] = new int[] {bounds.y, bounds.x, bounds.y + bounds.height,
+            bounds.x + bounds.width};
+      }
+      paintGrid = new RoomGrid(boxes);
+      paintMarks = new int[boxes.length];
+      paintFound = new int[boxes.length];
+    }
+    g.setColor(Color.WHITE);
+    g.fillRect(area.x, area.y, area.width, area.height);
+    g.setFont(font);
+    if (++paintMark == 0) {
+      Arrays.fill(paintMarks, 0);
+      paintMark = 1;
+    }
+    int count = paintGrid.collect(area.y, area.x, (long) area.y + area.height,
+        (long) area.x + area.width, paintMarks, paintMark, paintFound, 0);
+    Arrays.sort(paintFound, 0, count);
+    for (int i = 0; i < count; i++) {
+      paintRoom(g, roomRecords.get(paintFound[i]));
+    }
+  }
+
+  /**
+   * Paints the target and player tokens reaching into an area of the map.
+   *
+   * @param g where to paint, in map pixel coordinates.
+   * @param area the area of the map to cover.
+   * @param targetRoom name of the target's room, or null if there is no target.
+   * @param playerIds the player ids, in drawing order.
+   * @param playerRooms name of each player's room, null for a player not on the map.
+   * @param currentPlayerId id of the player whose turn it is, drawn in blue.
+   */
+  void paintTokens(Graphics g, Rectangle area, String targetRoom, int[] playerIds,
+      String[] playerRooms, int currentPlayerId) {
+    g.setFont(font);
+    for (Token token : layout(targetRoom, playerIds, playerRooms, currentPlayerId,
+        new HashMap<>())) {
+      if (token.bounds.intersects(area)) {
+        token.draw(g);
+      }
+    }
+  }
+
+  /**
+   * Places every token the way a full redraw would, room by room in drawing order, the
+   * target first and then the room's players in the order given.
+   */
+  private List<Token> layout(String targetRoom, int[] playerIds, String[] playerRooms,
+      int currentPlayerId, Map<Integer, Rectangle> playerPositions) {
+    Map<Integer, List<Integer>> playersByRecord = new TreeMap<>();
+    Set<Integer> targetRecords = new HashSet<>();
+    if (targetRoom != null) {
+      for (int record : recordsNamed(targetRoom)) {
+        targetRecords.add(record);
+        playersByRecord.computeIfAbsent(record, r -> new ArrayList<>());
+      }
+    }
+    for (int i = 0; i < playerIds.length; i++) {
+      if (playerRooms[i] != null) {
+        for (int record : recordsNamed(playerRooms[i])) {
+          playersByRecord.computeIfAbsent(record, r -> new ArrayList<>()).add(playerIds[i]);
+        }
+      }
+    }
+    List<Token> tokens = new ArrayList<>();
+    for (Map.Entry<Integer, List<Integer>> entry : playersByRecord.entrySet()) {
+      Rectangle room = roomRectangle(roomRecords.get(entry.getKey()));
+      if (targetRecords.contains(entry.getKey())) {
+        tokens.add(new Token(room.x + scaleFactor / 3, room.y + scaleFactor / 3, Color.RED,
+            -1, null, metrics));
+      }
+      int playerOffset = scaleFactor / 3 + 30;
+      int playerHorizontalSpace = scaleFactor / 3;
+      for (int playerId : entry.getValue()) {
+        Color playerColor = playerId == currentPlayerId ? Color.BLUE : Color.BLACK;
+        int playerX = room.x + playerHorizontalSpace;
+        int playerY = room.y + playerOffset;
+        tokens.add(new Token(playerX, playerY, playerColor, playerId,
+            String.valueOf(playerId), metrics));
+        playerPositions.put(playerId, new Rectangle(playerX, playerY,
+            TOKEN_SIZE, TOKEN_SIZE));
+        playerHorizontalSpace += scaleFactor / 1.5;
+        if (playerId % 5 == 4) {
+          playerOffset += scaleFactor / 2;
+          playerHorizontalSpace = scaleFactor / 3;
+        }
+      }
+    }
+    return tokens;
+  }
+
+  private List<Integer> recordsNamed(String roomName) {
+    List<Integer> records = recordsByName.get(roomName);
+    return records == null ? new ArrayList<>() : records;
+  }
+
+  private void restore(Graphics g, Rectangle area) {
+    Rectangle clipped = area.intersection(new Rectangle(0, 0, frame.getWidth(),
+        frame.getHeight()));
+    if (!clipped.isEmpty()) {
+      int x2 = clipped.x + clipped.width;
+      int y2 = clipped.y + clipped.height;
+      g.drawImage(rooms, clipped.x, clipped.y, x2, y2, clipped.x, clipped.y, x2, y2, null);
+    }
+  }
+
+  private static boolean overlapsAny(Rectangle bounds, List<Rectangle> areas) {
+    for (Rectangle area : areas) {
+      if (area.intersects(bounds)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A drawn oval: the target, or a player with its id written on it. Two tokens are equal
+   * when they would leave the same pixels.
+   */
+  private static final class Token {
+    private final int x;
+    private final int y;
+    private final Color color;
+    private final int playerId;
+    private final String label;
+    private final Rectangle bounds;
+    private final int labelX;
+    private final int labelY;
+
+    private Token(int x, int y, Color color, int playerId, String label, FontMetrics fm) {
+      this.x = x;
+      this.y = y;
+      this.color = color;
+      this.playerId = playerId;
+      this.label = label;
+      Rectangle area = new Rectangle(x - 1, y - 1, TOKEN_SIZE + 2, TOKEN_SIZE + 2);
+      if (label != null) {
+        int textWidth = fm.stringWidth(label);
+        int textHeight = fm.getAscent();
+        this.labelX = x + (TOKEN_SIZE - textWidth) / 2;
+        this.labelY = y + (TOKEN_SIZE + textHeight) / 2 - fm.getDescent();
+        area.add(new Rectangle(labelX - 1, labelY - fm.getMaxAscent() - 1, textWidth + 2,
+            fm.getMaxAscent() + fm.getMaxDescent() + 2));
+      } else {
+        this.labelX = 0;
+        this.labelY = 0;
+      }
+      this.bounds = area;
+    }
+
+    private void draw(Graphics g) {
+      g.setColor(color);
+      g.fillOval(x, y, TOKEN_SIZE, TOKEN_SIZE);
+      if (label != null) {
+        g.setColor(Color.WHITE);
+        g.drawString(label, labelX, labelY);
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Token)) {
+        return false;
+      }
+      Token other = (Token) o;
+      return x == other.x && y == other.y && playerId == other.playerId
+          && color.equals(other.color);
+    }
+
+    @Override
+    public int hashCode() {
+      return ((x * 31 + y) * 31 + playerId) * 31 + color.hashCode();
+    }
+  }
+}
@@ -169,6 +169,66 @@ public interface WorldOutline extends ReadOnlyWorld {
 
   String advanceTurn();
 
+  /**
+   * Sets where the world reports its events. Without a sink, events are only returned to
+   * the caller of the method that caused them.
+   *
+   * @param sink the sink, null for none.
+   */
+  void setEventSink(GameEventSink sink);
+
+  /**
+   * Moves a player into a neighboring room, like {@link #movePlayer(int, int)}, without
+   * putting the result into words.
+   *
+   * @param playerId The ID of the player to move.
+   * @param roomId The ID of the room to move to.
+   * @return the move
+   * @throws IllegalArgumentException if the player or room is unknown or not a neighbor.
+   */
+  GameEvent.PlayerMoved applyPlayerMove(int playerId, int roomId);
+
+  /**
+   * Has a player pick up an item from their room, like
+   * {@link #playerPickUpItem(int, String)}, without putting the result into words.
+   *
+   * @param playerId The ID of the player.
+   * @param itemName The name of the item to pick up.
+   * @return the pickup
+   * @throws IllegalArgumentException if the player is unknown or the item is not in the room.
+   */
+  GameEvent.ItemPickedUp applyItemPickup(int playerId, String itemName);
+
+  /**
+   * Has a player attempt to murder the target, like {@link #murderAttempt(int)}, without
+   * putting the result into words.
+   *
+   * @param playerId The ID of the attacker.
+   * @return the attempt and how it ended
+   * @throws IllegalArgumentException if the player is not in the target's room.
+   */
+  GameEvent.AttackAttempted applyMurderAttempt(int playerId);
+
+  /**
+   * Has a player move the pet, like {@link #movePet(int, int)}, without putting the result
+   * into words.
+   *
+   * @param playerId The ID of the player moving the pet.
+   * @param targetRoomId The ID of the room to move the pet to.
+   * @return the pet's move
+   * @throws IllegalArgumentException if the player is unknown or not with the pet, or the
+   *         room does not exist.
+   */
+  GameEvent.PetMoved applyPetMove(int playerId, int targetRoomId);
+
+  /**
+   * Ends the current turn, like {@link #advanceTurn()}, without putting the result into
+   * words.
+   *
+   * @return the turn change
+   */
+  GameEvent.TurnAdvanced applyTurnAdvance();
+
   String getPlayerName(int playerId);
   
   /**
@@ -232,6 +292,16 @@ public interface WorldOutline extends ReadOnlyWorld {
    */
   List<Gadget> getItems();
 
+  /**
+   * Retrieves the items a player carries, as the items themselves rather than the
+   * descriptions {@link #getPlayerItems(int)} gives, so nothing is formatted.
+   * 
+   * @param playerId The ID of the player whose items are listed.
+   * @return A new list containing the player's items.
+   * @throws IllegalArgumentException If the player does not exist.
+   */
+  List<Gadget> getPlayerGadgets(int playerId);
+
   /**
    * Retrieves a list of all rooms in the world.
    * This method provides a safe copy of the rooms list to 
@@ -258,5 +328,13 @@ public interface WorldOutline extends ReadOnlyWorld {
   void setRunningGui(boolean running);
 
   Block getRoomById(int roomId);
+
+  /**
+   * Publishes the world as it is now as the snapshot readers see, and from then on
+   * publishes a new one after every turn and every change to whether the game is running.
+   * Call it on the thread that changes the world, after changes made outside a turn such
+   * as adding players.
+   */
+  void publishSnapshot();
   
 }
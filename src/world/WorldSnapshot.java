@@ -0,0 +1,243 @@
+package world;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of what a view shows of a world, taken when a turn is committed. A
+ * world publishes each new snapshot through a volatile reference, so a view on another
+ * thread reads a complete turn without locks while the next turn is being played, and two
+ * reads of the same snapshot always agree. Snapshots are numbered, a later one having a
+ * higher version.
+ */
+public final class WorldSnapshot {
+  private final long version;
+  private final int currentTurn;
+  private final int currentPlayerId;
+  private final boolean running;
+  private final boolean runningGui;
+  private final int targetHealth;
+  private final List<Integer> playerIds;
+  private final Map<Integer, String> playerNames;
+  private final Map<Integer, Boolean> isComputer;
+  private final Map<Integer, List<String>> playerItems;
+  private final Map<Integer, List<String>> playerRoomItems;
+  private final Map<Integer, Rectangle> playerCoordinates;
+  private final String targetRoom;
+  private final int[] tokenIds;
+  private final String[] tokenRooms;
+
+  /**
+   * Constructor for WorldSnapshot. The collections are copied.
+   */
+  WorldSnapshot(long versionInput, int currentTurnInput, int currentPlayerIdInput,
+      boolean runningInput, boolean runningGuiInput, int targetHealthInput,
+      List<Integer> playerIdsInput, Map<Integer, String> playerNamesInput,
+      Map<Integer, Boolean> isComputerInput, Map<Integer, List<String>> playerItemsInput,
+      Map<Integer, List<String>> playerRoomItemsInput,
+      Map<Integer, Rectangle> playerCoordinatesInput, String targetRoomInput,
+      int[] tokenIdsInput, String[] tokenRoomsInput) {
+    this.version = versionInput;
+    this.currentTurn = currentTurnInput;
+    this.currentPlayerId = currentPlayerIdInput;
+    this.running = runningInput;
+    this.runningGui = runningGuiInput;
+    this.targetHealth = targetHealthInput;
+    this.playerIds = Collections.unmodifiableList(new ArrayList<>(playerIdsInput));
+    this.playerNames = Collections.unmodifiableMap(new HashMap<>(playerNamesInput));
+    this.isComputer = Collections.unmodifiableMap(new HashMap<>(isComputerInput));
+    this.playerItems = copyLists(playerItemsInput);
+    this.playerRoomItems = copyLists(playerRoomItemsInput);
+    Map<Integer, Rectangle> coordinates = new HashMap<>();
+    if (playerCoordinatesInput != null) {
+      for (Map.Entry<Integer, Rectangle> entry : playerCoordinatesInput.entrySet()) {
+        coordinates.put(entry.getKey(), new Rectangle(entry.getValue()));
+      }
+    }
+    this.playerCoordinates = coordinates;
+    this.targetRoom = targetRoomInput;
+    this.tokenIds = tokenIdsInput.clone();
+    this.tokenRooms = tokenRoomsInput.clone();
+  }
+
+  /**
+   * Takes a snapshot of any world through its read-only interface, for worlds that do not
+   * publish their own. It must be called on the thread that changes the world.
+   *
+   * @param world the world.
+   * @return a snapshot of the world as it is now, with version 0
+   */
+  public static WorldSnapshot of(ReadOnlyWorld world) {
+    List<Integer> ids = world.getPlayerIds();
+    Map<Integer, List<String>> items = new HashMap<>();
+    Map<Integer, List<String>> roomItems = new HashMap<>();
+    for (int playerId : ids) {
+      items.put(playerId, world.getPlayerItems(playerId));
+      roomItems.put(playerId, world.getRoomItems(world.getPlayerRoomId(playerId)));
+    }
+    return new WorldSnapshot(0, world.getCurrentTurn(),
+        ids.isEmpty() ? -1 : world.getCurrentPlayerId(), world.getIsRunning(),
+        world.getIsRunningGui(), world.getTargetHealthPoint(), ids, world.getPlayerNames(),
+        world.getIsComputer(), items, roomItems, world.getPlayerCoordinates(), null,
+        new int[0], new String[0]);
+  }
+
+  private static Map<Integer, List<String>> copyLists(Map<Integer, List<String>> lists) {
+    Map<Integer, List<String>> copy = new HashMap<>();
+    for (Map.Entry<Integer, List<String>> entry : lists.entrySet()) {
+      copy.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+    }
+    return copy;
+  }
+
+  /**
+   * Returns the number of this snapshot, higher for later ones.
+   *
+   * @return the version
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the turn being played.
+   *
+   * @return the current turn
+   */
+  public int getCurrentTurn() {
+    return currentTurn;
+  }
+
+  /**
+   * Returns the id of the player whose turn it is.
+   *
+   * @return the current player id, or -1 if there are no players
+   */
+  public int getCurrentPlayerId() {
+    return currentPlayerId;
+  }
+
+  /**
+   * Returns whether the game is running.
+   *
+   * @return true if the game is running
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Returns whether the game is running in the Gui.
+   *
+   * @return true if the Gui game is running
+   */
+  public boolean isRunningGui() {
+    return runningGui;
+  }
+
+  /**
+   * Returns the target's health.
+   *
+   * @return the target health
+   */
+  public int getTargetHealth() {
+    return targetHealth;
+  }
+
+  /**
+   * Returns the ids of the players in turn order.
+   *
+   * @return an unmodifiable list of player ids
+   */
+  public List<Integer> getPlayerIds() {
+    return playerIds;
+  }
+
+  /**
+   * Returns the name of every player by id.
+   *
+   * @return an unmodifiable map of player names
+   */
+  public Map<Integer, String> getPlayerNames() {
+    return playerNames;
+  }
+
+  /**
+   * Returns whether each player is played by the computer, by id.
+   *
+   * @return an unmodifiable map of computer flags
+   */
+  public Map<Integer, Boolean> getIsComputer() {
+    return isComputer;
+  }
+
+  /**
+   * Returns the items a player carries, as the world lists them.
+   *
+   * @param playerId the player's id.
+   * @return an unmodifiable list of items, empty for an unknown player
+   */
+  public List<String> getPlayerItems(int playerId) {
+    return playerItems.getOrDefault(playerId, Collections.emptyList());
+  }
+
+  /**
+   * Returns the items lying in a player's room, as the world lists them.
+   *
+   * @param playerId the player's id.
+   * @return an unmodifiable list of items, empty for an unknown player
+   */
+  public List<String> getPlayerRoomItems(int playerId) {
+    return playerRoomItems.getOrDefault(playerId, Collections.emptyList());
+  }
+
+  /**
+   * Returns where every player is drawn on the map.
+   *
+   * @return a new map of player ovals by player id, in map pixels
+   */
+  public Map<Integer, Rectangle> getPlayerCoordinates() {
+    Map<Integer, Rectangle> copy = new HashMap<>();
+    for (Map.Entry<Integer, Rectangle> entry : playerCoordinates.entrySet()) {
+      copy.put(entry.getKey(), new Rectangle(entry.getValue()));
+    }
+    return copy;
+  }
+
+  /**
+   * Returns the name of the target's room, for painting.
+   *
+   * @return the room name, or null if there is no target
+   */
+  String getTargetRoom() {
+    return targetRoom;
+  }
+
+  /**
+   * Returns the player ids in drawing order, for painting.
+   *
+   * @return the player ids; the array must not be changed
+   */
+  int[] getTokenIds() {
+    return tokenIds;
+  }
+
+  /**
+   * Returns the room name of every player in drawing order, for painting.
+   *
+   * @return the room names, null for a player not on the map; the array must not be changed
+   */
+  String[] getTokenRooms() {
+    return tokenRooms;
+  }
+
+  @Override
+  public String toString() {
+    return "WorldSnapshot[version=" + version + ", turn=" + currentTurn + ", player="
+        + currentPlayerId + ", targetHealth=" + targetHealth + "]";
+  }
+}
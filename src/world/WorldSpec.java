@@ -0,0 +1,117 @@
+package world;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The typed content of a world file: map dimensions, the target and pet, and the room and
+ * item records in file order. Instances are produced by {@link WorldFileParser} and consumed
+ * by the {@link World} constructor.
+ */
+public final class WorldSpec {
+  private final int rows;
+  private final int cols;
+  private final String worldName;
+  private final int targetHealth;
+  private final String targetName;
+  private final String petName;
+  private final List<RoomRecord> rooms;
+  private final List<ItemRecord> items;
+
+  /**
+   * Constructor for WorldSpec.
+   *
+   * @param rowsInput Number of rows of the map.
+   * @param colsInput Number of columns of the map.
+   * @param worldNameInput Name of the world.
+   * @param targetHealthInput Starting health of the target.
+   * @param targetNameInput Name of the target.
+   * @param petNameInput Name of the pet.
+   * @param roomsInput Room records in file order.
+   * @param itemsInput Item records in file order.
+   */
+  public WorldSpec(int rowsInput, int colsInput, String worldNameInput, int targetHealthInput,
+      String targetNameInput, String petNameInput, List<RoomRecord> roomsInput,
+      List<ItemRecord> itemsInput) {
+    this.rows = rowsInput;
+    this.cols = colsInput;
+    this.worldName = worldNameInput;
+    this.targetHealth = targetHealthInput;
+    this.targetName = targetNameInput;
+    this.petName = petNameInput;
+    this.rooms = Collections.unmodifiableList(roomsInput);
+    this.items = Collections.unmodifiableList(itemsInput);
+  }
+
+  /**
+   * Returns the number of rows of the map.
+   *
+   * @return the row count
+   */
+  public int getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the number of columns of the map.
+   *
+   * @return the column count
+   */
+  public int getCols() {
+    return cols;
+  }
+
+  /**
+   * Returns the name of the world.
+   *
+   * @return the world name
+   */
+  public String getWorldName() {
+    return worldName;
+  }
+
+  /**
+   * Returns the starting health of the target.
+   *
+   * @return the target health
+   */
+  public int getTargetHealth() {
+    return targetHealth;
+  }
+
+  /**
+   * Returns the name of the target.
+   *
+   * @return the target name
+   */
+  public String getTargetName() {
+    return targetName;
+  }
+
+  /**
+   * Returns the name of the pet.
+   *
+   * @return the pet name
+   */
+  public String getPetName() {
+    return petName;
+  }
+
+  /**
+   * Returns the room records in file order.
+   *
+   * @return an unmodifiable list of rooms
+   */
+  public List<RoomRecord> getRooms() {
+    return rooms;
+  }
+
+  /**
+   * Returns the item records in file order.
+   *
+   * @return an unmodifiable list of items
+   */
+  public List<ItemRecord> getItems() {
+    return items;
+  }
+}
@@ -0,0 +1,81 @@
+package world;
+
+/**
+ * The world summary shown to players. Taking a snapshot only copies the values the summary
+ * shows, which is cheap enough to do on every target move; the text itself is formatted
+ * the first time it is asked for after a snapshot, so turns nobody looks at the summary
+ * cost no string work.
+ */
+final class WorldSummary {
+  private String worldName;
+  private int cols;
+  private int rows;
+  private int roomCount;
+  private int itemCount;
+  private CharacterTarget target;
+  private int targetHealth;
+  private Block targetRoom;
+  private CharacterPet pet;
+  private Block petRoom;
+  private String text;
+
+  /**
+   * Records the current state of the world for the next summary.
+   *
+   * @param worldNameInput the world's name.
+   * @param colsInput the world's width.
+   * @param rowsInput the world's height.
+   * @param roomCountInput the number of rooms.
+   * @param itemCountInput the number of items.
+   * @param targetInput the target, or null if there is none.
+   * @param petInput the pet, or null if there is none.
+   */
+  void capture(String worldNameInput, int colsInput, int rowsInput, int roomCountInput,
+      int itemCountInput, CharacterTarget targetInput, CharacterPet petInput) {
+    this.worldName = worldNameInput;
+    this.cols = colsInput;
+    this.rows = rowsInput;
+    this.roomCount = roomCountInput;
+    this.itemCount = itemCountInput;
+    this.target = targetInput;
+    this.targetHealth = targetInput != null ? targetInput.getHealthPoint() : 0;
+    this.targetRoom = targetInput != null ? targetInput.getLocation() : null;
+    this.pet = petInput;
+    this.petRoom = petInput != null ? petInput.getLocation() : null;
+    this.text = null;
+  }
+
+  /**
+   * Returns the summary of the last snapshot.
+   *
+   * @return the summary text
+   */
+  String getText() {
+    if (text == null) {
+      text = format();
+    }
+    return text;
+  }
+
+  private String format() {
+    String petInfo = (pet != null) ? String.format("Pet: %s\nPet's Location: %s",
+                                                  pet.getCharacterName(),
+                                                  (petRoom != null
+                                                  ? petRoom.getRoomName() : "Unknown"))
+                                   : "No pet currently set.";
+
+    return String.format("World Name: %s\n"
+                        + "World Dimensions: %dx%d\n"
+                        + "Number of Rooms: %d\n"
+                        + "Number of Items: %d\n"
+                        + "Target: %s\n"
+                        + "Target's Health: %d\n"
+                        + "Target's Location: %s\n"
+                        + "%s",
+                        worldName, cols, rows, roomCount, itemCount,
+                        (target != null ? target.getCharacterName() : "No target"),
+                        targetHealth,
+                        (targetRoom != null ? targetRoom.getRoomName() : "Unknown"),
+                        petInfo);
+  }
+}
@@ -0,0 +1,124 @@
+package controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import view.FrameView;
+import view.WorldPanel;
+import world.World;
+
+/**
+ * This is the test file to test how GameController plays computer turns in the Gui, make sure
+ * they run on the game loop without holding up the caller and that finished turns reach the
+ * frame.
+ */
+public class GameControllerLoopTest {
+  private static final int MAX_TURNS = 40;
+  private GameController controller;
+  private World world;
+  private AtomicInteger refreshes;
+
+  /**
+   * Loads the mansion into a controller whose frame only counts refreshes.
+   *
+   * @throws IOException if the mansion cannot be read.
+   */
+  @Before
+  public void setUp() throws IOException {
+    controller = new GameController(new StringReader(""), new StringWriter(),
+        RandomNumberGenerator.seeded(7), MAX_TURNS);
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      world = new World(reader);
+    }
+    world.setMaxTurns(MAX_TURNS);
+    controller.loadNewWorld(world);
+    refreshes = new AtomicInteger();
+    controller.setGameFrame(new FrameView() {
+      @Override
+      public void refreshWorldDisplay(Controller gameController) {
+        refreshes.incrementAndGet();
+      }
+
+      @Override
+      public void onPlayerClick(Controller gameController, int playerId) {
+      }
+
+      @Override
+      public void onRoomClick(Controller gameController, int roomId) {
+      }
+
+      @Override
+      public WorldPanel getWorldPanel() {
+        return null;
+      }
+    });
+  }
+
+  private void awaitEnd() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 20000;
+    while (!controller.getEnd() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void testComputerGamePlaysOutWithoutDelay() throws IOException, InterruptedException {
+    controller.setTurnDelay(0);
+    controller.addPlayer("Ann", 1, true);
+    controller.addPlayer("Bob", 5, true);
+    controller.startGame();
+    awaitEnd();
+    assertTrue(controller.getEnd());
+    assertFalse(controller.isComputerTurn());
+    assertTrue(controller.getResult().startsWith("Game over"));
+    Thread.sleep(100);
+    assertTrue(refreshes.get() > 0);
+  }
+
+  @Test
+  public void testStartGameReturnsBeforeComputerTurnsAreDone()
+      throws IOException, InterruptedException {
+    controller.setTurnDelay(60000);
+    controller.addPlayer("Ann", 1, true);
+    controller.addPlayer("Bob", 5, false);
+    controller.startGame();
+    long deadline = System.currentTimeMillis() + 20000;
+    while (world.getCurrentTurn() == 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(2, world.getCurrentTurn());
+    assertTrue(controller.isComputerTurn());
+    assertThrows(IllegalArgumentException.class,
+        () -> controller.movePlayerToRoom(2, new StringWriter()));
+  }
+
+  @Test
+  public void testLoadingAnotherWorldDropsPendingComputerTurns()
+      throws IOException, InterruptedException {
+    controller.setTurnDelay(60000);
+    controller.addPlayer("Ann", 1, true);
+    controller.startGame();
+    long deadline = System.currentTimeMillis() + 20000;
+    while (world.getCurrentTurn() == 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      controller.loadNewWorld(new World(reader));
+    }
+    assertFalse(controller.isComputerTurn());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeTurnDelay() {
+    controller.setTurnDelay(-1);
+  }
+}
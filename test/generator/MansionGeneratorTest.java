@@ -0,0 +1,114 @@
+package generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import world.ItemRecord;
+import world.RoomRecord;
+import world.World;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * This is the test file to test class MansionGenerator, make sure generated files load,
+ * repeat for a seed and follow the settings.
+ */
+public class MansionGeneratorTest {
+
+  private static String generate(MansionGenerator generator) throws IOException {
+    StringBuilder text = new StringBuilder();
+    generator.write(text);
+    return text.toString();
+  }
+
+  private static WorldSpec parse(String text) {
+    return new WorldFileParser(new StringReader(text)).parse();
+  }
+
+  @Test
+  public void testSameSeedSameFile() throws IOException {
+    assertEquals(generate(new MansionGenerator(200, 5)), generate(new MansionGenerator(200, 5)));
+    assertNotEquals(generate(new MansionGenerator(200, 5)),
+        generate(new MansionGenerator(200, 6)));
+  }
+
+  @Test
+  public void testGeneratedWorldLoads() throws IOException {
+    MansionGenerator generator = new MansionGenerator(150, 1);
+    generator.setItems(40, 2, 9, Distribution.HIGH);
+    String text = generate(generator);
+    WorldSpec spec = parse(text);
+    assertEquals(150, spec.getRooms().size());
+    assertEquals(40, spec.getItems().size());
+    World world = new World(new StringReader(text));
+    assertEquals(150, world.getRoomCount());
+    assertEquals(40, world.getItemCount());
+    Set<String> names = new HashSet<>();
+    for (ItemRecord item : spec.getItems()) {
+      assertTrue(item.getMurderValue() >= 2 && item.getMurderValue() <= 9);
+      assertTrue(item.getLocation() >= 0 && item.getLocation() < 150);
+      assertTrue(names.add(item.getItemName()));
+    }
+  }
+
+  @Test
+  public void testRoomsStayInTheirSlots() throws IOException {
+    MansionGenerator generator = new MansionGenerator(97, 3);
+    generator.setRoomSize(1, 4, Distribution.LOW);
+    WorldSpec spec = parse(generate(generator));
+    List<RoomRecord> rooms = spec.getRooms();
+    for (RoomRecord room : rooms) {
+      int height = room.getBottom() - room.getTop() + 1;
+      int width = room.getRight() - room.getLeft() + 1;
+      assertTrue(height >= 1 && height <= 5 && width >= 1 && width <= 5);
+      assertEquals(0, room.getTop() % 5);
+      assertEquals(0, room.getLeft() % 5);
+      assertTrue(room.getBottom() < spec.getRows() && room.getRight() < spec.getCols());
+    }
+    Set<String> corners = new HashSet<>();
+    for (RoomRecord room : rooms) {
+      assertTrue(corners.add(room.getTop() + "," + room.getLeft()));
+    }
+  }
+
+  @Test
+  public void testCorridorDensityDecidesNeighbors() throws IOException {
+    MansionGenerator closed = new MansionGenerator(64, 9);
+    closed.setCorridorDensity(0);
+    World separate = new World(new StringReader(generate(closed)));
+    MansionGenerator open = new MansionGenerator(64, 9);
+    open.setCorridorDensity(1);
+    World linked = new World(new StringReader(generate(open)));
+    for (int roomId = 1; roomId <= 64; roomId++) {
+      assertTrue(separate.getNeighborRooms(roomId).isEmpty());
+      assertFalse(linked.getNeighborRooms(roomId).isEmpty());
+    }
+    assertTrue(linked.getNeighborRooms(1).contains(2));
+    assertTrue(linked.getNeighborRooms(1).contains(9));
+  }
+
+  @Test
+  public void testInvalidSettings() {
+    assertThrows(IllegalArgumentException.class, () -> new MansionGenerator(0, 1));
+    MansionGenerator generator = new MansionGenerator(10, 1);
+    assertThrows(IllegalArgumentException.class,
+        () -> generator.setRoomSize(0, 3, Distribution.UNIFORM));
+    assertThrows(IllegalArgumentException.class,
+        () -> generator.setRoomSize(4, 3, Distribution.UNIFORM));
+    assertThrows(IllegalArgumentException.class, () -> generator.setCorridorDensity(1.5));
+    assertThrows(IllegalArgumentException.class,
+        () -> generator.setItems(-1, 1, 5, Distribution.UNIFORM));
+    assertThrows(IllegalArgumentException.class,
+        () -> generator.setItems(3, 6, 5, Distribution.UNIFORM));
+    assertThrows(IllegalArgumentException.class, () -> generator.setTargetHealth(0));
+  }
+}
@@ -0,0 +1,211 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * This is the test file to test class LineServer, make sure clients on localhost can play
+ * the text game and that a client that stops reading, or whose game is stuck on the disk,
+ * holds up only its own game.
+ */
+public class LineServerTest {
+  private File spillDirectory;
+  private SessionManager manager;
+  private LineServer server;
+
+  /**
+   * Starts a server on a free localhost port.
+   *
+   * @throws IOException if the mansion cannot be read or the server cannot listen.
+   */
+  @Before
+  public void setUp() throws IOException {
+    WorldSpec spec;
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      spec = new WorldFileParser(reader).parse();
+    }
+    spillDirectory = Files.createTempDirectory("sessions").toFile();
+    manager = new SessionManager(spec, 100000, spillDirectory, 8);
+    server = new LineServer(manager,
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 42);
+    server.start();
+  }
+
+  /**
+   * Stops the server and removes the spill directory.
+   *
+   * @throws IOException if the server fails to close.
+   */
+  @After
+  public void tearDown() throws IOException {
+    server.close();
+    manager.shutdown();
+    for (File file : spillDirectory.listFiles()) {
+      file.delete();
+    }
+    spillDirectory.delete();
+  }
+
+  private Socket connect() throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+    socket.setSoTimeout(20000);
+    return socket;
+  }
+
+  private static void send(Socket socket, String lines) throws IOException {
+    OutputStream output = socket.getOutputStream();
+    output.write(lines.getBytes(StandardCharsets.UTF_8));
+    output.flush();
+  }
+
+  private static String readUntil(Socket socket, String expected) throws IOException {
+    InputStream input = socket.getInputStream();
+    StringBuilder text = new StringBuilder();
+    byte[] buffer = new byte[4096];
+    while (!text.toString().contains(expected)) {
+      int count = input.read(buffer);
+      if (count < 0) {
+        break;
+      }
+      text.append(new String(Arrays.copyOf(buffer, count), StandardCharsets.UTF_8));
+    }
+    return text.toString();
+  }
+
+  private void awaitSessions(int count) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 20000;
+    while (manager.getSessionCount() != count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, manager.getSessionCount());
+  }
+
+  @Test
+  public void testGameIsPlayedOverTcp() throws IOException, InterruptedException {
+    try (Socket socket = connect()) {
+      assertTrue(readUntil(socket, "4. Start Game").contains("Add players:"));
+      send(socket, "1\r\n1\r\nAnn\r\n4\r\n");
+      String text = readUntil(socket, "Select an option:");
+      assertTrue(text, text.contains("Current player's turn: Player ID 0 Player Name Ann"));
+      send(socket, "0\n");
+      text = readUntil(socket, "<end of stream>");
+      assertTrue(text, text.contains("Quitting game."));
+    }
+    awaitSessions(0);
+  }
+
+  @Test
+  public void testClientThatDoesNotReadStallsOnlyItsGame()
+      throws IOException, InterruptedException {
+    try (Socket slow = connect()) {
+      AtomicLong written = new AtomicLong();
+      Thread writer = new Thread(() -> {
+        try {
+          send(slow, "1\n1\nAnn\n4\n");
+          while (true) {
+            send(slow, "10\n");
+            written.addAndGet(3);
+          }
+        } catch (IOException e) {
+          // The socket was closed at the end of the test.
+        }
+      });
+      writer.setDaemon(true);
+      writer.start();
+      long last = -1;
+      long deadline = System.currentTimeMillis() + 20000;
+      while (written.get() != last && System.currentTimeMillis() < deadline) {
+        last = written.get();
+        Thread.sleep(500);
+      }
+      assertEquals(last, written.get());
+      for (int game = 0; game < 3; game++) {
+        try (Socket fast = connect()) {
+          readUntil(fast, "4. Start Game");
+          send(fast, "1\n2\nBob\n4\n9\n9\n0\n");
+          String text = readUntil(fast, "<end of stream>");
+          assertTrue(text, text.contains("Turn 3"));
+          assertTrue(text, text.contains("Quitting game."));
+        }
+      }
+      awaitSessions(1);
+      assertFalse(manager.isEnded(1));
+      assertTrue(manager.getQueuedLines(1) <= LineServer.MAX_QUEUED_LINES);
+    }
+    awaitSessions(0);
+  }
+
+  private static boolean makeFifo(File file) throws InterruptedException {
+    try {
+      return new ProcessBuilder("mkfifo", file.getPath()).start().waitFor() == 0;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testGameStuckOnItsSpillFileHoldsUpOnlyItself()
+      throws IOException, InterruptedException {
+    try (Socket stuck = connect()) {
+      readUntil(stuck, "4. Start Game");
+      send(stuck, "1\n1\nAnn\n4\n");
+      readUntil(stuck, "Select an option:");
+      long deadline = System.currentTimeMillis() + 20000;
+      while (!manager.isSpilled(1) && System.currentTimeMillis() < deadline) {
+        manager.evictIdle();
+        Thread.sleep(10);
+      }
+      assertTrue(manager.isSpilled(1));
+      File spillFile = new File(spillDirectory, "session-1.log");
+      List<String> spilled = Files.readAllLines(spillFile.toPath(), StandardCharsets.UTF_8);
+      assertEquals(Arrays.asList("1", "1", "Ann", "4"), spilled);
+      assertTrue(spillFile.delete());
+      Assume.assumeTrue(makeFifo(spillFile));
+      send(stuck, "9\n");
+      try (Socket other = connect()) {
+        readUntil(other, "4. Start Game");
+        send(other, "1\n2\nBob\n4\n9\n0\n");
+        String text = readUntil(other, "<end of stream>");
+        assertTrue(text, text.contains("Turn 2"));
+        assertTrue(text, text.contains("Quitting game."));
+      }
+      Files.write(spillFile.toPath(), spilled, StandardCharsets.UTF_8);
+      String text = readUntil(stuck, "Select an option:");
+      assertTrue(text, text.contains("Turn 2"));
+    }
+    awaitSessions(0);
+  }
+
+  @Test
+  public void testOverlongLineClosesTheConnection() throws IOException, InterruptedException {
+    try (Socket socket = connect()) {
+      readUntil(socket, "4. Start Game");
+      char[] line = new char[LineServer.MAX_LINE + 1];
+      Arrays.fill(line, '1');
+      send(socket, new String(line));
+      assertFalse(readUntil(socket, "<end of stream>").contains("Select"));
+    }
+    awaitSessions(0);
+  }
+}
@@ -0,0 +1,106 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.MemoryNotificationInfo;
+import java.nio.file.Files;
+import javax.management.Notification;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * This is the test file to test class LowMemoryEvictor, make sure a heap usage threshold
+ * notification evicts the idle sessions and other notifications do not.
+ */
+public class LowMemoryEvictorTest {
+  private File spillDirectory;
+  private SessionManager manager;
+  private LowMemoryEvictor evictor;
+
+  /**
+   * Parses the mansion and creates a manager that would keep every session resident.
+   *
+   * @throws IOException if the mansion cannot be read or the spill directory created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    WorldSpec spec;
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      spec = new WorldFileParser(reader).parse();
+    }
+    spillDirectory = Files.createTempDirectory("sessions").toFile();
+    manager = new SessionManager(spec, 50, spillDirectory, 10);
+  }
+
+  /**
+   * Removes the evictor, closes the sessions and removes the spill directory.
+   */
+  @After
+  public void tearDown() {
+    if (evictor != null) {
+      evictor.uninstall();
+    }
+    manager.shutdown();
+    for (File file : spillDirectory.listFiles()) {
+      file.delete();
+    }
+    spillDirectory.delete();
+  }
+
+  private long openIdle() throws InterruptedException {
+    long id = manager.open(1);
+    StringBuilder text = new StringBuilder();
+    long deadline = System.currentTimeMillis() + 20000;
+    while (!manager.isIdle(id) && System.currentTimeMillis() < deadline) {
+      text.append(manager.receive(id, 100));
+    }
+    text.append(manager.receive(id, 0));
+    assertTrue(text.toString(), text.toString().contains("4. Start Game"));
+    return id;
+  }
+
+  @Test
+  public void testThresholdNotificationEvictsIdleSessions() throws InterruptedException {
+    openIdle();
+    openIdle();
+    evictor = LowMemoryEvictor.install(manager, 0.9);
+    evictor.handleNotification(new Notification(
+        MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED, "test", 1), null);
+    assertEquals(2, manager.getResidentCount());
+    evictor.handleNotification(new Notification(
+        MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED, "test", 2), null);
+    assertEquals(0, manager.getResidentCount());
+    assertEquals(2, manager.getSessionCount());
+  }
+
+  @Test
+  public void testFullHeapPoolEvictsIdleSessions() throws InterruptedException {
+    openIdle();
+    evictor = LowMemoryEvictor.install(manager, 1e-12);
+    Assume.assumeTrue(evictor.getPoolCount() > 0);
+    Object[] kept = new Object[64];
+    long deadline = System.currentTimeMillis() + 20000;
+    for (int i = 0; manager.getResidentCount() > 0 && System.currentTimeMillis() < deadline;
+        i++) {
+      kept[i % kept.length] = new byte[1 << 16];
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertEquals(0, manager.getResidentCount());
+  }
+
+  @Test
+  public void testFractionMustBeAShare() {
+    assertThrows(IllegalArgumentException.class, () -> LowMemoryEvictor.install(manager, 0));
+    assertThrows(IllegalArgumentException.class, () -> LowMemoryEvictor.install(manager, 1.5));
+  }
+}
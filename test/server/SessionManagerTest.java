@@ -0,0 +1,159 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * This is the test file to test class SessionManager, make sure sessions are played
+ * independently and that an evicted session comes back exactly where it was.
+ */
+public class SessionManagerTest {
+  private File spillDirectory;
+  private SessionManager manager;
+
+  /**
+   * Parses the mansion and creates a manager that keeps one session resident.
+   *
+   * @throws IOException if the mansion cannot be read or the spill directory created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    WorldSpec spec;
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      spec = new WorldFileParser(reader).parse();
+    }
+    spillDirectory = Files.createTempDirectory("sessions").toFile();
+    manager = new SessionManager(spec, 50, spillDirectory, 1);
+  }
+
+  /**
+   * Closes the sessions and removes the spill directory.
+   */
+  @After
+  public void tearDown() {
+    manager.shutdown();
+    for (File file : spillDirectory.listFiles()) {
+      file.delete();
+    }
+    spillDirectory.delete();
+  }
+
+  private String await(long id, String expected) throws InterruptedException {
+    StringBuilder text = new StringBuilder();
+    long deadline = System.currentTimeMillis() + 20000;
+    while (!text.toString().contains(expected) && System.currentTimeMillis() < deadline) {
+      text.append(manager.receive(id, 100));
+    }
+    assertTrue(text.toString(), text.toString().contains(expected));
+    return text.toString();
+  }
+
+  private void startWithOnePlayer(long id, String name)
+      throws IOException, InterruptedException {
+    await(id, "4. Start Game");
+    manager.send(id, "1");
+    manager.send(id, "1");
+    manager.send(id, name);
+    manager.send(id, "4");
+    await(id, "Select an option:");
+  }
+
+  private void evict(long id) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 20000;
+    while (manager.evictIdle() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, manager.getResidentCount());
+  }
+
+  @Test
+  public void testSessionsArePlayedIndependently() throws IOException, InterruptedException {
+    long ann = manager.open(1);
+    long bob = manager.open(2);
+    startWithOnePlayer(ann, "Ann");
+    startWithOnePlayer(bob, "Bob");
+    manager.send(ann, "9");
+    assertTrue(await(ann, "Select an option:").contains("Turn 2"));
+    manager.send(bob, "8");
+    manager.send(bob, "0");
+    manager.send(bob, "0");
+    assertTrue(await(bob, "Quitting game.").contains("Bob"));
+    long deadline = System.currentTimeMillis() + 20000;
+    while (!manager.isEnded(bob) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(manager.isEnded(bob));
+    assertFalse(manager.isEnded(ann));
+    assertThrows(IllegalArgumentException.class, () -> manager.send(bob, "9"));
+  }
+
+  @Test
+  public void testEvictedSessionIsRestoredWhereItWas() throws IOException, InterruptedException {
+    long id = manager.open(3);
+    startWithOnePlayer(id, "Ann");
+    manager.send(id, "9");
+    assertTrue(await(id, "Select an option:").contains("Turn 2"));
+    evict(id);
+    File spillFile = new File(spillDirectory, "session-" + id + ".log");
+    long deadline = System.currentTimeMillis() + 20000;
+    while (!spillFile.exists() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(spillFile.exists());
+    manager.send(id, "9");
+    String text = await(id, "Select an option:");
+    assertTrue(text, text.contains("Turn 3"));
+    assertFalse(text, text.contains("Turn 2"));
+    assertFalse(text, text.contains("Add players:"));
+    assertEquals(1, manager.getResidentCount());
+  }
+
+  @Test
+  public void testSessionIsRestoredFromMemoryWhenSpillFails()
+      throws IOException, InterruptedException {
+    long id = manager.open(7);
+    startWithOnePlayer(id, "Ann");
+    assertTrue(new File(spillDirectory, "session-" + id + ".log").mkdir());
+    evict(id);
+    manager.send(id, "9");
+    String text = await(id, "Select an option:");
+    assertTrue(text, text.contains("Turn 2"));
+    assertFalse(text, text.contains("Add players:"));
+  }
+
+  @Test
+  public void testOpeningSessionsEvictsIdleOnes() throws IOException, InterruptedException {
+    long first = manager.open(4);
+    await(first, "4. Start Game");
+    long second = manager.open(5);
+    long deadline = System.currentTimeMillis() + 20000;
+    while (manager.getResidentCount() > 1 && System.currentTimeMillis() < deadline) {
+      manager.close(second);
+      second = manager.open(5);
+      Thread.sleep(10);
+    }
+    assertEquals(1, manager.getResidentCount());
+    assertEquals(2, manager.getSessionCount());
+    manager.send(first, "4");
+    await(first, "No players added. Cannot start game.");
+  }
+
+  @Test
+  public void testLineBreaksAreRejected() {
+    long id = manager.open(6);
+    assertThrows(IllegalArgumentException.class, () -> manager.send(id, "1\n2"));
+    assertThrows(IllegalArgumentException.class, () -> manager.send(id + 1, "1"));
+  }
+}
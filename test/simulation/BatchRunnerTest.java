@@ -0,0 +1,82 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Before;
+import org.junit.Test;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * This is the test file to test class BatchRunner, make sure a batch adds up its games and
+ * gives the same statistics on any number of threads.
+ */
+public class BatchRunnerTest {
+  private WorldSpec spec;
+
+  /**
+   * Parses the mansion once for all batches of a test.
+   *
+   * @throws FileNotFoundException if res/mansion.txt is missing.
+   */
+  @Before
+  public void setUp() throws FileNotFoundException {
+    spec = new WorldFileParser(new FileReader("res/mansion.txt")).parse();
+  }
+
+  @Test
+  public void testSameStatisticsOnAnyThreadCount() {
+    ForkJoinPool single = new ForkJoinPool(1);
+    ForkJoinPool several = new ForkJoinPool(4);
+    try {
+      BatchStatistics one = new BatchRunner(spec, 3, 800, single).run(42, 300);
+      BatchStatistics four = new BatchRunner(spec, 3, 800, several).run(42, 300);
+      assertEquals(one, four);
+      assertNotEquals(one, new BatchRunner(spec, 3, 800, several).run(43, 300));
+    } finally {
+      single.shutdown();
+      several.shutdown();
+    }
+  }
+
+  @Test
+  public void testStatisticsAddUp() {
+    BatchRunner runner = new BatchRunner(spec, 3, 800, ForkJoinPool.commonPool());
+    BatchStatistics stats = runner.run(7, 200);
+    assertEquals(200, stats.getGames());
+    assertTrue(stats.getWins() > 0);
+    assertEquals(stats.getWins(),
+        stats.getSeatWins(0) + stats.getSeatWins(1) + stats.getSeatWins(2));
+    assertEquals((double) stats.getWins() / 200, stats.getWinRate(), 1e-9);
+    assertTrue(stats.getAverageTurns() > 0 && stats.getAverageTurns() <= 800);
+    assertFalse(stats.getItemUses().isEmpty());
+    long turns = 0;
+    long itemUses = 0;
+    for (int game = 0; game < 200; game++) {
+      GameResult result = runner.replay(7, game);
+      turns += result.getTurns();
+      itemUses += result.getItemUseCount();
+    }
+    assertEquals(stats.getAverageTurns(), turns / 200.0, 1e-9);
+    assertEquals(itemUses, stats.getItemUses().values().stream().mapToLong(Long::longValue)
+        .sum());
+  }
+
+  @Test
+  public void testEmptyAndInvalidBatches() {
+    BatchRunner runner = new BatchRunner(spec, 2, 10, ForkJoinPool.commonPool());
+    BatchStatistics empty = runner.run(1, 0);
+    assertEquals(0, empty.getGames());
+    assertEquals(0, empty.getWinRate(), 0);
+    assertThrows(IllegalArgumentException.class, () -> runner.run(1, -1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new BatchRunner(spec, 0, 10, ForkJoinPool.commonPool()));
+  }
+}
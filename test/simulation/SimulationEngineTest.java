@@ -0,0 +1,121 @@
+package simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import controller.PlayerStrategy;
+import controller.RandomNumberGenerator;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import world.World;
+import world.WorldFileParser;
+import world.WorldSpec;
+
+/**
+ * This is the test file to test class SimulationEngine, make sure seeded games repeat, the
+ * damage log adds up and games stop at the winner or the turn limit.
+ */
+public class SimulationEngineTest {
+  private WorldSpec spec;
+
+  /**
+   * Parses the mansion once for all games of a test.
+   *
+   * @throws FileNotFoundException if res/mansion.txt is missing.
+   */
+  @Before
+  public void setUp() throws FileNotFoundException {
+    spec = new WorldFileParser(new FileReader("res/mansion.txt")).parse();
+  }
+
+  private GameResult play(long seed, int maxTurns) throws InterruptedException, IOException {
+    World world = new World(spec);
+    world.setMaxTurns(maxTurns);
+    RandomNumberGenerator random = RandomNumberGenerator.seeded(seed);
+    Map<Integer, SimulatedComputerStrategy> strategies = new HashMap<>();
+    for (int i = 0; i < 3; i++) {
+      int playerId = SimulationEngine.addComputerPlayer(world, "Bot " + i, 1 + i * 7);
+      strategies.put(playerId, new SimulatedComputerStrategy(world, random));
+    }
+    return new SimulationEngine().play(world, strategies);
+  }
+
+  @Test
+  public void testSameSeedSameGame() throws Exception {
+    for (long seed = 0; seed < 20; seed++) {
+      assertEquals(play(seed, 500), play(seed, 500));
+    }
+  }
+
+  @Test
+  public void testDamageLogAddsUpToWinner() throws Exception {
+    int winners = 0;
+    for (long seed = 0; seed < 50; seed++) {
+      GameResult result = play(seed, 3000);
+      assertTrue(result.getTurns() <= 3000);
+      int lastTurn = 0;
+      for (int i = 0; i < result.getDamageCount(); i++) {
+        assertTrue(result.getDamageAmount(i) > 0);
+        assertTrue(result.getDamageTurn(i) >= lastTurn);
+        lastTurn = result.getDamageTurn(i);
+      }
+      if (result.hasWinner()) {
+        winners++;
+        assertTrue(result.getTotalDamage() >= 50);
+        int last = result.getDamageCount() - 1;
+        assertEquals(result.getWinnerId(), result.getDamagePlayer(last));
+      } else {
+        assertTrue(result.getTotalDamage() < 50);
+        assertEquals(3000, result.getTurns());
+      }
+    }
+    assertTrue(winners > 0);
+  }
+
+  @Test
+  public void testShortGameStopsAtTurnLimit() throws Exception {
+    GameResult result = play(7, 3);
+    assertFalse(result.hasWinner());
+    assertEquals(-1, result.getWinnerId());
+    assertEquals(3, result.getTurns());
+  }
+
+  @Test
+  public void testEveryPlayerNeedsStrategy() {
+    World world = new World(spec);
+    SimulationEngine.addComputerPlayer(world, "Bot", 1);
+    assertThrows(IllegalArgumentException.class,
+        () -> new SimulationEngine().play(world, new HashMap<>()));
+    assertThrows(IllegalArgumentException.class,
+        () -> SimulationEngine.addComputerPlayer(world, "Lost", 0));
+  }
+
+  @Test
+  public void testItemLogKeepsWholeItemNames() throws Exception {
+    World world = new World(new StringReader("2 2 Hut\n3 Target\nCat\n1\n"
+        + "0 0 1 1 Hall\n1\n0 2 Gun: Loaded\n"));
+    world.setMaxTurns(10);
+    int playerId = SimulationEngine.addComputerPlayer(world, "Bot", 1);
+    Map<Integer, PlayerStrategy> strategies = new HashMap<>();
+    strategies.put(playerId, id -> {
+      if (world.getCurrentTurn() == 1) {
+        world.applyItemPickup(id, "Gun: Loaded");
+      } else {
+        world.usePlayerHighestItem(id);
+        world.applyMurderAttempt(id);
+      }
+      world.applyTurnAdvance();
+    });
+    GameResult result = new SimulationEngine().play(world, strategies);
+    assertEquals(1, result.getItemUseCount());
+    assertEquals("Gun: Loaded", result.getItemUsed(0));
+  }
+}
@@ -0,0 +1,75 @@
+package view;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class HitIndex, make sure clicks find the rectangle under
+ * them while rectangles are added, moved and removed.
+ */
+public class HitIndexTest {
+  private HitIndex index;
+  private Map<Integer, Rectangle> rectangles;
+
+  /**
+   * Two rooms side by side and one far away, on cells smaller than the rooms.
+   */
+  @Before
+  public void setUp() {
+    index = new HitIndex(32);
+    rectangles = new HashMap<>();
+    rectangles.put(1, new Rectangle(0, 0, 79, 79));
+    rectangles.put(2, new Rectangle(80, 0, 79, 79));
+    rectangles.put(3, new Rectangle(4000, 4000, 79, 79));
+    index.update(rectangles);
+  }
+
+  @Test
+  public void testFindsRectangleUnderPoint() {
+    assertEquals(1, index.find(10, 70));
+    assertEquals(2, index.find(80, 0));
+    assertEquals(3, index.find(4050, 4001));
+  }
+
+  @Test
+  public void testMissesOutsideEveryRectangle() {
+    assertEquals(-1, index.find(79, 5));
+    assertEquals(-1, index.find(-5, 5));
+    assertEquals(-1, index.find(2000, 2000));
+  }
+
+  @Test
+  public void testLowestIdWinsOnOverlap() {
+    rectangles.put(0, new Rectangle(60, 10, 40, 40));
+    index.update(rectangles);
+    assertEquals(0, index.find(85, 20));
+    assertEquals(2, index.find(85, 60));
+  }
+
+  @Test
+  public void testUpdateMovesAndRemoves() {
+    rectangles.put(2, new Rectangle(300, 300, 20, 20));
+    rectangles.remove(3);
+    index.update(rectangles);
+    assertEquals(-1, index.find(100, 10));
+    assertEquals(2, index.find(310, 310));
+    assertEquals(-1, index.find(4050, 4001));
+    assertEquals(1, index.find(0, 0));
+  }
+
+  @Test
+  public void testClearForgetsEveryRectangle() {
+    index.clear();
+    assertEquals(-1, index.find(10, 70));
+    assertEquals(-1, index.find(4050, 4001));
+    rectangles.remove(1);
+    index.update(rectangles);
+    assertEquals(-1, index.find(10, 70));
+    assertEquals(2, index.find(80, 0));
+  }
+}
@@ -0,0 +1,88 @@
+package world;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class CompiledWorld, make sure a compiled world loads back
+ * into the same world and broken files are refused.
+ */
+public class CompiledWorldTest {
+  private World world;
+  private File compiled;
+
+  /**
+   * Loads the mansion and picks a compiled file for it.
+   *
+   * @throws IOException if the mansion cannot be read or the temp file created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = new World(new FileReader("res/mansion.txt"));
+    compiled = File.createTempFile("mansion", CompiledWorld.EXTENSION);
+    compiled.deleteOnExit();
+  }
+
+  private static void assertGraphEquals(RoomGraph expected, RoomGraph actual) {
+    assertArrayEquals(expected.offsets(), actual.offsets());
+    assertArrayEquals(expected.targets(), actual.targets());
+  }
+
+  @Test
+  public void testCompiledWorldLoadsBackTheSame() throws IOException {
+    CompiledWorld.write(world, compiled);
+    World loaded = CompiledWorld.open(compiled);
+    assertEquals(world.getRoomCount(), loaded.getRoomCount());
+    assertEquals(world.getItemCount(), loaded.getItemCount());
+    assertEquals(world.getWorldText(), loaded.getWorldText());
+    assertEquals(world.getPetInfo(), loaded.getPetInfo());
+    assertGraphEquals(world.getAdjacency(), loaded.getAdjacency());
+    assertGraphEquals(world.getVisibility(), loaded.getVisibility());
+    for (int roomId = 1; roomId <= world.getRoomCount(); roomId++) {
+      assertEquals(world.displayRoomInfo(roomId), loaded.displayRoomInfo(roomId));
+      assertEquals(world.getNeighborRooms(roomId), loaded.getNeighborRooms(roomId));
+    }
+    world.setMaxTurns(500);
+    loaded.setMaxTurns(500);
+    for (World each : new World[] {world, loaded}) {
+      each.getPlayerIds().add(each.callCreatePlayer("Ann", 4));
+      each.getPlayerIds().add(each.callCreatePlayer("Bob", 9));
+    }
+    for (int turn = 0; turn < 300; turn++) {
+      assertEquals(world.advanceTurn(), loaded.advanceTurn());
+      assertEquals(world.getTargetInfo(), loaded.getTargetInfo());
+    }
+  }
+
+  @Test
+  public void testOpenReadsTextFiles() throws IOException {
+    World text = CompiledWorld.open(new File("res/mansion.txt"));
+    assertEquals(world.getWorldText(), text.getWorldText());
+  }
+
+  @Test
+  public void testRefusesInvalidFiles() throws IOException {
+    assertThrows(IllegalArgumentException.class,
+        () -> CompiledWorld.load(new File("res/mansion.txt")));
+    CompiledWorld.write(world, compiled);
+    try (RandomAccessFile file = new RandomAccessFile(compiled, "rw")) {
+      file.setLength(file.length() / 2);
+    }
+    assertThrows(IllegalArgumentException.class, () -> CompiledWorld.load(compiled));
+  }
+
+  @Test
+  public void testRefusesEditedWorld() {
+    world.createRoom("Attic", 99, new int[] {40, 40, 41, 41}, new ArrayList<>());
+    assertThrows(IllegalArgumentException.class, () -> CompiledWorld.write(world, compiled));
+  }
+}
@@ -0,0 +1,103 @@
+package world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class GameEvent, make sure a world reports what happens as
+ * events whose text is the message the text game always showed.
+ */
+public class GameEventTest {
+  private World world;
+  private World twin;
+  private List<GameEvent> events;
+
+  private static World load() throws IOException {
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      World loaded = new World(reader);
+      loaded.setMaxTurns(100);
+      for (String name : new String[] {"Ann", "Bob"}) {
+        int playerId = loaded.callCreatePlayer(name, 1);
+        loaded.getPlayerIds().add(playerId);
+        loaded.getPlayerNames().put(playerId, name);
+      }
+      return loaded;
+    }
+  }
+
+  /**
+   * Loads the mansion twice with the same two players, one world reporting to a list.
+   *
+   * @throws IOException if the mansion cannot be read.
+   */
+  @Before
+  public void setUp() throws IOException {
+    world = load();
+    twin = load();
+    events = new ArrayList<>();
+    world.setEventSink(events::add);
+  }
+
+  @Test
+  public void testEventTextMatchesMessages() {
+    int neighbor = world.getNeighborRooms(world.getPlayerRoomId(0)).get(0);
+    assertEquals(twin.movePlayer(0, neighbor), world.applyPlayerMove(0, neighbor).toText());
+    assertEquals(twin.murderAttempt(1), world.applyMurderAttempt(1).toText());
+    String item = world.getRoomById(world.getPlayerRoomId(1)).getItem().get(0).getItemName();
+    assertEquals(twin.playerPickUpItem(1, item), world.applyItemPickup(1, item).toText());
+    for (int turn = 0; turn < 10; turn++) {
+      assertEquals(twin.advanceTurn(), world.applyTurnAdvance().toText());
+    }
+    assertEquals(twin.getTargetHealthPoint(), world.getTargetHealthPoint());
+    assertEquals(13, events.size());
+  }
+
+  @Test
+  public void testSinkReceivesEventsAsTheyHappen() {
+    int neighbor = world.getNeighborRooms(world.getPlayerRoomId(0)).get(0);
+    world.movePlayer(0, neighbor);
+    world.murderAttempt(1);
+    world.advanceTurn();
+    assertEquals(3, events.size());
+    GameEvent.PlayerMoved move = (GameEvent.PlayerMoved) events.get(0);
+    assertEquals(0, move.playerId());
+    assertEquals(world.getRoomById(neighbor).getRoomName(), move.roomName());
+    GameEvent.AttackAttempted attack = (GameEvent.AttackAttempted) events.get(1);
+    assertEquals(GameEvent.Outcome.HIT, attack.outcome());
+    assertEquals(world.getTargetHealthPoint(), attack.targetHealth());
+    GameEvent.TurnAdvanced turn = (GameEvent.TurnAdvanced) events.get(2);
+    assertEquals(2, turn.turn());
+    assertEquals(1, turn.playerId());
+    assertFalse(turn.ended());
+    assertEquals(world.getTarget().getLocation().getRoomName(), turn.targetMove().roomName());
+    assertEquals(-1, turn.petMove().playerId());
+  }
+
+  @Test
+  public void testPassingTheTurnLimitEndsTheGame() {
+    world.setMaxTurns(1);
+    GameEvent.TurnAdvanced turn = world.applyTurnAdvance();
+    assertTrue(turn.ended());
+    assertEquals(-1, turn.playerId());
+    assertEquals("Maximum turns reached. Ending game.", turn.toText());
+    assertFalse(world.getIsRunning());
+  }
+
+  @Test
+  public void testTextSinkWritesALinePerEvent() {
+    StringBuilder text = new StringBuilder();
+    world.setEventSink(GameEventSink.text(text));
+    String message = world.movePetToNextRoom();
+    world.setEventSink(null);
+    world.movePetToNextRoom();
+    assertEquals(message + "\n", text.toString());
+  }
+}
@@ -0,0 +1,79 @@
+package world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.imageio.ImageIO;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This is the test file to test class MapImageWriter, make sure the latest submitted map
+ * ends up in the file and each caller learns how its own write went.
+ */
+public class MapImageWriterTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private static BufferedImage filled(int rgb) {
+    BufferedImage image = new BufferedImage(4, 3, BufferedImage.TYPE_INT_RGB);
+    for (int x = 0; x < 4; x++) {
+      for (int y = 0; y < 3; y++) {
+        image.setRGB(x, y, rgb);
+      }
+    }
+    return image;
+  }
+
+  @Test
+  public void testLatestSnapshotIsWritten() throws Exception {
+    File file = new File(folder.getRoot(), "maps/world.png");
+    MapImageWriter writer = new MapImageWriter(file);
+    BufferedImage image = filled(0xff0000);
+    CompletableFuture<Void> first = writer.submit(image);
+    CompletableFuture<Void> second = writer.submit(filled(0x00ff00));
+    CompletableFuture<Void> last = writer.submit(image);
+    image.setRGB(0, 0, 0x0000ff);
+    last.get();
+    assertTrue(first.isDone() && !first.isCompletedExceptionally());
+    assertTrue(second.isDone() && !second.isCompletedExceptionally());
+    assertTrue(file.exists());
+    BufferedImage saved = ImageIO.read(file);
+    assertEquals(0xff0000, saved.getRGB(0, 0) & 0xffffff);
+    assertEquals(0xff0000, saved.getRGB(3, 2) & 0xffffff);
+  }
+
+  @Test
+  public void testFailedWriteIsReportedToItsCaller() throws Exception {
+    File blocker = folder.newFile("maps");
+    File file = new File(blocker, "world.png");
+    MapImageWriter writer = new MapImageWriter(file);
+    ExecutionException failure = assertThrows(ExecutionException.class,
+        () -> writer.submit(filled(0)).get());
+    assertTrue(failure.getCause() instanceof IOException);
+    assertFalse(file.exists());
+    assertTrue(blocker.delete());
+    writer.submit(filled(0x00ff00)).get();
+    assertEquals(0x00ff00, ImageIO.read(file).getRGB(1, 1) & 0xffffff);
+  }
+
+  @Test
+  public void testWritersReportOnlyTheirOwnFile() throws Exception {
+    File blocker = folder.newFile("blocked");
+    MapImageWriter failing = new MapImageWriter(new File(blocker, "world.png"));
+    MapImageWriter working = new MapImageWriter(new File(folder.getRoot(), "world.png"));
+    CompletableFuture<Void> failed = failing.submit(filled(0));
+    CompletableFuture<Void> written = working.submit(filled(0x00ff00));
+    written.get();
+    assertThrows(ExecutionException.class, failed::get);
+    assertFalse(written.isCompletedExceptionally());
+  }
+}
@@ -0,0 +1,124 @@
+package world;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class MappedWorldFile, make sure a mapped world file gives
+ * the same content the parser does and that bad records are reported when they are read.
+ */
+public class MappedWorldFileTest {
+  private static final String INPUT =
+      "36 30 Doctor Lucky's Mansion\n"
+          + "50 Doctor Lucky\n"
+          + "Fortune the Cat\n"
+          + "3\n"
+          + "22 19 23 26 Armory\n"
+          + "16 21 21 28 Billiard Room\n"
+          + "28  0 35  5 Carriage House\n"
+          + "2\n"
+          + "0 3 Revolver\n"
+          + "2 4 Big Red Hammer\n";
+
+  private static WorldSpec open(String content) throws IOException {
+    return MappedWorldFile.open(write(content)).getSpec();
+  }
+
+  private static File write(String content) throws IOException {
+    File file = File.createTempFile("world", ".txt");
+    file.deleteOnExit();
+    overwrite(file, content);
+    return file;
+  }
+
+  private static void overwrite(File file, String content) throws IOException {
+    try (Writer out = new FileWriter(file)) {
+      out.write(content);
+    }
+  }
+
+  @Test
+  public void testMansionMatchesParser() throws IOException {
+    WorldSpec parsed;
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      parsed = new WorldFileParser(reader).parse();
+    }
+    WorldSpec mapped = MappedWorldFile.open(new File("res/mansion.txt")).getSpec();
+    assertEquals(parsed.getRows(), mapped.getRows());
+    assertEquals(parsed.getCols(), mapped.getCols());
+    assertEquals(parsed.getWorldName(), mapped.getWorldName());
+    assertEquals(parsed.getTargetHealth(), mapped.getTargetHealth());
+    assertEquals(parsed.getTargetName(), mapped.getTargetName());
+    assertEquals(parsed.getPetName(), mapped.getPetName());
+    assertEquals(parsed.getRooms().toString(), mapped.getRooms().toString());
+    assertEquals(parsed.getItems().toString(), mapped.getItems().toString());
+  }
+
+  @Test
+  public void testWindowsLineEndingsAndBlankLines() throws IOException {
+    WorldSpec spec = open(INPUT.replace("\n", "\r\n").replace("3\r\n22", "3\r\n  \r\n\r\n22"));
+    List<RoomRecord> rooms = spec.getRooms();
+    assertEquals(3, rooms.size());
+    assertEquals("Armory", rooms.get(0).getRoomName());
+    assertArrayEquals(new int[]{28, 0, 35, 5}, rooms.get(2).getCoordinates());
+    assertEquals(3, rooms.get(2).getRoomId());
+    assertEquals("Big Red Hammer", spec.getItems().get(1).getItemName());
+  }
+
+  @Test
+  public void testShortItemListIsAccepted() throws IOException {
+    WorldSpec spec = open(INPUT.replace("2\n0 3 Revolver", "20\n0 3 Revolver"));
+    assertEquals(2, spec.getItems().size());
+  }
+
+  @Test
+  public void testBadRoomIsReportedWhenRead() throws IOException {
+    WorldSpec spec = open(INPUT.replace("16 21 21 28", "16 2x 21 28"));
+    assertEquals("Armory", spec.getRooms().get(0).getRoomName());
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> spec.getRooms().get(1));
+    assertEquals("Line 6, column 5: expected room coordinate", e.getMessage());
+  }
+
+  @Test
+  public void testTruncatedRoomsReportsEndOfInput() throws IOException {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> open(INPUT.substring(0, INPUT.indexOf("28  0"))));
+    assertEquals("Line 7, column 1: unexpected end of input, expected room 3", e.getMessage());
+  }
+
+  @Test
+  public void testWorldLoadsFromMappedFile() throws IOException {
+    World mapped = new World(MappedWorldFile.open(new File("res/mansion.txt")).getSpec());
+    World parsed;
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      parsed = new World(reader);
+    }
+    assertEquals(parsed.getWorldText(), mapped.getWorldText());
+    assertArrayEquals(parsed.getAdjacency().targets(), mapped.getAdjacency().targets());
+    assertArrayEquals(parsed.getVisibility().targets(), mapped.getVisibility().targets());
+  }
+
+  @Test
+  public void testWorldKeepsRecordsAfterFileChanges() throws IOException {
+    File file = write(INPUT);
+    MappedWorldFile mapped = MappedWorldFile.open(file);
+    World world = new World(mapped.getSpec());
+    WorldSpec decoded = mapped.toSpec();
+    String roomData = world.getRoomData().get(1)[1];
+    overwrite(file, "x".repeat(INPUT.length()));
+    assertEquals(roomData, world.getRoomData().get(1)[1]);
+    assertEquals("Billiard Room", decoded.getRooms().get(1).getRoomName());
+    assertEquals("Big Red Hammer", decoded.getItems().get(1).getItemName());
+    world.drawWorld();
+  }
+}
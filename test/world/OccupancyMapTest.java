@@ -0,0 +1,73 @@
+package world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class OccupancyMap, make sure empty rows and columns between
+ * rooms are found for line of sight checks.
+ */
+public class OccupancyMapTest {
+  private OccupancyMap map;
+
+  /**
+   * Two rooms stacked in rows 0 to 5 over columns 0 to 3, a gap in row 6, and a room in rows
+   * 7 to 9 that only covers columns 2 to 3.
+   */
+  @Before
+  public void setUp() {
+    map = new OccupancyMap(Arrays.asList(
+        new RoomRecord("Top", 1, 0, 0, 2, 3),
+        new RoomRecord("Middle", 2, 3, 0, 5, 3),
+        new RoomRecord("Bottom", 3, 7, 2, 9, 3)));
+  }
+
+  @Test
+  public void testCoveredRowsHaveNoEmptyRow() {
+    assertFalse(map.hasEmptyRow(0, 5, 0, 3));
+  }
+
+  @Test
+  public void testGapRowIsEmpty() {
+    assertTrue(map.hasEmptyRow(0, 9, 2, 3));
+  }
+
+  @Test
+  public void testPartlyCoveredRowIsEmptyOutsideRoom() {
+    assertFalse(map.hasEmptyRow(7, 9, 2, 3));
+    assertTrue(map.hasEmptyRow(7, 9, 0, 1));
+  }
+
+  @Test
+  public void testRowsOutsideMapAreEmpty() {
+    assertTrue(map.hasEmptyRow(-1, 0, 0, 3));
+    assertTrue(map.hasEmptyRow(9, 10, 2, 3));
+  }
+
+  @Test
+  public void testEmptyColumn() {
+    assertFalse(map.hasEmptyColumn(0, 3, 0, 5));
+    assertTrue(map.hasEmptyColumn(0, 3, 6, 9));
+    assertFalse(map.hasEmptyColumn(2, 3, 7, 9));
+  }
+
+  @Test
+  public void testNearestEmptyRows() {
+    assertEquals(-1, map.emptyRowBefore(3, 0, 3));
+    assertEquals(6, map.emptyRowAfter(2, 0, 3));
+    assertEquals(6, map.emptyRowBefore(8, 2, 3));
+    assertEquals(10, map.emptyRowAfter(7, 2, 3));
+  }
+
+  @Test
+  public void testNearestEmptyColumns() {
+    assertEquals(-1, map.emptyColumnBefore(0, 0, 5));
+    assertEquals(4, map.emptyColumnAfter(1, 0, 5));
+    assertEquals(1, map.emptyColumnBefore(3, 7, 9));
+  }
+}
@@ -0,0 +1,108 @@
+package world;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class WorldFileParser, make sure the world file is read into
+ * typed records and that malformed input is reported with its line and column.
+ */
+public class WorldFileParserTest {
+  private static final String INPUT =
+      "36 30 Doctor Lucky's Mansion\n"
+          + "50 Doctor Lucky\n"
+          + "Fortune the Cat\n"
+          + "3\n"
+          + "22 19 23 26 Armory\n"
+          + "16 21 21 28 Billiard Room\n"
+          + "28  0 35  5 Carriage House\n"
+          + "2\n"
+          + "0 3 Revolver\n"
+          + "2 4 Big Red Hammer\n";
+
+  private WorldSpec parse(String input) {
+    return new WorldFileParser(new StringReader(input)).parse();
+  }
+
+  @Test
+  public void testParseHeader() {
+    WorldSpec spec = parse(INPUT);
+    assertEquals(36, spec.getRows());
+    assertEquals(30, spec.getCols());
+    assertEquals("Doctor Lucky's Mansion", spec.getWorldName());
+    assertEquals(50, spec.getTargetHealth());
+    assertEquals("Doctor Lucky", spec.getTargetName());
+    assertEquals("Fortune the Cat", spec.getPetName());
+  }
+
+  @Test
+  public void testParseRooms() {
+    WorldSpec spec = parse(INPUT);
+    assertEquals(3, spec.getRooms().size());
+    RoomRecord carriageHouse = spec.getRooms().get(2);
+    assertEquals("Carriage House", carriageHouse.getRoomName());
+    assertEquals(3, carriageHouse.getRoomId());
+    assertArrayEquals(new int[]{28, 0, 35, 5}, carriageHouse.getCoordinates());
+  }
+
+  @Test
+  public void testParseItems() {
+    WorldSpec spec = parse(INPUT);
+    assertEquals(2, spec.getItems().size());
+    ItemRecord hammer = spec.getItems().get(1);
+    assertEquals("Big Red Hammer", hammer.getItemName());
+    assertEquals(2, hammer.getLocation());
+    assertEquals(4, hammer.getMurderValue());
+  }
+
+  @Test
+  public void testParseWindowsLineEndingsAndBlankLines() {
+    WorldSpec spec = parse(INPUT.replace("\n", "\r\n").replace("3\r\n22", "3\r\n\r\n22"));
+    assertEquals(3, spec.getRooms().size());
+    assertEquals("Armory", spec.getRooms().get(0).getRoomName());
+    assertEquals(2, spec.getItems().size());
+  }
+
+  @Test
+  public void testShortItemListIsAccepted() {
+    WorldSpec spec = parse(INPUT.replace("2\n0 3 Revolver", "20\n0 3 Revolver"));
+    assertEquals(2, spec.getItems().size());
+  }
+
+  @Test
+  public void testLegacyRoomDataMatchesRecord() {
+    RoomRecord armory = parse(INPUT).getRooms().get(0);
+    assertArrayEquals(new String[]{"Armory", "[22, 19, 23, 26]", "1"}, armory.toRoomData());
+  }
+
+  @Test
+  public void testBadCoordinateReportsLineAndColumn() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> parse(INPUT.replace("16 21 21 28", "16 2x 21 28")));
+    assertEquals("Line 6, column 5: expected room coordinate", e.getMessage());
+  }
+
+  @Test
+  public void testMissingRoomNameReportsLine() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> parse(INPUT.replace("22 19 23 26 Armory", "22 19 23 26")));
+    assertTrue(e.getMessage().startsWith("Line 5,"));
+  }
+
+  @Test
+  public void testTruncatedRoomsReportsEndOfInput() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+        () -> parse(INPUT.substring(0, INPUT.indexOf("28  0"))));
+    assertTrue(e.getMessage().contains("unexpected end of input, expected room 3"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullSource() {
+    new WorldFileParser(null);
+  }
+}
@@ -0,0 +1,103 @@
+package world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This is the test file to test class WorldSnapshot, make sure a world publishes a snapshot
+ * per committed turn and that readers on another thread always see a whole turn.
+ */
+public class WorldSnapshotTest {
+  private World world;
+  private int ann;
+  private int bob;
+
+  /**
+   * Loads the mansion with two players.
+   *
+   * @throws IOException if the mansion cannot be read.
+   */
+  @Before
+  public void setUp() throws IOException {
+    try (FileReader reader = new FileReader("res/mansion.txt")) {
+      world = new World(reader);
+    }
+    world.setMaxTurns(100000);
+    ann = world.callCreatePlayer("Ann", 1);
+    bob = world.callCreatePlayer("Bob", 2);
+    world.getPlayerIds().add(ann);
+    world.getPlayerIds().add(bob);
+    world.getPlayerNames().put(ann, "Ann");
+    world.getPlayerNames().put(bob, "Bob");
+  }
+
+  @Test
+  public void testSnapshotBeforePublishingIsTakenOnEachCall() {
+    WorldSnapshot first = world.getSnapshot();
+    assertEquals(ann, first.getCurrentPlayerId());
+    assertEquals(2, first.getPlayerIds().size());
+    assertTrue(first != world.getSnapshot());
+  }
+
+  @Test
+  public void testPublishedSnapshotChangesOnlyWhenTurnIsCommitted() {
+    world.publishSnapshot();
+    WorldSnapshot before = world.getSnapshot();
+    int neighbor = world.getNeighborRooms(world.getPlayerRoomId(ann)).get(0);
+    world.movePlayer(ann, neighbor);
+    assertSame(before, world.getSnapshot());
+    world.advanceTurn();
+    WorldSnapshot after = world.getSnapshot();
+    assertTrue(after.getVersion() > before.getVersion());
+    assertEquals(bob, after.getCurrentPlayerId());
+    assertEquals(ann, before.getCurrentPlayerId());
+    assertEquals(before.getCurrentTurn() + 1, after.getCurrentTurn());
+  }
+
+  @Test
+  public void testSnapshotIsUnmodifiable() {
+    world.publishSnapshot();
+    List<Integer> ids = world.getSnapshot().getPlayerIds();
+    assertThrows(UnsupportedOperationException.class, () -> ids.add(7));
+    world.getSnapshot().getPlayerCoordinates().clear();
+    assertEquals(2, world.getSnapshot().getPlayerCoordinates().size());
+  }
+
+  @Test
+  public void testReaderSeesWholeTurns() throws InterruptedException {
+    world.publishSnapshot();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread reader = new Thread(() -> {
+      long lastVersion = 0;
+      try {
+        for (int i = 0; i < 20000; i++) {
+          WorldSnapshot snapshot = world.getSnapshot();
+          assertTrue(snapshot.getVersion() >= lastVersion);
+          lastVersion = snapshot.getVersion();
+          int expected = snapshot.getCurrentTurn() % 2 == 1 ? ann : bob;
+          assertEquals(expected, snapshot.getCurrentPlayerId());
+          assertEquals(2, snapshot.getPlayerCoordinates().size());
+        }
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    });
+    reader.start();
+    for (int turn = 0; turn < 2000; turn++) {
+      world.advanceTurn();
+    }
+    reader.join();
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+}
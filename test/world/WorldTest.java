@@ -5,15 +5,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Stack;
 import org.junit.Before;
 import org.junit.Test;
@@ -952,5 +960,395 @@ public class WorldTest {
     int finalHealth = target.getHealthPoint();
     assertEquals("Final health should be 50 after the failed attack", 49, finalHealth);
   }
+  
+  /**
+   * Builds a world of size by size rooms of 2 by 2 cells on a 3 cell pitch, leaving a gap
+   * row and column after every fourth room so that some rooms cannot see each other.
+   */
+  private static String gridWorld(int size) {
+    StringBuilder input = new StringBuilder();
+    input.append(size * 3).append(' ').append(size * 3).append(" Grid\n50 Target\nPet\n");
+    input.append(size * size).append('\n');
+    for (int r = 0; r < size; r++) {
+      for (int c = 0; c < size; c++) {
+        int top = r * 3 + r / 4;
+        int left = c * 3 + c / 4;
+        int bottom = top + (r % 4 == 3 ? 1 : 2);
+        int right = left + (c % 4 == 3 ? 1 : 2);
+        input.append(top).append(' ').append(left).append(' ').append(bottom).append(' ')
+            .append(right).append(" Room ").append(r).append('-').append(c).append('\n');
+      }
+    }
+    return input.append("0\n").toString();
+  }
+
+  private static List<String> linkNames(List<Block> links) {
+    List<String> names = new ArrayList<>();
+    for (Block room : links) {
+      names.add(room.getRoomName());
+    }
+    return names;
+  }
+
+  @Test
+  public void testParallelBuildMatchesSequentialBuild() {
+    String input = gridWorld(20);
+    World sequential = new World(new StringReader(input), 1);
+    World parallel = new World(new StringReader(input), 4);
+    assertEquals(400, parallel.getRoomCount());
+    for (int i = 0; i < sequential.getRoomCount(); i++) {
+      Block expected = sequential.getRooms().get(i);
+      Block actual = parallel.getRooms().get(i);
+      assertEquals(linkNames(expected.getNeighbor()), linkNames(actual.getNeighbor()));
+      assertEquals(linkNames(expected.getVisibleFrom()), linkNames(actual.getVisibleFrom()));
+    }
+    assertEquals(sequential.getPetInfo(), parallel.getPetInfo());
+  }
+
+  /**
+   * Builds a random world whose first rooms touch along an edge, touch only at a corner,
+   * overlap, and stand apart; the rest are small rooms scattered over a small board so
+   * that all of these cases come up many times.
+   */
+  private static int[][] randomBoxes(long seed, int count) {
+    int[][] boxes = new int[count][];
+    boxes[0] = new int[] {0, 0, 1, 1};
+    boxes[1] = new int[] {0, 2, 1, 3};
+    boxes[2] = new int[] {2, 4, 3, 5};
+    boxes[3] = new int[] {1, 1, 2, 2};
+    boxes[4] = new int[] {8, 8, 9, 9};
+    Random random = new Random(seed);
+    for (int i = 5; i < count; i++) {
+      int top = random.nextInt(37);
+      int left = random.nextInt(37);
+      boxes[i] = new int[] {top, left, top + random.nextInt(4), left + random.nextInt(4)};
+    }
+    return boxes;
+  }
+
+  private static String boxWorld(int[][] boxes) {
+    StringBuilder input = new StringBuilder("40 40 Boxes\n50 Target\nPet\n");
+    input.append(boxes.length).append('\n');
+    for (int i = 0; i < boxes.length; i++) {
+      int[] box = boxes[i];
+      input.append(box[0]).append(' ').append(box[1]).append(' ').append(box[2]).append(' ')
+          .append(box[3]).append(" Room ").append(i).append('\n');
+    }
+    return input.append("0\n").toString();
+  }
+
+  /**
+   * The neighbor rule as the original all-pairs loop applied it.
+   */
+  private static boolean touches(int[] room, int[] other) {
+    return room[0] - 1 <= other[2] && room[2] + 1 >= other[0] 
+        && room[1] - 1 <= other[3] && room[3] + 1 >= other[1];
+  }
+
+  /**
+   * The line-of-sight rule as the original all-pairs loop applied it: every column (or row)
+   * the two rooms span must hold a room cell inside their shared rows (or columns).
+   */
+  private static boolean sees(int[][] boxes, int[] room, int[] other) {
+    boolean horizontal = room[1] <= other[3] && room[3] >= other[1];
+    boolean vertical = room[0] <= other[2] && room[2] >= other[0];
+    if (horizontal && !covered(boxes, 1, Math.max(room[1], other[1]), 
+        Math.min(room[3], other[3]), Math.min(room[0], other[0]), Math.max(room[2], other[2]))) {
+      return false;
+    }
+    if (vertical && !covered(boxes, 0, Math.max(room[0], other[0]), 
+        Math.min(room[2], other[2]), Math.min(room[1], other[1]), Math.max(room[3], other[3]))) {
+      return false;
+    }
+    return horizontal || vertical;
+  }
+
+  private static boolean covered(int[][] boxes, int axis, int from, int to, int start, 
+      int end) {
+    for (int line = start; line <= end; line++) {
+      boolean found = false;
+      for (int[] box : boxes) {
+        if (box[axis] <= to && box[axis + 2] >= from 
+            && box[1 - axis] <= line && box[3 - axis] >= line) {
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Test
+  public void testLinksMatchPairwiseRules() {
+    for (long seed = 1; seed <= 5; seed++) {
+      int[][] boxes = randomBoxes(seed, 300);
+      String input = boxWorld(boxes);
+      for (int threads : new int[] {1, 4}) {
+        World world = new World(new StringReader(input), threads);
+        List<Block> rooms = world.getRooms();
+        for (int i = 0; i < boxes.length; i++) {
+          List<String> neighbors = new ArrayList<>();
+          List<String> visible = new ArrayList<>();
+          for (int j = 0; j < boxes.length; j++) {
+            if (i == j) {
+              continue;
+            }
+            Room room = (Room) rooms.get(i);
+            Room other = (Room) rooms.get(j);
+            assertEquals(touches(boxes[i], boxes[j]), room.areNeighbors(other));
+            assertEquals(sees(boxes, boxes[i], boxes[j]), room.canSeeFrom(other));
+            if (touches(boxes[i], boxes[j])) {
+              neighbors.add("Room " + j);
+            }
+            if (sees(boxes, boxes[i], boxes[j])) {
+              visible.add("Room " + j);
+            }
+          }
+          assertEquals(neighbors, linkNames(rooms.get(i).getNeighbor()));
+          assertEquals(visible, linkNames(rooms.get(i).getVisibleFrom()));
+        }
+        assertEquals(Arrays.asList("Room 0", "Room 2", "Room 3"), 
+            linkNames(rooms.get(1).getNeighbor()).subList(0, 3));
+        assertFalse(linkNames(rooms.get(4).getNeighbor()).contains("Room 0"));
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBuildThreadsMustBePositive() {
+    new World(new StringReader(gridWorld(2)), 0);
+  }
+
+  @Test
+  public void testRoomGraphsMatchRoomLists() {
+    World grid = new World(new StringReader(gridWorld(8)));
+    RoomGraph adjacency = grid.getAdjacency();
+    RoomGraph visibility = grid.getVisibility();
+    assertEquals(64, adjacency.getRoomCount());
+    for (int i = 0; i < grid.getRoomCount(); i++) {
+      Block room = grid.getRooms().get(i);
+      List<Block> neighbors = room.getNeighbor();
+      assertEquals(neighbors.size(), adjacency.degree(i));
+      for (int k = 0; k < neighbors.size(); k++) {
+        assertEquals(neighbors.get(k).getRoomId() - 1, adjacency.neighbor(i, k));
+        assertTrue(room.isAdjacent(neighbors.get(k)));
+      }
+      assertEquals(room.getVisibleFrom().size(), visibility.degree(i));
+      for (Block other : grid.getRooms()) {
+        assertEquals(room.getVisibleFrom().contains(other), room.isVisibleFrom(other));
+      }
+    }
+    assertEquals(Arrays.asList(2, 9, 10), grid.getNeighborRooms(1));
+  }
+
+  @Test
+  public void testRemovedPetNoLongerHidesRoom() {
+    World grid = new World(new StringReader(gridWorld(4)));
+    grid.createPet("Pet", grid.getRoomById(1));
+    grid.createPlayer("Bob", 1);
+    grid.createPlayer("Eric", 2);
+    assertFalse(grid.canPlayerBeSeenByAny(0));
+    grid.removePet();
+    assertTrue(grid.canPlayerBeSeenByAny(0));
+  }
+
+  @Test
+  public void testObservingRoomsAndPlayers() {
+    World grid = new World(new StringReader(gridWorld(8)));
+    BitSet rooms = grid.getObservingRooms(1);
+    assertEquals("{1, 2, 9, 10}", rooms.toString());
+    grid.createPlayer("Bob", 1);
+    grid.createPlayer("Eric", 10);
+    grid.createPlayer("Ada", 20);
+    assertEquals("{0, 1}", grid.getObservingPlayers(1).toString());
+    assertTrue(grid.canPlayerBeSeenByAny(1));
+    assertFalse(grid.canPlayerBeSeenByAny(2));
+  }
+
+  @Test
+  public void testIndexedLookups() {
+    World grid = new World(new StringReader(gridWorld(4)));
+    assertEquals("Room 2-3", grid.getRoomById(12).getRoomName());
+    assertTrue(grid.displayRoomInfo("room 2-3").contains("Room ID: 12"));
+    Block added = grid.createRoom("Annex", 5000, new int[]{20, 20, 21, 21}, 
+        grid.getRoomData());
+    assertSame(added, grid.getRoomById(5000));
+    assertSame(grid.getRooms().get(0), grid.getRoomById(1));
+    grid.createItem("Rope", 3, 2);
+    assertEquals("Rope", grid.getItemByName("ROPE").getItemName());
+    grid.createPlayer("Bob", 3);
+    assertEquals(3, grid.getPlayerRoomId(0));
+    assertThrows(IllegalArgumentException.class, () -> grid.getRoomById(17));
+    assertThrows(IllegalArgumentException.class, () -> grid.getPlayerRoomId(1));
+  }
+
+  @Test
+  public void testCopyAsLoadedSharesLinksNotPlayers() {
+    World grid = new World(new StringReader(gridWorld(4)));
+    grid.createPlayer("Bob", 1);
+    grid.movePetToNextRoom();
+    World copy = grid.copyAsLoaded();
+    assertSame(grid.getAdjacency(), copy.getAdjacency());
+    assertSame(grid.getVisibility(), copy.getVisibility());
+    assertSame(grid.getStartPetTour(), copy.getStartPetTour());
+    assertTrue(copy.getPlayerIds().isEmpty());
+    assertEquals(new World(new StringReader(gridWorld(4))).getPetInfo(), copy.getPetInfo());
+    grid.createRoom("Attic", 99, new int[] {40, 40, 41, 41}, grid.getRoomData());
+    assertThrows(IllegalArgumentException.class, grid::copyAsLoaded);
+  }
+
+  @Test
+  public void testLargeRoomIdFoundAfterIndexGrows() {
+    World grid = new World(new StringReader(gridWorld(4)));
+    int[] corner = {0, 13, 1, 14};
+    Block far = grid.createRoom("Far", 90, corner, grid.getRoomData());
+    grid.createRoom("Near", 50, corner, grid.getRoomData());
+    assertSame(far, grid.getRoomById(90));
+    grid.createRoom("Nearer", 70, corner, grid.getRoomData());
+    assertSame(far, grid.getRoomById(90));
+    assertEquals("Nearer", grid.getRoomById(70).getRoomName());
+    grid.createRoom("Again", 90, corner, grid.getRoomData());
+    assertSame(far, grid.getRoomById(90));
+    assertThrows(IllegalArgumentException.class, () -> grid.getRoomById(80));
+  }
+
+  @Test
+  public void testRoomOccupantsFollowMoves() {
+    World grid = new World(new StringReader(gridWorld(4)));
+    grid.createPlayer("Bob", 1);
+    grid.createPlayer("Eric", 1);
+    Block first = grid.getRoomById(1);
+    Block second = grid.getRoomById(2);
+    assertEquals("Target: Target\n, Player: Bob, Player: Eric", grid.getRoomOccupants(first));
+    grid.movePlayer(0, 2);
+    assertEquals("Target: Target\n, Player: Eric", grid.getRoomOccupants(first));
+    assertEquals("Player: Bob", grid.getRoomOccupants(second));
+    grid.moveTargetToNextRoom();
+    assertEquals("Player: Eric", grid.getRoomOccupants(first));
+    assertEquals("Target: Target\n, Player: Bob", grid.getRoomOccupants(second));
+  }
+
+  @Test
+  public void testPetTourOnLongCorridor() {
+    int length = 20000;
+    StringBuilder input = new StringBuilder();
+    input.append(length).append(' ').append(length).append(" Corridor\n50 Target\nPet\n");
+    input.append(length).append('\n');
+    for (int i = 0; i < length; i++) {
+      input.append(i).append(' ').append(i).append(' ').append(i).append(' ').append(i)
+          .append(" Step ").append(i + 1).append('\n');
+    }
+    World corridor = new World(new StringReader(input.append("0\n").toString()));
+    assertEquals("Pet moved to room: Step 2", corridor.movePetToNextRoom());
+    Stack<Block> path = corridor.getPet().getPath();
+    assertEquals(length - 2, path.size());
+    assertEquals("Step 3", path.peek().getRoomName());
+    assertEquals("Pet moved to room: Step 3", corridor.movePetToNextRoom());
+  }
+
+  @Test
+  public void testTargetScheduleFollowsRoute() {
+    World grid = new World(new StringReader(gridWorld(4)));
+    int first = grid.getRooms().get(0).getRoomId();
+    assertEquals(first, grid.getTargetRoomIdAtTurn(1));
+    assertEquals(first + 4, grid.getTargetRoomIdAtTurn(5));
+    assertEquals(first, grid.getTargetRoomIdAtTurn(17));
+    assertEquals(first + 3, grid.getTargetRoomIdAtTurn(1000004));
+    assertEquals(3, grid.getNextTargetVisitTurn(first + 2));
+    assertEquals(17, grid.getNextTargetVisitTurn(first));
+    assertEquals(-1, grid.getNextTargetVisitTurn(first + 99));
+
+    grid.callCreatePlayer("Walker", 1);
+    for (int i = 0; i < 40; i++) {
+      int expected = grid.getTargetRoomIdAtTurn(grid.getCurrentTurn() + 1);
+      grid.advanceTurn();
+      assertEquals(expected, grid.getTarget().getLocation().getRoomId());
+    }
+    assertTrue(grid.getWorldText().contains("Target's Location: "
+        + grid.getTarget().getLocation().getRoomName() + "\n"));
+
+    grid.moveTargetToRoom("Room 3-2");
+    int teleported = grid.getTarget().getLocation().getRoomId();
+    assertEquals(teleported + 1, grid.getTargetRoomIdAtTurn(grid.getCurrentTurn() + 1));
+    grid.createRoom("Annex", first + 16, new int[] {0, 13, 1, 14}, grid.getRoomData());
+    assertEquals(grid.getCurrentTurn() + 16 - (teleported - first),
+        grid.getNextTargetVisitTurn(first + 16));
+    assertEquals("Target moved to next room: Room 3-3", grid.moveTargetToNextRoom());
+    assertEquals("Target moved to next room: Annex", grid.moveTargetToNextRoom());
+    assertEquals("Target moved to next room: Room 0-0", grid.moveTargetToNextRoom());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTargetScheduleRejectsPastTurns() {
+    World grid = new World(new StringReader(gridWorld(2)));
+    grid.setCurrentTurn(3);
+    grid.getTargetRoomIdAtTurn(2);
+  }
+
+  private static World playedGrid(int turns) {
+    StringBuilder input = new StringBuilder("8 8 Blocks\n50 Target\nPet\n16\n");
+    for (int r = 0; r < 4; r++) {
+      for (int c = 0; c < 4; c++) {
+        input.append(r * 2).append(' ').append(c * 2).append(' ').append(r * 2 + 1).append(' ')
+            .append(c * 2 + 1).append(" Block ").append(r).append('-').append(c).append('\n');
+      }
+    }
+    World grid = new World(new StringReader(input.append("0\n").toString()));
+    for (int i = 0; i < 7; i++) {
+      grid.getPlayerIds().add(grid.callCreatePlayer("P" + i, 1 + i % 2));
+    }
+    for (int t = 0; t < turns; t++) {
+      int mover = grid.getCurrentPlayerId();
+      grid.movePlayer(mover, grid.getNeighborRooms(grid.getPlayerRoomId(mover)).get(0));
+      grid.advanceTurn();
+    }
+    return grid;
+  }
+
+  @Test
+  public void testIncrementalMapMatchesFullRedraw() {
+    World played = playedGrid(0);
+    played.drawWorld();
+    for (int turns = 1; turns <= 12; turns++) {
+      played.movePlayer(played.getCurrentPlayerId(), played.getNeighborRooms(
+          played.getPlayerRoomId(played.getCurrentPlayerId())).get(0));
+      played.advanceTurn();
+      BufferedImage incremental = played.drawWorld();
+      BufferedImage full = playedGrid(turns).drawWorld();
+      int width = full.getWidth();
+      int height = full.getHeight();
+      assertArrayEquals(full.getRGB(0, 0, width, height, null, 0, width),
+          incremental.getRGB(0, 0, width, height, null, 0, width));
+    }
+    assertEquals(new Rectangle(80, 0, 79, 79), played.getRoomCoordinates().get(2));
+  }
+
+  @Test
+  public void testMapAreasMatchFullPicture() {
+    World played = playedGrid(5);
+    BufferedImage full = played.drawWorld();
+    Dimension size = played.getMapSize();
+    assertEquals(new Dimension(full.getWidth(), full.getHeight()), size);
+    BufferedImage tiled = new BufferedImage(size.width, size.height,
+        BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < size.height; y += 70) {
+      for (int x = 0; x < size.width; x += 100) {
+        Rectangle area = new Rectangle(x, y, 100, 70);
+        Graphics2D g = tiled.createGraphics();
+        g.clip(area);
+        played.paintMapRooms(g, area);
+        g.dispose();
+      }
+    }
+    Graphics2D g = tiled.createGraphics();
+    played.paintMapTokens(g, new Rectangle(0, 0, size.width, size.height));
+    g.dispose();
+    assertArrayEquals(full.getRGB(0, 0, size.width, size.height, null, 0, size.width),
+        tiled.getRGB(0, 0, size.width, size.height, null, 0, size.width));
+    assertEquals(7, played.getPlayerCoordinates().size());
+  }
 
 }